@@ -0,0 +1,113 @@
+package com.peliplat.ai.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.SearchResultVo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * detailSearch响应解码基准测试
+ * 对比 先反序列化为SearchResultVo再复制为MovieDetailVo 与 DetailSearchDecoder流式解码。
+ * 配合 -prof gc 查看每次解码的分配字节数（gc.alloc.rate.norm）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetailSearchDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = buildPayload(PeliplatApiSupport.DEFAULT_PAGE_SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public MovieListResponseVo databindThenCopy() throws IOException {
+        return PeliplatApiSupport.convertSearchResultToMovieList(objectMapper.readValue(body, SearchResultVo.class));
+    }
+
+    @Benchmark
+    public MovieListResponseVo streamingDecode() throws IOException {
+        return DetailSearchDecoder.decode(body);
+    }
+
+    /**
+     * 生成与线上detailSearch结构一致的响应：每部电影带剧照列表、高亮片段和完整演职员
+     */
+    static String buildPayload(int movies) {
+        StringBuilder json = new StringBuilder("{\"code\":200,\"msg\":\"success\",\"result\":{\"total\":")
+                .append(movies).append(",\"list\":[");
+        for (int i = 0; i < movies; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"relateType\":\"media\",\"highLight\":\"<em>Movie</em> title ").append(i).append("\",")
+                    .append("\"details\":{\"typeForId\":\"media\",\"mediaId\":").append(1000 + i)
+                    .append(",\"mediaType\":1,\"imdbId\":\"tt").append(1000000 + i)
+                    .append("\",\"ppId\":\"mv").append(1000 + i)
+                    .append("\",\"rating\":\"7.").append(i % 10)
+                    .append("\",\"title\":\"Movie title ").append(i)
+                    .append("\",\"poster\":\"https://img.peliplat.com/poster/").append(i).append(".jpg\"")
+                    .append(",\"publicYear\":").append(1990 + i % 30)
+                    .append(",\"certificate\":\"PG-13\",\"runTime\":").append(90 + i)
+                    .append(",\"geners\":\"Drama,Romance\",\"genres\":\"Drama,Romance\"")
+                    .append(",\"plot\":\"").append("A long plot summary sentence for the movie. ".repeat(6)).append('"')
+                    .append(",\"releaseDate\":\"2001-01-01\",\"originalTitle\":\"Original title ").append(i).append('"')
+                    .append(",\"canRating\":true,\"approveStatus\":1,\"watchStatus\":0,\"watchListStatus\":0")
+                    .append(",\"plotKeywords\":[\"love\",\"ship\",\"iceberg\",\"tragedy\",\"class\"]")
+                    .append(",\"languages\":\"en\"");
+            json.append(",\"directors\":[");
+            appendPersons(json, 2, "Director");
+            json.append("],\"actors\":[");
+            appendPersons(json, 10, "Actor");
+            json.append("],\"backdrops\":[");
+            appendUrls(json, 30, "backdrop");
+            json.append("],\"newBackdrops\":[");
+            appendUrls(json, 30, "new-backdrop");
+            json.append("],\"popularity\":\"98.1\",\"status\":1}}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    private static void appendPersons(StringBuilder json, int count, String job) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"personId\":").append(i).append(",\"pcId\":\"pc").append(i)
+                    .append("\",\"name\":\"Person ").append(i)
+                    .append("\",\"photoUrl\":\"https://img.peliplat.com/person/").append(i).append(".jpg\"")
+                    .append(",\"role\":\"Role ").append(i).append("\",\"job\":\"").append(job).append("\"}");
+        }
+    }
+
+    private static void appendUrls(StringBuilder json, int count, String kind) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"https://img.peliplat.com/").append(kind).append('/').append(i).append(".jpg\"");
+        }
+    }
+}
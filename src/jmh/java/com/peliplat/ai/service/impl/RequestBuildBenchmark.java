@@ -0,0 +1,141 @@
+package com.peliplat.ai.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求构建基准测试
+ * 对比 每次请求用UriComponentsBuilder/LinkedMultiValueMap构建并由FormHttpMessageConverter序列化
+ * 与 预编译RequestTemplate直接生成URL和表单字节。
+ * 配合 -prof gc 查看每次请求的分配字节数（gc.alloc.rate.norm）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBuildBenchmark {
+
+    private static final String QUERY = "千与千寻 Spirited Away";
+    private static final String GENRE = "Action,Comedy";
+    private static final String GENRE_IDS = "1901930552914399244,1901930552914399242";
+
+    private final FormHttpMessageConverter formConverter = new FormHttpMessageConverter();
+
+    @Benchmark
+    public String legacySearchUrl() {
+        return UriComponentsBuilder.fromUriString(PeliplatApiSupport.PELIPLAT_API_BASE_URL)
+                .queryParam("languageCode", "zh")
+                .queryParam("pageSize", PeliplatApiSupport.DEFAULT_PAGE_SIZE)
+                .queryParam("client", "web")
+                .queryParam("keyword", URLEncoder.encode(QUERY, StandardCharsets.UTF_8))
+                .queryParam("pageId", 1)
+                .queryParam("mark", "movies,series")
+                .build()
+                .toUriString();
+    }
+
+    @Benchmark
+    public String templateSearchUrl() {
+        return PeliplatApiSupport.buildSearchUrl(QUERY, 1, "zh", PeliplatApiSupport.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] legacyYearAndGenreForm() throws IOException {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("filterIds", GENRE_IDS);
+        params.add("language", "en");
+        params.add("client", "web");
+        params.add("watched", "false");
+        params.add("whereToWatch", "false");
+        params.add("targetUid", "");
+        params.add("filterMediaType", "1");
+        params.add("sort", "3");
+        params.add("sortMode", "1");
+        params.add("queryMode", "2");
+        params.add("pageId", "1");
+        params.add("pageSize", String.valueOf(PeliplatApiSupport.DEFAULT_PAGE_SIZE));
+        params.add("filterYear", "[2024:2024]");
+        params.add("filterRegion", "");
+        params.add("filterRuntime", "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        return writeForm(new HttpEntity<>(params, headers));
+    }
+
+    @Benchmark
+    public HttpEntity<byte[]> templateYearAndGenreForm() {
+        return new HttpEntity<>(PeliplatApiSupport.buildYearAndGenreForm("2024", GENRE, "en"),
+                PeliplatApiSupport.FORM_HEADERS);
+    }
+
+    @Benchmark
+    public byte[] legacyPopularMoviesForm() throws IOException {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("filterIds", PeliplatApiSupport.POPULAR_MOVIES_FILTER_ID);
+        params.add("language", "zh");
+        params.add("client", "web");
+        params.add("watched", "false");
+        params.add("whereToWatch", "false");
+        params.add("filterMediaType", "1");
+        params.add("filterYear", "");
+        params.add("filterRegion", "");
+        params.add("filterRuntime", "");
+        params.add("sort", "3");
+        params.add("sortMode", "1");
+        params.add("queryMode", "2");
+        params.add("pageId", "1");
+        params.add("pageSize", String.valueOf(PeliplatApiSupport.DEFAULT_PAGE_SIZE));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        return writeForm(new HttpEntity<>(params, headers));
+    }
+
+    @Benchmark
+    public HttpEntity<byte[]> templatePopularMoviesForm() {
+        return new HttpEntity<>(PeliplatApiSupport.buildPopularMoviesForm("zh"), PeliplatApiSupport.FORM_HEADERS);
+    }
+
+    /**
+     * 模拟RestTemplate发送前由FormHttpMessageConverter序列化表单
+     */
+    private byte[] writeForm(HttpEntity<MultiValueMap<String, String>> entity) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        HttpHeaders headers = new HttpHeaders();
+        formConverter.write(entity.getBody(), entity.getHeaders().getContentType(), new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body.toByteArray();
+    }
+}
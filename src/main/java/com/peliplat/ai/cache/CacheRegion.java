@@ -0,0 +1,42 @@
+package com.peliplat.ai.cache;
+
+/**
+ * 搜索结果缓存分区
+ * 每个分区对应一个搜索方法，拥有独立的容量与过期时间
+ */
+public enum CacheRegion {
+
+    /**
+     * 关键词搜索（searchMoviesByQueryForVo及并发搜索的单部电影查询）
+     */
+    QUERY("query", "detail-search"),
+
+    /**
+     * 按年份和类型搜索（searchMoviesByYearAndGenreForVo）
+     */
+    YEAR_GENRE("year-genre", "library"),
+
+    /**
+     * 本周热门电影（getPopularMoviesThisWeekForVo）
+     */
+    POPULAR("popular", "library");
+
+    private final String metricName;
+    private final String entitySource;
+
+    CacheRegion(String metricName, String entitySource) {
+        this.metricName = metricName;
+        this.entitySource = entitySource;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * 结果中电影实体的来源接口（detailSearch或listMedias），来源相同的分区字段一致，可以共享实体
+     */
+    public String getEntitySource() {
+        return entitySource;
+    }
+}
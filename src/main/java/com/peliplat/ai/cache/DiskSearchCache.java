@@ -0,0 +1,176 @@
+package com.peliplat.ai.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieListResponseVo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 搜索结果磁盘二级缓存
+ * 位于进程内缓存之后，基于SegmentStore持久化到本地磁盘，节点重启后可直接使用上次的热点数据。
+ * 键为 分区|查询|语言|条数 的SHA-256摘要，值为MovieListResponseVo的JSON
+ */
+@Component
+public class DiskSearchCache implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskSearchCache.class);
+
+    private static final long MB = 1024L * 1024L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            // 版本升级后VO字段可能变化，旧数据中的多余字段直接忽略
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final SegmentStore store;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public DiskSearchCache(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.DiskCache config = peliplatProperties.getDiskCache();
+        SegmentStore opened = null;
+        if (config.isEnabled()) {
+            try {
+                opened = SegmentStore.open(Path.of(config.getDirectory()),
+                        Math.toIntExact(config.getSegmentSizeMb() * MB), config.getMaxSizeMb() * MB);
+            } catch (IOException | RuntimeException e) {
+                // 磁盘缓存不可用时不影响服务启动，只使用进程内缓存
+                logger.error("磁盘缓存初始化失败，已禁用，目录: {}", config.getDirectory(), e);
+            }
+        }
+        this.store = opened;
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * 读取磁盘缓存，不存在、已过期或无法解析时返回null
+     */
+    public CachedEntry get(CacheRegion region, SearchCacheKey key) {
+        if (store == null) {
+            return null;
+        }
+        byte[] digest = digest(region, key);
+        try {
+            SegmentStore.Entry entry = store.get(digest);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            MovieListResponseVo value = objectMapper.readValue(entry.value(), MovieListResponseVo.class);
+            hits.increment();
+            return new CachedEntry(value, entry.writtenAtMillis());
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            logger.warn("读取磁盘缓存失败: {} {}", region, key, e);
+            remove(digest);
+            return null;
+        }
+    }
+
+    /**
+     * 写入磁盘缓存
+     *
+     * @param retention 保留时长，超过后不再返回
+     */
+    public void put(CacheRegion region, SearchCacheKey key, MovieListResponseVo value, Duration retention) {
+        if (store == null) {
+            return;
+        }
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(value);
+            if (store.put(digest(region, key), bytes, System.currentTimeMillis() + retention.toMillis())) {
+                writes.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            logger.warn("写入磁盘缓存失败: {} {}", region, key, e);
+        }
+    }
+
+    /**
+     * 删除磁盘缓存
+     */
+    public void invalidate(CacheRegion region, SearchCacheKey key) {
+        if (store != null) {
+            remove(digest(region, key));
+        }
+    }
+
+    private void remove(byte[] digest) {
+        try {
+            store.remove(digest);
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            logger.warn("删除磁盘缓存失败", e);
+        }
+    }
+
+    private static byte[] digest(CacheRegion region, SearchCacheKey key) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            String raw = region.getMetricName() + '|' + key.query() + '|' + key.language() + '|' + key.pageSize();
+            return sha256.digest(raw.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 暴露磁盘缓存命中、未命中、写入、错误次数以及条目数和占用空间
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (store == null) {
+            return;
+        }
+        FunctionCounter.builder("peliplat.search.disk.gets", hits, LongAdder::sum)
+                .description("磁盘缓存命中次数").tag("result", "hit").register(registry);
+        FunctionCounter.builder("peliplat.search.disk.gets", misses, LongAdder::sum)
+                .description("磁盘缓存未命中次数").tag("result", "miss").register(registry);
+        FunctionCounter.builder("peliplat.search.disk.writes", writes, LongAdder::sum)
+                .description("磁盘缓存写入次数").register(registry);
+        FunctionCounter.builder("peliplat.search.disk.errors", errors, LongAdder::sum)
+                .description("磁盘缓存读写失败次数").register(registry);
+        Gauge.builder("peliplat.search.disk.entries", store, SegmentStore::size)
+                .description("磁盘缓存条目数").register(registry);
+        Gauge.builder("peliplat.search.disk.bytes", store, SegmentStore::diskBytes)
+                .description("磁盘缓存段文件占用空间").baseUnit("bytes").register(registry);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * 磁盘缓存条目
+     *
+     * @param value           搜索结果
+     * @param writtenAtMillis 写入时间，用于恢复进程内缓存的新鲜度
+     */
+    public record CachedEntry(MovieListResponseVo value, long writtenAtMillis) {
+    }
+}
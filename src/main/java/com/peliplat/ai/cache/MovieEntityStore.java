@@ -0,0 +1,144 @@
+package com.peliplat.ai.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 电影实体存储
+ * 按(ppId, 语言, 来源接口)保存唯一的MovieDetailVo，缓存的结果列表只保存ppId引用，读取时再组装。
+ * 同一部电影出现在多个查询结果中时只占用一份内存，同一来源的任何一次加载都会更新这份实体。
+ * detailSearch与listMedias返回的字段不同，分别保存，互不覆盖；
+ * relateType、rank等只对某次查询有意义的字段保存在引用中，组装时与实体不同则返回带有这些字段的副本
+ */
+@Component
+public class MovieEntityStore implements MeterBinder {
+
+    private final Cache<EntityKey, MovieDetailVo> entities;
+
+    public MovieEntityStore(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Cache config = peliplatProperties.getCache();
+        this.entities = Caffeine.newBuilder()
+                .maximumSize(config.getEntityMaxSize())
+                .expireAfterAccess(Duration.ofSeconds(config.getEntityIdleSeconds()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取电影实体，不存在时返回null
+     */
+    public MovieDetailVo get(String ppId, CacheRegion region, String language) {
+        return entities.getIfPresent(new EntityKey(ppId, language, region.getEntitySource()));
+    }
+
+    /**
+     * 写入或更新电影实体，没有ppId的电影不保存
+     */
+    public void put(MovieDetailVo movie, CacheRegion region, String language) {
+        if (movie != null && movie.getPpId() != null) {
+            entities.put(new EntityKey(movie.getPpId(), language, region.getEntitySource()), movie);
+        }
+    }
+
+    /**
+     * 将结果列表拆分为引用列表，列表中的电影写入实体存储
+     */
+    public MovieRefs dehydrate(MovieListResponseVo responseVo, CacheRegion region, String language) {
+        List<MovieDetailVo> result = responseVo.getResult();
+        List<MovieRef> refs = new ArrayList<>(result != null ? result.size() : 0);
+        if (result != null) {
+            for (MovieDetailVo movie : result) {
+                if (movie != null && movie.getPpId() != null) {
+                    put(movie, region, language);
+                    refs.add(new MovieRef(movie.getPpId(), movie.getRelateType(), movie.getRank(), null));
+                } else {
+                    // 没有ppId无法共享，直接保留原对象
+                    refs.add(new MovieRef(null, null, null, movie));
+                }
+            }
+        }
+        return new MovieRefs(responseVo.getRetCode(), responseVo.getMessage(), responseVo.getShow(),
+                responseVo.getTotalPage(), responseVo.getTotalCount(), responseVo.getCount(), List.copyOf(refs));
+    }
+
+    /**
+     * 按引用列表组装结果；任一实体已被移除时返回null，由调用方重新加载
+     */
+    public MovieListResponseVo hydrate(MovieRefs refs, CacheRegion region, String language) {
+        List<MovieDetailVo> movies = new ArrayList<>(refs.movies().size());
+        for (MovieRef ref : refs.movies()) {
+            if (ref.ppId() == null) {
+                movies.add(ref.inline());
+                continue;
+            }
+            MovieDetailVo movie = get(ref.ppId(), region, language);
+            if (movie == null) {
+                return null;
+            }
+            movies.add(withQueryFields(movie, ref));
+        }
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(refs.retCode());
+        responseVo.setMessage(refs.message());
+        responseVo.setShow(refs.show());
+        responseVo.setTotalPage(refs.totalPage());
+        responseVo.setTotalCount(refs.totalCount());
+        responseVo.setCount(refs.count());
+        responseVo.setResult(movies);
+        return responseVo;
+    }
+
+    /**
+     * 实体中与查询相关的字段和引用一致时直接返回共享实体，否则返回副本，不修改其他结果列表看到的实体
+     */
+    private static MovieDetailVo withQueryFields(MovieDetailVo movie, MovieRef ref) {
+        if (Objects.equals(movie.getRelateType(), ref.relateType()) && Objects.equals(movie.getRank(), ref.rank())) {
+            return movie;
+        }
+        MovieDetailVo copy = new MovieDetailVo();
+        BeanUtils.copyProperties(movie, copy);
+        copy.setRelateType(ref.relateType());
+        copy.setRank(ref.rank());
+        return copy;
+    }
+
+    /**
+     * 暴露实体存储的缓存指标
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entities, "peliplat.search.entities");
+    }
+
+    /**
+     * 实体键
+     */
+    private record EntityKey(String ppId, String language, String source) {
+    }
+
+    /**
+     * 结果列表中的一项：有ppId时只保存引用及与本次查询相关的字段，否则保存原对象
+     */
+    public record MovieRef(String ppId, String relateType, Integer rank, MovieDetailVo inline) {
+    }
+
+    /**
+     * 只包含引用的结果列表
+     */
+    public record MovieRefs(Integer retCode, String message, String show, Integer totalPage,
+                            Integer totalCount, Integer count, List<MovieRef> movies) {
+    }
+}
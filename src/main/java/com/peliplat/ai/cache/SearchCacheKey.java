@@ -0,0 +1,33 @@
+package com.peliplat.ai.cache;
+
+import com.peliplat.ai.util.QueryNormalizer;
+
+import java.util.Locale;
+
+/**
+ * 搜索结果缓存键
+ * 由归一化后的查询条件、语言和pageSize组成
+ *
+ * @param query    归一化后的查询条件
+ * @param language 语言
+ * @param pageSize 每页条数
+ */
+public record SearchCacheKey(String query, String language, int pageSize) {
+
+    /**
+     * 创建缓存键，查询条件与语言做统一归一化
+     */
+    public static SearchCacheKey of(String query, String language, int pageSize) {
+        return of(query, language, pageSize, false);
+    }
+
+    /**
+     * 创建缓存键
+     *
+     * @param foldTraditional 是否将查询条件中的繁体字折叠为简体字
+     */
+    public static SearchCacheKey of(String query, String language, int pageSize, boolean foldTraditional) {
+        String normalizedLanguage = language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+        return new SearchCacheKey(QueryNormalizer.normalize(query, foldTraditional), normalizedLanguage, pageSize);
+    }
+}
@@ -0,0 +1,297 @@
+package com.peliplat.ai.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.service.MovieSearchExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果进程内缓存
+ * 基于Caffeine（W-TinyLFU淘汰策略），按分区设置容量与过期时间，并记录命中、未命中和淘汰统计。
+ * 未命中时同键的并发加载通过SingleFlight合并为一次上游调用。
+ * 开启stale-while-revalidate后，条目过期但未超过最大陈旧时间时直接返回旧值，并在后台异步刷新一次。
+ * 进程内未命中时先查磁盘二级缓存（DiskSearchCache），上游加载结果同时写入两级缓存。
+ * 上游正常返回但没有结果时写入短时间的空结果缓存，同一个查不到的查询在过期前不再调用上游；
+ * 后台刷新得到空结果时同时移除旧的非空结果。
+ * 进程内缓存只保存ppId引用，电影实体统一存放在MovieEntityStore中，读取时组装
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final boolean enabled;
+    private final boolean staleWhileRevalidate;
+    private final boolean serveStaleOnError;
+    private final boolean negativeEnabled;
+    private final MovieSearchExecutor movieSearchExecutor;
+    private final DiskSearchCache diskSearchCache;
+    private final MovieEntityStore movieEntityStore;
+    private final Map<CacheRegion, Cache<SearchCacheKey, CachedResult>> caches = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Long> freshNanos = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Long> retentionNanos = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Cache<SearchCacheKey, MovieListResponseVo>> negatives = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, SingleFlight<SearchCacheKey, MovieListResponseVo>> flights = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Set<SearchCacheKey>> refreshing = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, LongAdder> staleServed = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, LongAdder> refreshFailures = new EnumMap<>(CacheRegion.class);
+
+    public SearchResultCache(PeliplatProperties peliplatProperties, MovieSearchExecutor movieSearchExecutor,
+                             DiskSearchCache diskSearchCache, MovieEntityStore movieEntityStore) {
+        PeliplatProperties.Cache config = peliplatProperties.getCache();
+        this.enabled = config.isEnabled();
+        this.staleWhileRevalidate = config.isStaleWhileRevalidate();
+        this.serveStaleOnError = config.isServeStaleOnError();
+        this.negativeEnabled = config.isNegativeEnabled();
+        this.movieSearchExecutor = movieSearchExecutor;
+        this.diskSearchCache = diskSearchCache;
+        this.movieEntityStore = movieEntityStore;
+        long maxStalenessSeconds = staleWhileRevalidate ? config.getMaxStalenessSeconds() : 0;
+        initRegion(CacheRegion.QUERY, config.getQueryMaxSize(), config.getQueryTtlSeconds(), maxStalenessSeconds);
+        initRegion(CacheRegion.YEAR_GENRE, config.getYearGenreMaxSize(), config.getYearGenreTtlSeconds(), maxStalenessSeconds);
+        initRegion(CacheRegion.POPULAR, config.getPopularMaxSize(), config.getPopularTtlSeconds(), maxStalenessSeconds);
+        for (CacheRegion region : CacheRegion.values()) {
+            negatives.put(region, Caffeine.newBuilder()
+                    .maximumSize(config.getNegativeMaxSize())
+                    .expireAfterWrite(Duration.ofSeconds(config.getNegativeTtlSeconds()))
+                    .recordStats()
+                    .build());
+        }
+    }
+
+    private void initRegion(CacheRegion region, long maximumSize, long ttlSeconds, long maxStalenessSeconds) {
+        // Caffeine的过期时间即硬性上限：TTL之后最多再保留maxStalenessSeconds用于返回旧值。
+        // 按条目的加载时间计算剩余时长，从磁盘恢复的条目不会因重新放入而延长寿命
+        long retention = Duration.ofSeconds(ttlSeconds + maxStalenessSeconds).toNanos();
+        caches.put(region, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new RetentionExpiry(retention))
+                .recordStats()
+                .build());
+        freshNanos.put(region, Duration.ofSeconds(ttlSeconds).toNanos());
+        retentionNanos.put(region, retention);
+        flights.put(region, new SingleFlight<>());
+        refreshing.put(region, ConcurrentHashMap.newKeySet());
+        staleServed.put(region, new LongAdder());
+        refreshFailures.put(region, new LongAdder());
+    }
+
+    /**
+     * 读取缓存，未命中时调用loader加载；同键并发未命中只会调用一次loader。
+     * 只缓存非空结果，loader抛出的异常原样抛给所有等待的调用方。
+     * 命中已过期的旧值时立即返回旧值，同时在后台刷新（同键同时只有一个刷新任务）
+     *
+     * @param region 缓存分区
+     * @param key    缓存键
+     * @param loader 上游加载逻辑
+     * @return 搜索结果
+     */
+    public MovieListResponseVo get(CacheRegion region, SearchCacheKey key, Supplier<MovieListResponseVo> loader) {
+        Cache<SearchCacheKey, CachedResult> cache = caches.get(region);
+        if (enabled) {
+            CachedResult cached = cache.getIfPresent(key);
+            MovieListResponseVo value = cached != null ? hydrate(region, key, cached) : null;
+            if (value == null) {
+                cached = promoteFromDisk(region, key);
+                value = cached != null ? hydrate(region, key, cached) : null;
+            }
+            if (value != null) {
+                if (isFresh(region, cached)) {
+                    logger.debug("搜索缓存命中: {} {}", region, key);
+                } else {
+                    logger.debug("搜索缓存返回旧值并后台刷新: {} {}", region, key);
+                    staleServed.get(region).increment();
+                    scheduleRefresh(region, key, loader);
+                }
+                return value;
+            }
+            if (negativeEnabled) {
+                MovieListResponseVo knownEmpty = negatives.get(region).getIfPresent(key);
+                if (knownEmpty != null) {
+                    logger.debug("空结果缓存命中: {} {}", region, key);
+                    return knownEmpty;
+                }
+            }
+        }
+        return load(region, key, loader);
+    }
+
+    /**
+     * 经SingleFlight调用上游并写入缓存
+     */
+    private MovieListResponseVo load(CacheRegion region, SearchCacheKey key, Supplier<MovieListResponseVo> loader) {
+        Cache<SearchCacheKey, CachedResult> cache = caches.get(region);
+        // 不使用Caffeine的get(key, loader)：上游调用耗时较长，不宜在缓存内部的计算锁中执行
+        return flights.get(region).execute(key, () -> {
+            // 再次检查，避免在上一次加载刚写入缓存后重复调用上游（asMap读取不计入命中统计）
+            CachedResult justLoaded = enabled ? cache.asMap().get(key) : null;
+            if (justLoaded != null && isFresh(region, justLoaded)) {
+                MovieListResponseVo value = hydrate(region, key, justLoaded);
+                if (value != null) {
+                    return value;
+                }
+            }
+            MovieListResponseVo loaded = loader.get();
+            if (enabled && !isEmpty(loaded)) {
+                cache.put(key, new CachedResult(movieEntityStore.dehydrate(loaded, region, key.language()), System.nanoTime()));
+                diskSearchCache.put(region, key, loaded, Duration.ofNanos(retentionNanos.get(region)));
+                negatives.get(region).invalidate(key);
+            } else if (enabled && loaded != null) {
+                // 只有上游正常返回的空结果才会走到这里，上游异常已以PeliplatApiException抛出；
+                // 后台刷新得到空结果时旧的非空结果随之作废，改由空结果缓存回答
+                cache.invalidate(key);
+                diskSearchCache.invalidate(region, key);
+                if (negativeEnabled) {
+                    negatives.get(region).put(key, loaded);
+                }
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 从磁盘二级缓存读取并放入进程内缓存，保留原始写入时间
+     */
+    private CachedResult promoteFromDisk(CacheRegion region, SearchCacheKey key) {
+        DiskSearchCache.CachedEntry entry = diskSearchCache.get(region, key);
+        if (entry == null) {
+            return null;
+        }
+        long ageMillis = Math.max(0, System.currentTimeMillis() - entry.writtenAtMillis());
+        CachedResult promoted = new CachedResult(movieEntityStore.dehydrate(entry.value(), region, key.language()),
+                System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ageMillis));
+        caches.get(region).put(key, promoted);
+        logger.debug("磁盘缓存命中: {} {}", region, key);
+        return promoted;
+    }
+
+    /**
+     * 在共享线程池中异步刷新旧值；失败时按serveStaleOnError决定保留还是丢弃旧值，
+     * 刷新得到空结果时load已移除旧值
+     */
+    private void scheduleRefresh(CacheRegion region, SearchCacheKey key, Supplier<MovieListResponseVo> loader) {
+        Set<SearchCacheKey> inProgress = refreshing.get(region);
+        if (!inProgress.add(key)) {
+            return;
+        }
+        movieSearchExecutor.supplyAsync(() -> load(region, key, loader))
+                .whenComplete((result, e) -> {
+                    inProgress.remove(key);
+                    if (e != null) {
+                        refreshFailures.get(region).increment();
+                        logger.warn("搜索缓存后台刷新失败: {} {}", region, key, e);
+                        if (!serveStaleOnError) {
+                            caches.get(region).invalidate(key);
+                            diskSearchCache.invalidate(region, key);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * 按引用组装结果；引用的实体已被移除时丢弃该条目并返回null
+     */
+    private MovieListResponseVo hydrate(CacheRegion region, SearchCacheKey key, CachedResult cached) {
+        MovieListResponseVo value = movieEntityStore.hydrate(cached.refs(), region, key.language());
+        if (value == null) {
+            caches.get(region).asMap().remove(key, cached);
+        }
+        return value;
+    }
+
+    private boolean isFresh(CacheRegion region, CachedResult cached) {
+        return !staleWhileRevalidate || System.nanoTime() - cached.loadedAtNanos() < freshNanos.get(region);
+    }
+
+    /**
+     * 清空指定分区的进程内缓存（磁盘缓存按保留时长自然过期）
+     */
+    public void invalidateAll(CacheRegion region) {
+        caches.get(region).invalidateAll();
+        negatives.get(region).invalidateAll();
+    }
+
+    static boolean isEmpty(MovieListResponseVo responseVo) {
+        return responseVo == null || responseVo.getResult() == null || responseVo.getResult().isEmpty();
+    }
+
+    /**
+     * 缓存条目，只保存ppId引用，并记录加载时间用于判断是否过期
+     */
+    private record CachedResult(MovieEntityStore.MovieRefs refs, long loadedAtNanos) {
+    }
+
+    /**
+     * 以条目加载时间为起点计算过期时间
+     */
+    private record RetentionExpiry(long retentionNanos) implements Expiry<SearchCacheKey, CachedResult> {
+
+        @Override
+        public long expireAfterCreate(SearchCacheKey key, CachedResult value, long currentTime) {
+            return Math.max(0, value.loadedAtNanos() + retentionNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(SearchCacheKey key, CachedResult value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(SearchCacheKey key, CachedResult value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 暴露缓存指标（cache.gets、cache.evictions、cache.size等，按cache标签区分分区，空结果缓存以.negative结尾），
+     * 请求合并节省的上游调用数，以及返回旧值和后台刷新失败的次数
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        caches.forEach((region, cache) ->
+                CaffeineCacheMetrics.monitor(registry, cache, "peliplat.search." + region.getMetricName()));
+        negatives.forEach((region, cache) ->
+                CaffeineCacheMetrics.monitor(registry, cache, "peliplat.search." + region.getMetricName() + ".negative"));
+        flights.forEach((region, flight) -> {
+            FunctionCounter.builder("peliplat.search.coalesced", flight, SingleFlight::coalescedCount)
+                    .description("被合并而节省的上游调用次数")
+                    .tag("region", region.getMetricName())
+                    .register(registry);
+            Gauge.builder("peliplat.search.inflight", flight, SingleFlight::inFlightCount)
+                    .description("进行中的上游加载数")
+                    .tag("region", region.getMetricName())
+                    .register(registry);
+        });
+        staleServed.forEach((region, counter) ->
+                FunctionCounter.builder("peliplat.search.stale.served", counter, LongAdder::sum)
+                        .description("过期后直接返回旧值的次数")
+                        .tag("region", region.getMetricName())
+                        .register(registry));
+        refreshFailures.forEach((region, counter) ->
+                FunctionCounter.builder("peliplat.search.refresh.failures", counter, LongAdder::sum)
+                        .description("后台刷新失败的次数")
+                        .tag("region", region.getMetricName())
+                        .register(registry));
+    }
+}
@@ -0,0 +1,362 @@
+package com.peliplat.ai.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 追加写、内存映射的分段存储
+ * 每个段是一个固定大小的映射文件，记录只追加不修改；内存中只保存 键摘要 -> 记录位置 的索引，
+ * 启动时顺序扫描所有段重建索引。删除通过追加墓碑记录实现，
+ * 最旧的段存活数据不足一半时复制存活记录后删除，总大小超过上限时直接丢弃最旧的段。
+ * <p>
+ * 记录格式：长度(4) | CRC32(4) | 写入时间(8) | 过期时间(8，0表示墓碑) | 键摘要(32) | 值
+ */
+public class SegmentStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentStore.class);
+
+    /**
+     * 键摘要长度（SHA-256）
+     */
+    public static final int DIGEST_LENGTH = 32;
+
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + DIGEST_LENGTH;
+    private static final long TOMBSTONE = 0L;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.seg");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSizeBytes;
+    private final LongSupplier clock;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private Segment active;
+    private boolean maintaining;
+
+    /**
+     * 打开（或创建）目录下的分段存储
+     *
+     * @param directory    存储目录
+     * @param segmentSize  单个段文件大小(字节)
+     * @param maxSizeBytes 所有段文件的总大小上限(字节)，至少为两个段
+     */
+    public static SegmentStore open(Path directory, int segmentSize, long maxSizeBytes) throws IOException {
+        return new SegmentStore(directory, segmentSize, maxSizeBytes, System::currentTimeMillis);
+    }
+
+    SegmentStore(Path directory, int segmentSize, long maxSizeBytes, LongSupplier clock) throws IOException {
+        if (segmentSize <= HEADER_LENGTH) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSizeBytes = Math.max(maxSizeBytes, 2L * segmentSize);
+        this.clock = clock;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * 读取未过期的记录，不存在时返回null
+     */
+    public synchronized Entry get(byte[] digest) {
+        String key = HEX.formatHex(digest);
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (location.expiresAtMillis() <= clock.getAsLong()) {
+            updateIndex(key, null);
+            return null;
+        }
+        byte[] value = new byte[location.length() - HEADER_LENGTH];
+        location.segment().buffer.get(location.offset() + HEADER_LENGTH, value);
+        return new Entry(value, location.writtenAtMillis(), location.expiresAtMillis());
+    }
+
+    /**
+     * 追加一条记录，覆盖同键的旧记录
+     *
+     * @return 记录超过单个段大小而未写入时返回false
+     */
+    public synchronized boolean put(byte[] digest, byte[] value, long expiresAtMillis) throws IOException {
+        if (HEADER_LENGTH + value.length > segmentSize) {
+            return false;
+        }
+        append(digest, value, clock.getAsLong(), expiresAtMillis);
+        return true;
+    }
+
+    /**
+     * 删除记录（追加墓碑）
+     */
+    public synchronized void remove(byte[] digest) throws IOException {
+        if (index.containsKey(HEX.formatHex(digest))) {
+            append(digest, new byte[0], clock.getAsLong(), TOMBSTONE);
+        }
+    }
+
+    /**
+     * 当前索引中的记录数（含尚未清理的过期记录）
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * 段文件占用的磁盘空间(字节)
+     */
+    public synchronized long diskBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.capacity;
+        }
+        return total;
+    }
+
+    /**
+     * 段文件数
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        active = null;
+    }
+
+    private void append(byte[] digest, byte[] value, long writtenAtMillis, long expiresAtMillis) throws IOException {
+        int length = HEADER_LENGTH + value.length;
+        if (active.writePosition + length > active.capacity) {
+            roll();
+        }
+        Segment segment = active;
+        int offset = segment.writePosition;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putLong(offset + 8, writtenAtMillis);
+        buffer.putLong(offset + 16, expiresAtMillis);
+        buffer.put(offset + 24, digest, 0, DIGEST_LENGTH);
+        buffer.put(offset + HEADER_LENGTH, value);
+        buffer.putInt(offset + 4, checksum(buffer, offset, length));
+        // 最后写入长度，扫描时长度为0即视为段内数据结束
+        buffer.putInt(offset, length);
+        segment.writePosition = offset + length;
+
+        String key = HEX.formatHex(digest);
+        updateIndex(key, expiresAtMillis == TOMBSTONE ? null
+                : new Location(segment, offset, length, writtenAtMillis, expiresAtMillis));
+    }
+
+    /**
+     * 当前段写满后切换到新段，并执行压缩与容量控制
+     */
+    private void roll() throws IOException {
+        active.buffer.force();
+        active = createSegment(active.id + 1);
+        if (!maintaining) {
+            maintain();
+        }
+    }
+
+    private void maintain() throws IOException {
+        maintaining = true;
+        try {
+            // 只处理最旧的段：更旧的数据已不存在，丢弃其中的墓碑不会让旧值复活
+            while (segments.size() > 1 && segments.peekFirst() != active) {
+                Segment oldest = segments.peekFirst();
+                if (oldest.liveBytes * 2L > oldest.writePosition) {
+                    break;
+                }
+                copyLiveRecords(oldest);
+                dropSegment(oldest);
+            }
+            while (diskBytes() > maxSizeBytes && segments.size() > 1) {
+                Segment oldest = segments.peekFirst();
+                logger.info("磁盘缓存超过容量上限，丢弃最旧的段: {}", oldest.path.getFileName());
+                dropSegment(oldest);
+            }
+        } finally {
+            maintaining = false;
+        }
+    }
+
+    private void copyLiveRecords(Segment segment) throws IOException {
+        long now = clock.getAsLong();
+        List<Map.Entry<String, Location>> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment() == segment) {
+                live.add(entry);
+            }
+        }
+        for (Map.Entry<String, Location> entry : live) {
+            Location location = entry.getValue();
+            if (location.expiresAtMillis() <= now) {
+                updateIndex(entry.getKey(), null);
+                continue;
+            }
+            byte[] value = new byte[location.length() - HEADER_LENGTH];
+            segment.buffer.get(location.offset() + HEADER_LENGTH, value);
+            append(HEX.parseHex(entry.getKey()), value, location.writtenAtMillis(), location.expiresAtMillis());
+        }
+    }
+
+    private void dropSegment(Segment segment) throws IOException {
+        index.values().removeIf(location -> location.segment() == segment);
+        segments.remove(segment);
+        segment.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    private void updateIndex(String key, Location location) {
+        Location previous = location == null ? index.remove(key) : index.put(key, location);
+        if (previous != null) {
+            previous.segment().liveBytes -= previous.length();
+        }
+        if (location != null) {
+            location.segment().liveBytes += location.length();
+        }
+    }
+
+    /**
+     * 启动时按段序号顺序扫描，重建索引；遇到不完整或校验失败的记录即停止扫描该段
+     */
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+
+        long now = clock.getAsLong();
+        for (long id : ids) {
+            Segment segment = openSegment(id);
+            segments.addLast(segment);
+            scan(segment, now);
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.peekLast();
+        }
+        logger.info("磁盘缓存已加载，目录: {}, 段数: {}, 记录数: {}", directory, segments.size(), index.size());
+    }
+
+    private void scan(Segment segment, long now) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_LENGTH <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length < HEADER_LENGTH || position + length > segment.capacity
+                    || buffer.getInt(position + 4) != checksum(buffer, position, length)) {
+                break;
+            }
+            long writtenAtMillis = buffer.getLong(position + 8);
+            long expiresAtMillis = buffer.getLong(position + 16);
+            byte[] digest = new byte[DIGEST_LENGTH];
+            buffer.get(position + 24, digest);
+            String key = HEX.formatHex(digest);
+            if (expiresAtMillis == TOMBSTONE || expiresAtMillis <= now) {
+                updateIndex(key, null);
+            } else {
+                updateIndex(key, new Location(segment, position, length, writtenAtMillis, expiresAtMillis));
+            }
+            position += length;
+        }
+        segment.writePosition = position;
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = openSegment(id);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%010d.seg", id));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // 已有文件按实际大小映射，兼容修改过段大小配置的旧文件
+        long existing = channel.size();
+        int capacity = existing > 0 ? (int) Math.min(existing, Integer.MAX_VALUE) : segmentSize;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new Segment(id, path, channel, buffer, capacity);
+    }
+
+    /**
+     * 校验范围为CRC字段之后的全部字节
+     */
+    private static int checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 8, length - 8));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 读取到的记录
+     *
+     * @param value           值
+     * @param writtenAtMillis 写入时间
+     * @param expiresAtMillis 过期时间
+     */
+    public record Entry(byte[] value, long writtenAtMillis, long expiresAtMillis) {
+    }
+
+    private record Location(Segment segment, int offset, int length, long writtenAtMillis, long expiresAtMillis) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int writePosition;
+        private long liveBytes;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        private void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
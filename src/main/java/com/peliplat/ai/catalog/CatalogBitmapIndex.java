@@ -0,0 +1,182 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.genre.Genre;
+import com.peliplat.ai.genre.GenreTaxonomy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 电影目录快照上的位图索引
+ * 加载快照时为每个媒体类型、类型、年份和原始语言各建一个以行号为位的BitSet，
+ * 筛选只做位图的与/或运算。快照的行已按热度降序排列，按位顺序遍历即为热度顺序；
+ * 按评分排序时遍历预先算好的评分顺序行号。
+ * 类型位图以类型ID为键，建索引和查询都通过建索引时的同一版类型分类表把名称解析为ID
+ */
+final class CatalogBitmapIndex {
+
+    private static final int MOVIE_MEDIA_TYPE = 1;
+
+    private final CatalogSnapshot snapshot;
+    private final GenreTaxonomy taxonomy;
+    private final BitSet movies = new BitSet();
+    private final Map<String, BitSet> genres = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> years = new TreeMap<>();
+    private final Map<String, BitSet> languages = new HashMap<>();
+    private final int[] ratingOrder;
+
+    private CatalogBitmapIndex(CatalogSnapshot snapshot, GenreTaxonomy taxonomy) {
+        this.snapshot = snapshot;
+        this.taxonomy = taxonomy;
+        String[] genreKeys = new String[snapshot.genreCount()];
+        for (int code = 0; code < genreKeys.length; code++) {
+            genreKeys[code] = genreKey(snapshot.genreName(code));
+        }
+        int rows = snapshot.size();
+        List<Integer> rated = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            if (snapshot.mediaType(row) != MOVIE_MEDIA_TYPE) {
+                continue;
+            }
+            movies.set(row);
+            for (int code : snapshot.genreCodes(row)) {
+                genres.computeIfAbsent(genreKeys[code], key -> new BitSet(rows)).set(row);
+            }
+            int year = snapshot.year(row);
+            if (year > 0) {
+                years.computeIfAbsent(year, key -> new BitSet(rows)).set(row);
+            }
+            String languageCodes = snapshot.languageCodes(row);
+            if (languageCodes != null) {
+                for (String language : languageCodes.split(",")) {
+                    if (!language.isBlank()) {
+                        languages.computeIfAbsent(languageKey(language), key -> new BitSet(rows)).set(row);
+                    }
+                }
+            }
+            rated.add(row);
+        }
+        // 评分降序，未知评分排在最后；评分相同时按热度（行号）
+        rated.sort((a, b) -> {
+            float ratingA = snapshot.rating(a);
+            float ratingB = snapshot.rating(b);
+            float keyA = Float.isNaN(ratingA) ? Float.NEGATIVE_INFINITY : ratingA;
+            float keyB = Float.isNaN(ratingB) ? Float.NEGATIVE_INFINITY : ratingB;
+            return keyA != keyB ? Float.compare(keyB, keyA) : Integer.compare(a, b);
+        });
+        this.ratingOrder = rated.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static CatalogBitmapIndex build(CatalogSnapshot snapshot) {
+        return build(snapshot, GenreTaxonomy.current());
+    }
+
+    static CatalogBitmapIndex build(CatalogSnapshot snapshot, GenreTaxonomy taxonomy) {
+        return new CatalogBitmapIndex(snapshot, taxonomy);
+    }
+
+    CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 建索引时使用的类型分类表
+     */
+    GenreTaxonomy taxonomy() {
+        return taxonomy;
+    }
+
+    /**
+     * 执行筛选，有类型在快照中不存在、无法确定结果时返回null
+     */
+    Result query(CatalogQuery query) {
+        BitSet matched = (BitSet) movies.clone();
+        if (query.hasYearFilter()) {
+            int to = query.yearTo() > 0 ? query.yearTo() : Integer.MAX_VALUE;
+            BitSet inRange = new BitSet();
+            if (query.yearFrom() <= to) {
+                for (BitSet year : years.subMap(query.yearFrom(), true, to, true).values()) {
+                    inRange.or(year);
+                }
+            }
+            matched.and(inRange);
+        }
+        if (query.genres() != null && !query.genres().isEmpty()) {
+            BitSet genreMatched = query.matchAllGenres() ? null : new BitSet();
+            for (String genre : query.genres()) {
+                BitSet bits = genres.get(genreKey(genre));
+                if (bits == null) {
+                    return null;
+                }
+                if (genreMatched == null) {
+                    genreMatched = (BitSet) bits.clone();
+                } else if (query.matchAllGenres()) {
+                    genreMatched.and(bits);
+                } else {
+                    genreMatched.or(bits);
+                }
+            }
+            matched.and(genreMatched);
+        }
+        if (query.languages() != null && !query.languages().isEmpty()) {
+            BitSet languageMatched = new BitSet();
+            for (String language : query.languages()) {
+                BitSet bits = languages.get(languageKey(language));
+                if (bits != null) {
+                    languageMatched.or(bits);
+                }
+            }
+            matched.and(languageMatched);
+        }
+        return new Result(page(matched, query), matched.cardinality());
+    }
+
+    private int[] page(BitSet matched, CatalogQuery query) {
+        int skip = Math.max(0, query.offset());
+        int limit = Math.max(0, query.limit());
+        int[] rows = new int[Math.min(limit, Math.max(0, matched.cardinality() - skip))];
+        int found = 0;
+        int taken = 0;
+        if (query.sort() == CatalogQuery.Sort.RATING) {
+            for (int i = 0; i < ratingOrder.length && taken < rows.length; i++) {
+                if (matched.get(ratingOrder[i]) && found++ >= skip) {
+                    rows[taken++] = ratingOrder[i];
+                }
+            }
+        } else {
+            for (int row = matched.nextSetBit(0); row >= 0 && taken < rows.length; row = matched.nextSetBit(row + 1)) {
+                if (found++ >= skip) {
+                    rows[taken++] = row;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 类型的索引键：能在类型分类表中找到时（含中文名称和别名）使用类型的键，否则使用小写名称
+     */
+    private String genreKey(String name) {
+        Genre genre = taxonomy.find(name);
+        return genre != null ? genre.key() : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String languageKey(String language) {
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 筛选结果
+     *
+     * @param rows       当前页的行号
+     * @param totalCount 符合条件的总条数
+     */
+    record Result(int[] rows, int totalCount) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.service.LibraryFilter;
+import com.peliplat.ai.service.MovieSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 电影目录抓取任务
+ * 按语言和媒体类型深度翻页遍历listMedias，生成列式快照交给CatalogStore替换。
+ * 某个媒体类型翻满stream-max-pages页时视为被截断，快照标记为不完整，不用于回答按年份和类型的搜索。
+ * 抓取量大，默认关闭；通常只在一个节点开启，其余节点通过共享目录加载生成的快照文件
+ */
+@Component
+public class CatalogIngestJob implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIngestJob.class);
+
+    private final MovieSearchService movieSearchService;
+    private final CatalogStore catalogStore;
+    private final PeliplatProperties.Catalog config;
+    private final long maxStreamMovies;
+    private final ScheduledExecutorService scheduler;
+
+    public CatalogIngestJob(MovieSearchService movieSearchService, CatalogStore catalogStore,
+                            PeliplatProperties peliplatProperties) {
+        this.movieSearchService = movieSearchService;
+        this.catalogStore = catalogStore;
+        this.config = peliplatProperties.getCatalog();
+        PeliplatProperties.Search search = peliplatProperties.getSearch();
+        // 与streamLibraryMovies的翻页参数一致：取满这么多部说明翻到了页数上限
+        this.maxStreamMovies = (long) Math.max(1, search.getStreamPageSize()) * Math.max(1, search.getStreamMaxPages());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-ingest-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled() || !config.isIngestEnabled()) {
+            logger.info("电影目录抓取已关闭");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::ingestAll, 0, Math.max(60, config.getIngestIntervalSeconds()),
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * 抓取所有配置的语言；单个语言失败时保留旧快照
+     */
+    public void ingestAll() {
+        for (String language : config.getLanguages()) {
+            try {
+                ingest(language);
+            } catch (Exception e) {
+                logger.error("抓取电影目录失败，保留旧快照，语言: {}", language, e);
+            }
+        }
+    }
+
+    private void ingest(String language) throws Exception {
+        long start = System.currentTimeMillis();
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        for (Integer mediaType : config.getMediaTypes()) {
+            LibraryFilter filter = new LibraryFilter(null, null, null, null, mediaType);
+            long fetched = 0;
+            for (MovieDetailVo movie : movieSearchService.streamLibraryMovies(filter, language).toIterable()) {
+                writer.add(movie, mediaType);
+                fetched++;
+            }
+            if (fetched >= maxStreamMovies) {
+                logger.warn("电影目录抓取达到翻页上限，快照不完整，语言: {}, 媒体类型: {}", language, mediaType);
+                writer.markTruncated();
+            }
+        }
+        if (writer.size() == 0) {
+            logger.warn("电影目录抓取结果为空，保留旧快照，语言: {}", language);
+            return;
+        }
+        catalogStore.install(language, writer);
+        logger.info("电影目录快照已更新，语言: {}, 电影数: {}, 耗时: {}ms", language, writer.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
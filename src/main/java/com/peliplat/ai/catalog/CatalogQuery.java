@@ -0,0 +1,31 @@
+package com.peliplat.ai.catalog;
+
+import java.util.List;
+
+/**
+ * 本地电影目录的分面筛选条件
+ *
+ * @param yearFrom       起始年份（含），0表示不限
+ * @param yearTo         截止年份（含），0表示不限
+ * @param genres         类型名称，为空表示不限
+ * @param matchAllGenres true表示须同时属于所有类型，false表示属于任一类型即可
+ * @param languages      电影原始语言代码（如"en"、"ja"），属于任一语言即可，为空表示不限
+ * @param sort           排序方式
+ * @param offset         跳过的条数
+ * @param limit          最多返回条数
+ */
+public record CatalogQuery(int yearFrom, int yearTo, List<String> genres, boolean matchAllGenres,
+                           List<String> languages, Sort sort, int offset, int limit) {
+
+    /**
+     * 排序方式，均为降序
+     */
+    public enum Sort {
+        POPULARITY,
+        RATING
+    }
+
+    public boolean hasYearFilter() {
+        return yearFrom > 0 || yearTo > 0;
+    }
+}
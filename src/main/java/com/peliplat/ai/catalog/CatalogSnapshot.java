@@ -0,0 +1,411 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.PersonVo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射的列式电影目录快照（只读）
+ * 由CatalogSnapshotWriter生成。每个字段单独成列，按行号随机访问：
+ * 类型和分级是字典编码，年份与片长打包在一个int中，字符串统一存放在按偏移索引的字符串堆里，
+ * 剧情关键词、类型ID和演职人员等列表字段用分隔符编码为字符串。
+ * 行按热度降序排列，顺序扫描即为热度顺序。打开时顺序读一遍数据校验CRC（与文件大小成正比）并读取两个很小的字典，
+ * 之后按行访问都直接读映射，不再复制数据
+ * <p>
+ * 文件格式：头部(HEADER_LENGTH) | 各节，节的起始偏移记录在头部，每节按4字节对齐
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x50504353; // "PPCS"
+    static final int VERSION = 2;
+
+    // 头部：魔数(4) | 版本(4) | 行数(4) | 头部之后全部数据的CRC32(4) | 生成时间(8) | 标志(4) | 各节偏移(4 * SECTION_COUNT)
+    static final int SECTION_GENRE_DICT = 0;
+    static final int SECTION_CERTIFICATE_DICT = 1;
+    static final int SECTION_YEAR_RUNTIME = 2;
+    static final int SECTION_POPULARITY = 3;
+    static final int SECTION_RATING = 4;
+    static final int SECTION_VOTE_COUNT = 5;
+    static final int SECTION_CERTIFICATE = 6;
+    static final int SECTION_MEDIA_TYPE = 7;
+    static final int SECTION_GENRE_OFFSETS = 8;
+    static final int SECTION_GENRE_CODES = 9;
+    static final int SECTION_STRING_OFFSETS = 10;
+    static final int SECTION_STRING_HEAP = 11;
+    static final int SECTION_MEDIA_ID = 12;
+    static final int SECTION_RANK = 13;
+    static final int SECTION_COUNT = 14;
+    static final int HEADER_LENGTH = 28 + 4 * SECTION_COUNT;
+
+    // 标志位：抓取完整（没有因翻页上限截断）
+    static final int FLAG_COMPLETE = 1;
+
+    // 字符串列，每行依次存放
+    static final int STRING_PP_ID = 0;
+    static final int STRING_MM_ID = 1;
+    static final int STRING_TITLE = 2;
+    static final int STRING_ORIGINAL_TITLE = 3;
+    static final int STRING_PHOTO_URL = 4;
+    static final int STRING_RELEASE_DATE = 5;
+    static final int STRING_LANGUAGE_CODES = 6;
+    static final int STRING_SUMMARY = 7;
+    static final int STRING_GENRE_IDS = 8;
+    static final int STRING_PLOT_KEYWORDS = 9;
+    static final int STRING_DIRECTORS = 10;
+    static final int STRING_ACTORS = 11;
+    static final int STRING_COLUMNS = 12;
+
+    // 列表字段的分隔符：列表项之间、人员的各字段之间
+    static final char ITEM_SEPARATOR = '\u001E';
+    static final char FIELD_SEPARATOR = '\u001F';
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final long createdAtMillis;
+    private final boolean complete;
+    private final int[] sections = new int[SECTION_COUNT];
+    private final String[] genres;
+    private final String[] certificates;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported catalog snapshot version: " + buffer.getInt(4));
+        }
+        if (buffer.getInt(12) != checksum(buffer)) {
+            throw new IOException("Catalog snapshot checksum mismatch");
+        }
+        this.rowCount = buffer.getInt(8);
+        this.createdAtMillis = buffer.getLong(16);
+        this.complete = (buffer.getInt(24) & FLAG_COMPLETE) != 0;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sections[i] = buffer.getInt(28 + 4 * i);
+        }
+        this.genres = readDictionary(sections[SECTION_GENRE_DICT]);
+        this.certificates = readDictionary(sections[SECTION_CERTIFICATE_DICT]);
+    }
+
+    /**
+     * 以只读方式映射快照文件，文件损坏或版本不符时抛出IOException
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 映射在通道关闭后依然有效
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(buffer);
+        }
+    }
+
+    /**
+     * 从内存中的快照数据创建（测试及写入后校验使用）
+     */
+    static CatalogSnapshot wrap(byte[] data) throws IOException {
+        return new CatalogSnapshot(ByteBuffer.wrap(data).asReadOnlyBuffer());
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    public long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * 抓取时是否遍历完了整个库列表；因翻页上限截断的快照只包含热度靠前的一部分电影
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 快照字典中的类型数，类型编码为[0, genreCount)
+     */
+    public int genreCount() {
+        return genres.length;
+    }
+
+    public String genreName(int code) {
+        return genres[code];
+    }
+
+    /**
+     * 按名称（忽略大小写）查找类型编码，快照中没有该类型时返回-1
+     */
+    public int genreCode(String name) {
+        for (int i = 0; i < genres.length; i++) {
+            if (genres[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 上映年份，未知时为0
+     */
+    public int year(int row) {
+        return buffer.getInt(sections[SECTION_YEAR_RUNTIME] + 4 * row) >>> 16;
+    }
+
+    /**
+     * 片长(分钟)，未知时为0
+     */
+    public int runtime(int row) {
+        return buffer.getInt(sections[SECTION_YEAR_RUNTIME] + 4 * row) & 0xFFFF;
+    }
+
+    /**
+     * 热度，未知时为NaN
+     */
+    public float popularity(int row) {
+        return buffer.getFloat(sections[SECTION_POPULARITY] + 4 * row);
+    }
+
+    /**
+     * 评分，未知时为NaN
+     */
+    public float rating(int row) {
+        return buffer.getFloat(sections[SECTION_RATING] + 4 * row);
+    }
+
+    public int mediaType(int row) {
+        return buffer.get(sections[SECTION_MEDIA_TYPE] + row);
+    }
+
+    /**
+     * 该行是否属于指定类型编码
+     */
+    public boolean hasGenre(int row, int code) {
+        int start = buffer.getInt(sections[SECTION_GENRE_OFFSETS] + 4 * row);
+        int end = buffer.getInt(sections[SECTION_GENRE_OFFSETS] + 4 * (row + 1));
+        for (int i = start; i < end; i++) {
+            if (buffer.getShort(sections[SECTION_GENRE_CODES] + 2 * i) == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 该行的类型编码
+     */
+    public int[] genreCodes(int row) {
+        int start = buffer.getInt(sections[SECTION_GENRE_OFFSETS] + 4 * row);
+        int end = buffer.getInt(sections[SECTION_GENRE_OFFSETS] + 4 * (row + 1));
+        int[] codes = new int[end - start];
+        for (int i = start; i < end; i++) {
+            codes[i - start] = buffer.getShort(sections[SECTION_GENRE_CODES] + 2 * i);
+        }
+        return codes;
+    }
+
+    public String ppId(int row) {
+        return string(row, STRING_PP_ID);
+    }
+
+    public String title(int row) {
+        return string(row, STRING_TITLE);
+    }
+
+    public String originalTitle(int row) {
+        return string(row, STRING_ORIGINAL_TITLE);
+    }
+
+    public String languageCodes(int row) {
+        return string(row, STRING_LANGUAGE_CODES);
+    }
+
+    /**
+     * 还原为MovieDetailVo
+     */
+    public MovieDetailVo movie(int row) {
+        MovieDetailVo movie = new MovieDetailVo();
+        long mediaId = buffer.getLong(sections[SECTION_MEDIA_ID] + 8 * row);
+        movie.setMediaId(mediaId >= 0 ? mediaId : null);
+        movie.setPpId(ppId(row));
+        movie.setMmId(string(row, STRING_MM_ID));
+        movie.setTitle(title(row));
+        movie.setOriginalTitle(originalTitle(row));
+        movie.setPhotoUrl(string(row, STRING_PHOTO_URL));
+        movie.setReleaseDate(string(row, STRING_RELEASE_DATE));
+        movie.setLanguageCodes(languageCodes(row));
+        movie.setSummary(string(row, STRING_SUMMARY));
+        int year = year(row);
+        movie.setPublicationYear(year > 0 ? year : null);
+        int runtime = runtime(row);
+        movie.setRunTime(runtime > 0 ? runtime : null);
+        float popularity = popularity(row);
+        movie.setPopularity(Float.isNaN(popularity) ? null : (double) popularity);
+        float rating = rating(row);
+        movie.setRating(Float.isNaN(rating) ? null : Float.toString(rating));
+        int voteCount = buffer.getInt(sections[SECTION_VOTE_COUNT] + 4 * row);
+        movie.setVoteCount(voteCount >= 0 ? voteCount : null);
+        int certificate = buffer.getShort(sections[SECTION_CERTIFICATE] + 2 * row);
+        movie.setCertificate(certificate > 0 ? certificates[certificate - 1] : null);
+        int rank = buffer.getInt(sections[SECTION_RANK] + 4 * row);
+        movie.setRank(rank >= 0 ? rank : null);
+        movie.setMediaType(mediaType(row));
+        movie.setPlotKeywords(decodeList(string(row, STRING_PLOT_KEYWORDS)));
+        movie.setDirectors(decodePersons(string(row, STRING_DIRECTORS)));
+        movie.setActors(decodePersons(string(row, STRING_ACTORS)));
+        List<Integer> genreIds = new ArrayList<>();
+        List<String> ids = decodeList(string(row, STRING_GENRE_IDS));
+        if (ids != null) {
+            for (String id : ids) {
+                if (!id.isEmpty()) {
+                    genreIds.add(Integer.valueOf(id));
+                }
+            }
+        }
+        movie.setGenreIds(genreIds);
+        int[] codes = genreCodes(row);
+        if (codes.length > 0) {
+            StringBuilder names = new StringBuilder();
+            for (int code : codes) {
+                if (!names.isEmpty()) {
+                    names.append(',');
+                }
+                names.append(genres[code]);
+            }
+            movie.setGenres(names.toString());
+            movie.setGeners(names.toString());
+        }
+        return movie;
+    }
+
+    /**
+     * 读取字符串列，空字符串视为null
+     */
+    private String string(int row, int column) {
+        int index = sections[SECTION_STRING_OFFSETS] + 4 * (row * STRING_COLUMNS + column);
+        int start = buffer.getInt(index);
+        int end = buffer.getInt(index + 4);
+        if (start == end) {
+            return null;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(sections[SECTION_STRING_HEAP] + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 编码字符串列表，列表为空时返回null
+     */
+    static String encodeList(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (Object item : items) {
+            if (!encoded.isEmpty()) {
+                encoded.append(ITEM_SEPARATOR);
+            }
+            encoded.append(clean(item));
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * 编码人员列表，每人依次为personId、pcId、姓名、头像、角色、职务、简介
+     */
+    static String encodePersons(List<PersonVo> persons) {
+        if (persons == null || persons.isEmpty()) {
+            return null;
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (PersonVo person : persons) {
+            if (person != null) {
+                if (!encoded.isEmpty()) {
+                    encoded.append(ITEM_SEPARATOR);
+                }
+                encoded.append(String.join(String.valueOf(FIELD_SEPARATOR), clean(person.getPersonId()),
+                        clean(person.getPcId()), clean(person.getName()), clean(person.getPhotoUrl()),
+                        clean(person.getRole()), clean(person.getJob()), clean(person.getBiography())));
+            }
+        }
+        return encoded.isEmpty() ? null : encoded.toString();
+    }
+
+    private static List<String> decodeList(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : encoded.split(String.valueOf(ITEM_SEPARATOR), -1)) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static List<PersonVo> decodePersons(String encoded) {
+        List<String> items = decodeList(encoded);
+        if (items == null) {
+            return null;
+        }
+        List<PersonVo> persons = new ArrayList<>(items.size());
+        for (String item : items) {
+            String[] fields = item.split(String.valueOf(FIELD_SEPARATOR), -1);
+            PersonVo person = new PersonVo();
+            person.setPersonId(fields[0].isEmpty() ? null : Long.valueOf(fields[0]));
+            person.setPcId(emptyToNull(fields[1]));
+            person.setName(emptyToNull(fields[2]));
+            person.setPhotoUrl(emptyToNull(fields[3]));
+            person.setRole(emptyToNull(fields[4]));
+            person.setJob(emptyToNull(fields[5]));
+            person.setBiography(emptyToNull(fields[6]));
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    /**
+     * 去掉值中的分隔符，null编码为空字符串
+     */
+    private static String clean(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        return text.indexOf(ITEM_SEPARATOR) < 0 && text.indexOf(FIELD_SEPARATOR) < 0 ? text
+                : text.replace(ITEM_SEPARATOR, ' ').replace(FIELD_SEPARATOR, ' ');
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 字典格式：条目数(4) | 每个条目：长度(4) + UTF-8字节
+     */
+    private String[] readDictionary(int offset) {
+        String[] entries = new String[buffer.getInt(offset)];
+        int position = offset + 4;
+        for (int i = 0; i < entries.length; i++) {
+            byte[] bytes = new byte[buffer.getInt(position)];
+            buffer.get(position + 4, bytes);
+            entries[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + bytes.length;
+        }
+        return entries;
+    }
+
+    static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_LENGTH));
+        return (int) crc.getValue();
+    }
+}
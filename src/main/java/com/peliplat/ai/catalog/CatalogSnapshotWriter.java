@@ -0,0 +1,265 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.model.MovieDetailVo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.peliplat.ai.catalog.CatalogSnapshot.*;
+
+/**
+ * 列式电影目录快照写入器
+ * 逐部加入抓取到的电影（同一ppId只保留第一次出现的），最后按热度降序排列后一次性写出；
+ * 抓取因翻页上限提前结束时需调用markTruncated，读方据此不把快照当作完整目录；
+ * 写文件时先写临时文件再原子替换，读方不会看到写了一半的快照
+ */
+public final class CatalogSnapshotWriter {
+
+    private static final int MAX_YEAR = 0xFFFF;
+    private static final int MAX_RUNTIME = 0xFFFF;
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Set<String> ppIds = new HashSet<>();
+    private boolean complete = true;
+
+    /**
+     * 加入一部电影，ppId为空或已加入过时忽略
+     *
+     * @param movie     电影
+     * @param mediaType 抓取时使用的媒体类型
+     * @return 是否加入
+     */
+    public boolean add(MovieDetailVo movie, int mediaType) {
+        if (movie == null || movie.getPpId() == null || !ppIds.add(movie.getPpId())) {
+            return false;
+        }
+        rows.add(new Row(movie, mediaType, rows.size()));
+        return true;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * 标记抓取没有遍历完整个库列表
+     */
+    public void markTruncated() {
+        complete = false;
+    }
+
+    /**
+     * 写出快照文件（先写同目录下的临时文件再原子替换）
+     */
+    public void writeTo(Path file) throws IOException {
+        byte[] data = toByteArray(System.currentTimeMillis());
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 编码为快照字节
+     */
+    byte[] toByteArray(long createdAtMillis) {
+        List<Row> sorted = new ArrayList<>(rows);
+        // 热度降序，未知热度排在最后；热度相同时保持抓取顺序
+        sorted.sort(Comparator.comparingDouble((Row row) -> Float.isNaN(row.popularity) ? Double.POSITIVE_INFINITY
+                : -row.popularity).thenComparingInt(row -> row.order));
+        int rowCount = sorted.size();
+
+        Map<String, Integer> genreDictionary = new LinkedHashMap<>();
+        Map<String, Integer> certificateDictionary = new LinkedHashMap<>();
+        int[] genreOffsets = new int[rowCount + 1];
+        List<Integer> genreCodes = new ArrayList<>();
+        short[] certificateCodes = new short[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            Row row = sorted.get(i);
+            for (String genre : row.genres) {
+                genreCodes.add(genreDictionary.computeIfAbsent(genre, key -> genreDictionary.size()));
+            }
+            genreOffsets[i + 1] = genreCodes.size();
+            if (row.certificate != null) {
+                // 0表示无分级，字典编码从1开始
+                certificateCodes[i] = (short) (certificateDictionary.computeIfAbsent(row.certificate,
+                        key -> certificateDictionary.size()) + 1);
+            }
+        }
+        if (genreDictionary.size() > Short.MAX_VALUE || certificateDictionary.size() >= Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct genres or certificates");
+        }
+
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[rowCount * STRING_COLUMNS + 1];
+        for (int i = 0; i < rowCount; i++) {
+            String[] strings = sorted.get(i).strings;
+            for (int column = 0; column < STRING_COLUMNS; column++) {
+                if (strings[column] != null) {
+                    heap.writeBytes(strings[column].getBytes(StandardCharsets.UTF_8));
+                }
+                stringOffsets[i * STRING_COLUMNS + column + 1] = heap.size();
+            }
+        }
+
+        byte[] genreDictionaryBytes = dictionary(genreDictionary);
+        byte[] certificateDictionaryBytes = dictionary(certificateDictionary);
+        int[] lengths = new int[SECTION_COUNT];
+        lengths[SECTION_GENRE_DICT] = genreDictionaryBytes.length;
+        lengths[SECTION_CERTIFICATE_DICT] = certificateDictionaryBytes.length;
+        lengths[SECTION_YEAR_RUNTIME] = 4 * rowCount;
+        lengths[SECTION_POPULARITY] = 4 * rowCount;
+        lengths[SECTION_RATING] = 4 * rowCount;
+        lengths[SECTION_VOTE_COUNT] = 4 * rowCount;
+        lengths[SECTION_CERTIFICATE] = 2 * rowCount;
+        lengths[SECTION_MEDIA_TYPE] = rowCount;
+        lengths[SECTION_GENRE_OFFSETS] = 4 * (rowCount + 1);
+        lengths[SECTION_GENRE_CODES] = 2 * genreCodes.size();
+        lengths[SECTION_STRING_OFFSETS] = 4 * stringOffsets.length;
+        lengths[SECTION_STRING_HEAP] = heap.size();
+        lengths[SECTION_MEDIA_ID] = 8 * rowCount;
+        lengths[SECTION_RANK] = 4 * rowCount;
+        int[] offsets = new int[SECTION_COUNT];
+        long position = HEADER_LENGTH;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            offsets[i] = Math.toIntExact(position);
+            position = align(position + lengths[i]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(position));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, rowCount);
+        buffer.putLong(16, createdAtMillis);
+        buffer.putInt(24, complete ? FLAG_COMPLETE : 0);
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            buffer.putInt(28 + 4 * i, offsets[i]);
+        }
+        buffer.put(offsets[SECTION_GENRE_DICT], genreDictionaryBytes);
+        buffer.put(offsets[SECTION_CERTIFICATE_DICT], certificateDictionaryBytes);
+        for (int i = 0; i < rowCount; i++) {
+            Row row = sorted.get(i);
+            buffer.putInt(offsets[SECTION_YEAR_RUNTIME] + 4 * i, row.year << 16 | row.runtime);
+            buffer.putFloat(offsets[SECTION_POPULARITY] + 4 * i, row.popularity);
+            buffer.putFloat(offsets[SECTION_RATING] + 4 * i, row.rating);
+            buffer.putInt(offsets[SECTION_VOTE_COUNT] + 4 * i, row.voteCount);
+            buffer.putShort(offsets[SECTION_CERTIFICATE] + 2 * i, certificateCodes[i]);
+            buffer.put(offsets[SECTION_MEDIA_TYPE] + i, (byte) row.mediaType);
+            buffer.putLong(offsets[SECTION_MEDIA_ID] + 8 * i, row.mediaId);
+            buffer.putInt(offsets[SECTION_RANK] + 4 * i, row.rank);
+        }
+        for (int i = 0; i <= rowCount; i++) {
+            buffer.putInt(offsets[SECTION_GENRE_OFFSETS] + 4 * i, genreOffsets[i]);
+        }
+        for (int i = 0; i < genreCodes.size(); i++) {
+            buffer.putShort(offsets[SECTION_GENRE_CODES] + 2 * i, genreCodes.get(i).shortValue());
+        }
+        for (int i = 0; i < stringOffsets.length; i++) {
+            buffer.putInt(offsets[SECTION_STRING_OFFSETS] + 4 * i, stringOffsets[i]);
+        }
+        buffer.put(offsets[SECTION_STRING_HEAP], heap.toByteArray());
+        buffer.putInt(12, checksum(buffer));
+        return buffer.array();
+    }
+
+    private static byte[] dictionary(Map<String, Integer> dictionary) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer length = ByteBuffer.allocate(4);
+        out.writeBytes(length.putInt(0, dictionary.size()).array());
+        for (String entry : dictionary.keySet()) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(length.putInt(0, bytes.length).array());
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static long align(long position) {
+        return (position + 3) & ~3L;
+    }
+
+    /**
+     * 待写入的一行，构造时即完成字段解析
+     */
+    private static final class Row {
+        final String[] strings = new String[STRING_COLUMNS];
+        final List<String> genres = new ArrayList<>();
+        final int year;
+        final int runtime;
+        final float popularity;
+        final float rating;
+        final int voteCount;
+        final long mediaId;
+        final int rank;
+        final String certificate;
+        final int mediaType;
+        final int order;
+
+        Row(MovieDetailVo movie, int mediaType, int order) {
+            strings[STRING_PP_ID] = movie.getPpId();
+            strings[STRING_MM_ID] = movie.getMmId();
+            strings[STRING_TITLE] = movie.getTitle();
+            strings[STRING_ORIGINAL_TITLE] = movie.getOriginalTitle();
+            strings[STRING_PHOTO_URL] = movie.getPhotoUrl();
+            strings[STRING_RELEASE_DATE] = movie.getReleaseDate();
+            strings[STRING_LANGUAGE_CODES] = movie.getLanguageCodes();
+            strings[STRING_SUMMARY] = movie.getSummary();
+            strings[STRING_GENRE_IDS] = encodeList(movie.getGenreIds());
+            strings[STRING_PLOT_KEYWORDS] = encodeList(movie.getPlotKeywords());
+            strings[STRING_DIRECTORS] = encodePersons(movie.getDirectors());
+            strings[STRING_ACTORS] = encodePersons(movie.getActors());
+            String genreNames = movie.getGenres() != null ? movie.getGenres() : movie.getGeners();
+            if (genreNames != null) {
+                for (String genre : genreNames.split(",")) {
+                    String trimmed = genre.trim();
+                    if (!trimmed.isEmpty() && !genres.contains(trimmed)) {
+                        genres.add(trimmed);
+                    }
+                }
+            }
+            this.year = clamp(movie.getPublicationYear(), MAX_YEAR);
+            this.runtime = clamp(movie.getRunTime(), MAX_RUNTIME);
+            this.popularity = movie.getPopularity() != null ? movie.getPopularity().floatValue() : Float.NaN;
+            this.rating = parseRating(movie.getRating());
+            this.voteCount = movie.getVoteCount() != null ? movie.getVoteCount() : -1;
+            this.mediaId = movie.getMediaId() != null ? movie.getMediaId() : -1;
+            this.rank = movie.getRank() != null ? movie.getRank() : -1;
+            this.certificate = movie.getCertificate() != null && !movie.getCertificate().isEmpty()
+                    ? movie.getCertificate() : null;
+            this.mediaType = mediaType;
+            this.order = order;
+        }
+
+        private static int clamp(Integer value, int max) {
+            return value == null || value < 0 ? 0 : Math.min(value, max);
+        }
+
+        private static float parseRating(String rating) {
+            if (rating == null || rating.isEmpty()) {
+                return Float.NaN;
+            }
+            try {
+                return Float.parseFloat(rating);
+            } catch (NumberFormatException e) {
+                return Float.NaN;
+            }
+        }
+    }
+}
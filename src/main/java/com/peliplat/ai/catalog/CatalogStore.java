@@ -0,0 +1,258 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.genre.GenreResolution;
+import com.peliplat.ai.genre.GenreTaxonomy;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地电影目录快照
+ * 每种语言一个CatalogSnapshot文件（catalog-语言.snap），启动时直接映射已有文件并建立位图索引，
+ * CatalogIngestJob生成新快照后整体替换。按年份和类型的搜索只在快照完整、未超过max-age-seconds
+ * 且能完整表达筛选条件时直接由本地回答
+ */
+@Component
+public class CatalogStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStore.class);
+
+    private static final String FILE_PREFIX = "catalog-";
+    private static final String FILE_SUFFIX = ".snap";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int maxLimit;
+    private final long maxAgeMillis;
+    private final Map<String, CatalogBitmapIndex> indexes = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CatalogStore(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Catalog config = peliplatProperties.getCatalog();
+        this.enabled = config.isEnabled();
+        this.directory = Path.of(config.getDirectory());
+        this.maxLimit = peliplatProperties.getSearch().getMaxLimit();
+        this.maxAgeMillis = config.getMaxAgeSeconds() * 1000L;
+        if (enabled) {
+            loadAll();
+        }
+    }
+
+    /**
+     * 映射目录下所有快照文件；单个文件损坏时跳过，等待下次抓取覆盖
+     */
+    private void loadAll() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String language = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+                try {
+                    indexes.put(language, CatalogBitmapIndex.build(CatalogSnapshot.open(file)));
+                } catch (IOException | RuntimeException e) {
+                    logger.error("加载电影目录快照失败，已跳过: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("读取电影目录快照目录失败: {}", directory, e);
+        }
+        logger.info("电影目录快照已加载，语言: {}, 电影数: {}, 耗时: {}ms", indexes.keySet(), size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 指定语言的快照，没有时返回null
+     */
+    public CatalogSnapshot get(String language) {
+        CatalogBitmapIndex index = enabled ? indexes.get(languageKey(language)) : null;
+        return index != null ? index.snapshot() : null;
+    }
+
+    /**
+     * 指定语言的位图索引，没有时返回null；类型分类表刷新后先按新分类表重建，
+     * 使查询方按当前分类表解析出的类型名称与索引中的类型ID一致
+     */
+    private CatalogBitmapIndex index(String language) {
+        if (!enabled) {
+            return null;
+        }
+        GenreTaxonomy taxonomy = GenreTaxonomy.current();
+        return indexes.computeIfPresent(languageKey(language), (key, index) -> index.taxonomy() == taxonomy ? index
+                : CatalogBitmapIndex.build(index.snapshot(), taxonomy));
+    }
+
+    /**
+     * 写出新快照并替换该语言的旧快照
+     */
+    public void install(String language, CatalogSnapshotWriter writer) throws IOException {
+        String key = languageKey(language);
+        Path file = directory.resolve(FILE_PREFIX + key + FILE_SUFFIX);
+        writer.writeTo(file);
+        indexes.put(key, CatalogBitmapIndex.build(CatalogSnapshot.open(file)));
+    }
+
+    /**
+     * 按年份和类型从快照中检索一页电影（按热度降序，多个类型需同时满足）。
+     * 没有快照、快照不完整或已过期、筛选条件无法在本地表达（如快照中没有的子类型）或该页没有结果时返回null，
+     * 由调用方查询上游
+     *
+     * @param year     年份，单个年份如"2024"，或年份区间如"2000:2010"，为空表示不限
+     * @param genre    逗号分隔的类型名称，为空表示不限
+     * @param language 语言
+     * @param pageId   页码，从1开始
+     * @param pageSize 每页条数
+     * @return 电影列表响应对象，或null
+     */
+    public MovieListResponseVo searchYearAndGenre(String year, String genre, String language, int pageId,
+                                                  int pageSize) {
+        int[] years = parseYearRange(year);
+        CatalogBitmapIndex index = index(language);
+        MovieListResponseVo responseVo = years == null || index == null || !isFresh(index.snapshot()) ? null
+                : filter(index, new CatalogQuery(years[0], years[1], splitGenres(genre), true, null,
+                CatalogQuery.Sort.POPULARITY, (pageId - 1) * pageSize, pageSize));
+        if (responseVo == null || responseVo.getResult().isEmpty()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return responseVo;
+    }
+
+    /**
+     * 快照是否完整且未超过最大有效期
+     */
+    private boolean isFresh(CatalogSnapshot snapshot) {
+        return snapshot.isComplete()
+                && System.currentTimeMillis() - snapshot.createdAtMillis() <= maxAgeMillis;
+    }
+
+    /**
+     * 在快照上执行分面筛选
+     *
+     * @return 电影列表响应对象；没有快照或有类型在快照中不存在时返回null
+     */
+    public MovieListResponseVo filter(CatalogQuery query, String language) {
+        CatalogBitmapIndex index = index(language);
+        return index != null ? filter(index, query) : null;
+    }
+
+    private MovieListResponseVo filter(CatalogBitmapIndex index, CatalogQuery query) {
+        int limit = Math.max(1, Math.min(query.limit(), maxLimit));
+        CatalogQuery bounded = new CatalogQuery(query.yearFrom(), query.yearTo(), query.genres(),
+                query.matchAllGenres(), query.languages(), query.sort(), Math.max(0, query.offset()), limit);
+        CatalogBitmapIndex.Result result = index.query(bounded);
+        if (result == null) {
+            return null;
+        }
+        List<MovieDetailVo> movies = new ArrayList<>(result.rows().length);
+        for (int row : result.rows()) {
+            movies.add(index.snapshot().movie(row));
+        }
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setResult(movies);
+        responseVo.setCount(movies.size());
+        responseVo.setTotalCount(result.totalCount());
+        responseVo.setTotalPage((result.totalCount() + limit - 1) / limit);
+        return responseVo;
+    }
+
+    /**
+     * 解析年份条件为[起, 止]，为空时为[0, 0]（不限），格式错误时返回null
+     */
+    public static int[] parseYearRange(String year) {
+        if (year == null || year.isBlank()) {
+            return new int[]{0, 0};
+        }
+        try {
+            int separator = year.indexOf(':');
+            if (separator < 0) {
+                int value = Integer.parseInt(year.trim());
+                return new int[]{value, value};
+            }
+            return new int[]{Integer.parseInt(year.substring(0, separator).trim()),
+                    Integer.parseInt(year.substring(separator + 1).trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析类型字符串（支持别名、中文名称和多个类型），返回英文类型名称；
+     * 无法识别的词原样保留，使筛选因类型不存在而交给调用方处理
+     */
+    public static List<String> splitGenres(String genre) {
+        GenreResolution resolution = GenreTaxonomy.current().resolve(genre);
+        List<String> genres = new ArrayList<>(resolution.genres().size() + resolution.unresolved().size());
+        resolution.genres().forEach(item -> genres.add(item.name()));
+        genres.addAll(resolution.unresolved());
+        return genres;
+    }
+
+    /**
+     * 拆分逗号分隔的列表，忽略空项
+     */
+    public static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 所有快照的电影数合计
+     */
+    public int size() {
+        int size = 0;
+        for (CatalogBitmapIndex index : indexes.values()) {
+            size += index.snapshot().size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.catalog.movies", this, CatalogStore::size)
+                .description("本地电影目录快照中的电影数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.catalog.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("由本地目录快照回答的按年份和类型搜索次数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.catalog.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("本地目录快照无法回答、转查上游的按年份和类型搜索次数")
+                .register(registry);
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+}
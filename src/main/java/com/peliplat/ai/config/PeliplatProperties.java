@@ -0,0 +1,763 @@
+package com.peliplat.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PeliPlat接入配置类
+ * 管理调用PeliPlat API相关的连接池、搜索等参数
+ */
+@Component
+@ConfigurationProperties(prefix = "peliplat")
+public class PeliplatProperties {
+
+    /**
+     * HTTP连接池配置
+     */
+    private HttpClient httpClient = new HttpClient();
+
+    /**
+     * 搜索行为配置
+     */
+    private Search search = new Search();
+
+    /**
+     * 并发搜索线程池配置
+     */
+    private Executor executor = new Executor();
+
+    /**
+     * 搜索结果缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 本周热门电影预取配置
+     */
+    private Popular popular = new Popular();
+
+    /**
+     * 磁盘二级缓存配置
+     */
+    private DiskCache diskCache = new DiskCache();
+
+    /**
+     * 本地电影索引配置
+     */
+    private Index index = new Index();
+
+    /**
+     * 离线电影目录快照配置
+     */
+    private Catalog catalog = new Catalog();
+
+    /**
+     * 类型分类表配置
+     */
+    private Genres genres = new Genres();
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public void setSearch(Search search) {
+        this.search = search;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Popular getPopular() {
+        return popular;
+    }
+
+    public void setPopular(Popular popular) {
+        this.popular = popular;
+    }
+
+    public DiskCache getDiskCache() {
+        return diskCache;
+    }
+
+    public void setDiskCache(DiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public void setIndex(Index index) {
+        this.index = index;
+    }
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    public void setCatalog(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public Genres getGenres() {
+        return genres;
+    }
+
+    public void setGenres(Genres genres) {
+        this.genres = genres;
+    }
+
+    /**
+     * HTTP连接池配置类
+     */
+    public static class HttpClient {
+        private int maxTotalConnections = 200;        // 连接池最大连接数
+        private int maxConnectionsPerRoute = 50;      // 每个主机的最大连接数
+        private int connectTimeoutMillis = 5000;      // 连接超时时间(毫秒)
+        private int readTimeoutMillis = 15000;        // 读取超时时间(毫秒)
+        private int connectionRequestTimeoutMillis = 2000; // 从连接池获取连接的超时时间(毫秒)
+        private int keepAliveSeconds = 60;            // 服务端未声明时的默认keep-alive时长(秒)
+        private int idleEvictSeconds = 30;            // 空闲连接回收阈值(秒)
+        private int validateAfterInactivityMillis = 2000; // 连接空闲多久后复用前需检查是否失效(毫秒)
+        private int timeToLiveSeconds = 300;          // 连接最长存活时间(秒)
+
+        public int getMaxTotalConnections() {
+            return maxTotalConnections;
+        }
+
+        public void setMaxTotalConnections(int maxTotalConnections) {
+            this.maxTotalConnections = maxTotalConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public int getReadTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public void setReadTimeoutMillis(int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        public int getConnectionRequestTimeoutMillis() {
+            return connectionRequestTimeoutMillis;
+        }
+
+        public void setConnectionRequestTimeoutMillis(int connectionRequestTimeoutMillis) {
+            this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+        }
+
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(int keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public int getIdleEvictSeconds() {
+            return idleEvictSeconds;
+        }
+
+        public void setIdleEvictSeconds(int idleEvictSeconds) {
+            this.idleEvictSeconds = idleEvictSeconds;
+        }
+
+        public int getValidateAfterInactivityMillis() {
+            return validateAfterInactivityMillis;
+        }
+
+        public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+            this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    /**
+     * 搜索行为配置类
+     */
+    public static class Search {
+        private boolean reactiveDelegate = false;     // 阻塞式实现是否委托给响应式实现
+        private int blockTimeoutMillis = 20000;       // 委托时等待响应式结果的最长时间(毫秒)
+        private int concurrentSearchParallelism = 10; // 并发搜索时同时进行的上游请求数
+        private boolean foldTraditionalChinese = false; // 生成缓存键时是否将繁体字折叠为简体字
+        private int maxLimit = 50;                    // 单次搜索允许请求的最大条数
+        private int prefetchPages = 2;                // 按年份和类型翻页时在后台预取的后续页数，0表示不预取
+        private int prefetchConcurrency = 2;          // 单次请求预取时同时进行的上游请求数
+        private int streamPageSize = 50;              // 深度翻页遍历库列表时的每页条数
+        private int streamReadAhead = 2;              // 深度翻页时最多预读的页数
+        private int streamMaxPages = 500;             // 深度翻页最多遍历的页数
+
+        public boolean isReactiveDelegate() {
+            return reactiveDelegate;
+        }
+
+        public void setReactiveDelegate(boolean reactiveDelegate) {
+            this.reactiveDelegate = reactiveDelegate;
+        }
+
+        public int getBlockTimeoutMillis() {
+            return blockTimeoutMillis;
+        }
+
+        public void setBlockTimeoutMillis(int blockTimeoutMillis) {
+            this.blockTimeoutMillis = blockTimeoutMillis;
+        }
+
+        public int getConcurrentSearchParallelism() {
+            return concurrentSearchParallelism;
+        }
+
+        public void setConcurrentSearchParallelism(int concurrentSearchParallelism) {
+            this.concurrentSearchParallelism = concurrentSearchParallelism;
+        }
+
+        public boolean isFoldTraditionalChinese() {
+            return foldTraditionalChinese;
+        }
+
+        public void setFoldTraditionalChinese(boolean foldTraditionalChinese) {
+            this.foldTraditionalChinese = foldTraditionalChinese;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getPrefetchPages() {
+            return prefetchPages;
+        }
+
+        public void setPrefetchPages(int prefetchPages) {
+            this.prefetchPages = prefetchPages;
+        }
+
+        public int getPrefetchConcurrency() {
+            return prefetchConcurrency;
+        }
+
+        public void setPrefetchConcurrency(int prefetchConcurrency) {
+            this.prefetchConcurrency = prefetchConcurrency;
+        }
+
+        public int getStreamPageSize() {
+            return streamPageSize;
+        }
+
+        public void setStreamPageSize(int streamPageSize) {
+            this.streamPageSize = streamPageSize;
+        }
+
+        public int getStreamReadAhead() {
+            return streamReadAhead;
+        }
+
+        public void setStreamReadAhead(int streamReadAhead) {
+            this.streamReadAhead = streamReadAhead;
+        }
+
+        public int getStreamMaxPages() {
+            return streamMaxPages;
+        }
+
+        public void setStreamMaxPages(int streamMaxPages) {
+            this.streamMaxPages = streamMaxPages;
+        }
+    }
+
+    /**
+     * 并发搜索线程池配置类
+     */
+    public static class Executor {
+        private int poolSize = 16;                    // 全局并发上限（线程数）
+        private int queueCapacity = 256;              // 等待队列容量，满后拒绝新任务
+        private int keepAliveSeconds = 60;            // 空闲线程回收时间(秒)
+        private int awaitTerminationSeconds = 10;     // 关闭时等待在途任务的时间(秒)
+        private int fanoutTimeoutMillis = 20000;      // 单次并发搜索等待全部结果的最长时间(毫秒)
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(int keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public int getAwaitTerminationSeconds() {
+            return awaitTerminationSeconds;
+        }
+
+        public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+            this.awaitTerminationSeconds = awaitTerminationSeconds;
+        }
+
+        public int getFanoutTimeoutMillis() {
+            return fanoutTimeoutMillis;
+        }
+
+        public void setFanoutTimeoutMillis(int fanoutTimeoutMillis) {
+            this.fanoutTimeoutMillis = fanoutTimeoutMillis;
+        }
+    }
+
+    /**
+     * 搜索结果缓存配置类
+     */
+    public static class Cache {
+        private boolean enabled = true;               // 是否启用进程内缓存
+        private long queryMaxSize = 10000;            // 关键词搜索缓存最大条目数
+        private long queryTtlSeconds = 600;           // 关键词搜索缓存过期时间(秒)
+        private long yearGenreMaxSize = 2000;         // 年份/类型搜索缓存最大条目数
+        private long yearGenreTtlSeconds = 1800;      // 年份/类型搜索缓存过期时间(秒)
+        private long popularMaxSize = 100;            // 热门电影缓存最大条目数
+        private long popularTtlSeconds = 3600;        // 热门电影缓存过期时间(秒)
+        private boolean staleWhileRevalidate = true;  // 过期后先返回旧值并异步刷新
+        private long maxStalenessSeconds = 1800;      // 过期后仍可返回旧值的最长时间(秒)，超过后必须同步加载
+        private boolean serveStaleOnError = true;     // 异步刷新失败时是否继续返回旧值
+        private boolean negativeEnabled = true;       // 是否缓存空结果
+        private long negativeMaxSize = 10000;         // 空结果缓存最大条目数
+        private long negativeTtlSeconds = 60;         // 空结果缓存过期时间(秒)
+        private long entityMaxSize = 50000;           // 电影实体存储最大条目数
+        private long entityIdleSeconds = 7200;        // 电影实体多久未被访问后移除(秒)
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getQueryMaxSize() {
+            return queryMaxSize;
+        }
+
+        public void setQueryMaxSize(long queryMaxSize) {
+            this.queryMaxSize = queryMaxSize;
+        }
+
+        public long getQueryTtlSeconds() {
+            return queryTtlSeconds;
+        }
+
+        public void setQueryTtlSeconds(long queryTtlSeconds) {
+            this.queryTtlSeconds = queryTtlSeconds;
+        }
+
+        public long getYearGenreMaxSize() {
+            return yearGenreMaxSize;
+        }
+
+        public void setYearGenreMaxSize(long yearGenreMaxSize) {
+            this.yearGenreMaxSize = yearGenreMaxSize;
+        }
+
+        public long getYearGenreTtlSeconds() {
+            return yearGenreTtlSeconds;
+        }
+
+        public void setYearGenreTtlSeconds(long yearGenreTtlSeconds) {
+            this.yearGenreTtlSeconds = yearGenreTtlSeconds;
+        }
+
+        public long getPopularMaxSize() {
+            return popularMaxSize;
+        }
+
+        public void setPopularMaxSize(long popularMaxSize) {
+            this.popularMaxSize = popularMaxSize;
+        }
+
+        public long getPopularTtlSeconds() {
+            return popularTtlSeconds;
+        }
+
+        public void setPopularTtlSeconds(long popularTtlSeconds) {
+            this.popularTtlSeconds = popularTtlSeconds;
+        }
+
+        public boolean isStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public long getMaxStalenessSeconds() {
+            return maxStalenessSeconds;
+        }
+
+        public void setMaxStalenessSeconds(long maxStalenessSeconds) {
+            this.maxStalenessSeconds = maxStalenessSeconds;
+        }
+
+        public boolean isServeStaleOnError() {
+            return serveStaleOnError;
+        }
+
+        public void setServeStaleOnError(boolean serveStaleOnError) {
+            this.serveStaleOnError = serveStaleOnError;
+        }
+
+        public boolean isNegativeEnabled() {
+            return negativeEnabled;
+        }
+
+        public void setNegativeEnabled(boolean negativeEnabled) {
+            this.negativeEnabled = negativeEnabled;
+        }
+
+        public long getNegativeMaxSize() {
+            return negativeMaxSize;
+        }
+
+        public void setNegativeMaxSize(long negativeMaxSize) {
+            this.negativeMaxSize = negativeMaxSize;
+        }
+
+        public long getNegativeTtlSeconds() {
+            return negativeTtlSeconds;
+        }
+
+        public void setNegativeTtlSeconds(long negativeTtlSeconds) {
+            this.negativeTtlSeconds = negativeTtlSeconds;
+        }
+
+        public long getEntityMaxSize() {
+            return entityMaxSize;
+        }
+
+        public void setEntityMaxSize(long entityMaxSize) {
+            this.entityMaxSize = entityMaxSize;
+        }
+
+        public long getEntityIdleSeconds() {
+            return entityIdleSeconds;
+        }
+
+        public void setEntityIdleSeconds(long entityIdleSeconds) {
+            this.entityIdleSeconds = entityIdleSeconds;
+        }
+    }
+
+    /**
+     * 本周热门电影预取配置类
+     */
+    public static class Popular {
+        private boolean enabled = true;               // 是否启用后台预取
+        private List<String> languages = new ArrayList<>(List.of("zh", "en", "ko", "ja")); // 预取的语言
+        private long refreshIntervalSeconds = 3600;   // 刷新间隔(秒)
+        private long jitterSeconds = 300;             // 刷新间隔的随机抖动范围(秒)
+        private long maxStalenessSeconds = 21600;     // 快照最长可用时间(秒)，超过后回退到实时查询
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getLanguages() {
+            return languages;
+        }
+
+        public void setLanguages(List<String> languages) {
+            this.languages = languages;
+        }
+
+        public long getRefreshIntervalSeconds() {
+            return refreshIntervalSeconds;
+        }
+
+        public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+            this.refreshIntervalSeconds = refreshIntervalSeconds;
+        }
+
+        public long getJitterSeconds() {
+            return jitterSeconds;
+        }
+
+        public void setJitterSeconds(long jitterSeconds) {
+            this.jitterSeconds = jitterSeconds;
+        }
+
+        public long getMaxStalenessSeconds() {
+            return maxStalenessSeconds;
+        }
+
+        public void setMaxStalenessSeconds(long maxStalenessSeconds) {
+            this.maxStalenessSeconds = maxStalenessSeconds;
+        }
+    }
+
+    /**
+     * 磁盘二级缓存配置类
+     */
+    public static class DiskCache {
+        private boolean enabled = true;                   // 是否启用磁盘二级缓存
+        private String directory = "data/search-cache";   // 段文件存放目录
+        private int segmentSizeMb = 16;                   // 单个段文件大小(MB)
+        private long maxSizeMb = 256;                     // 所有段文件总大小上限(MB)
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public long getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(long maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+    }
+
+    /**
+     * 本地电影索引配置类
+     */
+    public static class Index {
+        private boolean enabled = true;      // 是否建立本地倒排索引并优先用其回答关键词搜索
+        private int maxDocuments = 100000;   // 每种语言最多索引的电影数，超过后不再加入新电影
+        private boolean fuzzyEnabled = true; // 是否对已知片名做容错（近似）匹配
+        private int fuzzyMaxEdits = 3;       // 近似匹配允许的最大编辑距离
+        private int fuzzyMinLength = 8;      // 查询至少多少个字符才在访问上游前直接使用近似匹配结果
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxDocuments() {
+            return maxDocuments;
+        }
+
+        public void setMaxDocuments(int maxDocuments) {
+            this.maxDocuments = maxDocuments;
+        }
+
+        public boolean isFuzzyEnabled() {
+            return fuzzyEnabled;
+        }
+
+        public void setFuzzyEnabled(boolean fuzzyEnabled) {
+            this.fuzzyEnabled = fuzzyEnabled;
+        }
+
+        public int getFuzzyMaxEdits() {
+            return fuzzyMaxEdits;
+        }
+
+        public void setFuzzyMaxEdits(int fuzzyMaxEdits) {
+            this.fuzzyMaxEdits = fuzzyMaxEdits;
+        }
+
+        public int getFuzzyMinLength() {
+            return fuzzyMinLength;
+        }
+
+        public void setFuzzyMinLength(int fuzzyMinLength) {
+            this.fuzzyMinLength = fuzzyMinLength;
+        }
+    }
+
+    /**
+     * 离线电影目录快照配置类
+     */
+    public static class Catalog {
+        private boolean enabled = true;               // 是否在启动时加载本地目录快照并用其回答按年份和类型的搜索
+        private String directory = "data/catalog";    // 快照文件目录
+        private boolean ingestEnabled = false;        // 是否在本节点定期抓取listMedias生成快照
+        private List<String> languages = new ArrayList<>(List.of("zh", "en", "ko", "ja")); // 抓取的语言
+        private List<Integer> mediaTypes = new ArrayList<>(List.of(1)); // 抓取的媒体类型，1表示电影
+        private long ingestIntervalSeconds = 86400;   // 抓取间隔(秒)
+        private long maxAgeSeconds = 172800;          // 快照超过该时长(秒)未更新时不再用于回答按年份和类型的搜索
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public boolean isIngestEnabled() {
+            return ingestEnabled;
+        }
+
+        public void setIngestEnabled(boolean ingestEnabled) {
+            this.ingestEnabled = ingestEnabled;
+        }
+
+        public List<String> getLanguages() {
+            return languages;
+        }
+
+        public void setLanguages(List<String> languages) {
+            this.languages = languages;
+        }
+
+        public List<Integer> getMediaTypes() {
+            return mediaTypes;
+        }
+
+        public void setMediaTypes(List<Integer> mediaTypes) {
+            this.mediaTypes = mediaTypes;
+        }
+
+        public long getIngestIntervalSeconds() {
+            return ingestIntervalSeconds;
+        }
+
+        public void setIngestIntervalSeconds(long ingestIntervalSeconds) {
+            this.ingestIntervalSeconds = ingestIntervalSeconds;
+        }
+
+        public long getMaxAgeSeconds() {
+            return maxAgeSeconds;
+        }
+
+        public void setMaxAgeSeconds(long maxAgeSeconds) {
+            this.maxAgeSeconds = maxAgeSeconds;
+        }
+    }
+
+    /**
+     * 类型分类表配置类
+     */
+    public static class Genres {
+        private String snapshotFile = "data/genres.json";   // 分类表快照文件
+        private boolean refreshEnabled = false;             // 是否定期从筛选项元数据刷新分类表
+        private String metadataUrl = "";                    // 筛选项元数据接口地址，为空时不刷新
+        private long refreshIntervalSeconds = 86400;        // 刷新间隔（秒）
+
+        public String getSnapshotFile() {
+            return snapshotFile;
+        }
+
+        public void setSnapshotFile(String snapshotFile) {
+            this.snapshotFile = snapshotFile;
+        }
+
+        public boolean isRefreshEnabled() {
+            return refreshEnabled;
+        }
+
+        public void setRefreshEnabled(boolean refreshEnabled) {
+            this.refreshEnabled = refreshEnabled;
+        }
+
+        public String getMetadataUrl() {
+            return metadataUrl;
+        }
+
+        public void setMetadataUrl(String metadataUrl) {
+            this.metadataUrl = metadataUrl;
+        }
+
+        public long getRefreshIntervalSeconds() {
+            return refreshIntervalSeconds;
+        }
+
+        public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+            this.refreshIntervalSeconds = refreshIntervalSeconds;
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package com.peliplat.ai.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * RestTemplate配置类
+ * 使用带连接池的HttpClient，复用到PeliPlat的keep-alive连接
  */
 @Configuration
 public class RestTemplateConfig {
@@ -17,11 +29,60 @@ public class RestTemplateConfig {
         return new RestTemplate(factory);
     }
 
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager peliplatConnectionManager(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.HttpClient config = peliplatProperties.getHttpClient();
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeoutMillis()))
+                .setSocketTimeout(Timeout.ofMilliseconds(config.getReadTimeoutMillis()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(config.getValidateAfterInactivityMillis()))
+                .setTimeToLive(TimeValue.ofSeconds(config.getTimeToLiveSeconds()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxTotalConnections())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient peliplatHttpClient(PoolingHttpClientConnectionManager peliplatConnectionManager,
+                                                  PeliplatProperties peliplatProperties) {
+        PeliplatProperties.HttpClient config = peliplatProperties.getHttpClient();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeoutMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(config.getReadTimeoutMillis()))
+                .build();
+
+        TimeValue defaultKeepAlive = TimeValue.ofSeconds(config.getKeepAliveSeconds());
+
+        return HttpClients.custom()
+                .setConnectionManager(peliplatConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // 服务端未返回Keep-Alive头时使用默认时长
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(serverKeepAlive) ? serverKeepAlive : defaultKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(config.getIdleEvictSeconds()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory pooledClientHttpRequestFactory(CloseableHttpClient peliplatHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(peliplatHttpClient);
+    }
+
+    /**
+     * 暴露连接池指标（httpcomponents.httpclient.pool.*）
+     */
     @Bean
-    public ClientHttpRequestFactory simpleClientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(15000); // 读取超时时间15秒
-        factory.setConnectTimeout(5000); // 连接超时时间5秒
-        return factory;
+    public MeterBinder peliplatConnectionPoolMetrics(PoolingHttpClientConnectionManager peliplatConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(peliplatConnectionManager, "peliplat");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.peliplat.ai.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * WebClient配置类
+ * 响应式调用PeliPlat时使用的连接池与超时设置，与RestTemplate共用peliplat.http-client配置
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider peliplatConnectionProvider(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.HttpClient config = peliplatProperties.getHttpClient();
+        return ConnectionProvider.builder("peliplat")
+                .maxConnections(config.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(Duration.ofMillis(config.getConnectionRequestTimeoutMillis()))
+                .maxIdleTime(Duration.ofSeconds(config.getIdleEvictSeconds()))
+                .maxLifeTime(Duration.ofSeconds(config.getTimeToLiveSeconds()))
+                .evictInBackground(Duration.ofSeconds(config.getIdleEvictSeconds()))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient peliplatWebClient(WebClient.Builder builder,
+                                       ConnectionProvider peliplatConnectionProvider,
+                                       PeliplatProperties peliplatProperties) {
+        PeliplatProperties.HttpClient config = peliplatProperties.getHttpClient();
+        HttpClient httpClient = HttpClient.create(peliplatConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMillis())
+                .responseTimeout(Duration.ofMillis(config.getReadTimeoutMillis()))
+                .keepAlive(true);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+    }
+}
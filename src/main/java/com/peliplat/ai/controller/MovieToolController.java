@@ -1,6 +1,13 @@
 package com.peliplat.ai.controller;
 
+import com.peliplat.ai.catalog.CatalogQuery;
+import com.peliplat.ai.catalog.CatalogStore;
 import com.peliplat.ai.config.AiModelProperties;
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.index.PersonIndex;
+import com.peliplat.ai.index.SimilarMovieIndex;
+import com.peliplat.ai.index.TitleSuggester;
+import com.peliplat.ai.index.TitleSuggestion;
 import com.peliplat.ai.model.MediaDetailVo;
 import com.peliplat.ai.model.MovieDetailVo;
 import com.peliplat.ai.model.MovieListResponseVo;
@@ -8,6 +15,8 @@ import com.peliplat.ai.model.SearchResultVo;
 import com.peliplat.ai.movie.MovieTools;
 import com.peliplat.ai.service.AiModelFactory;
 import com.peliplat.ai.service.DashscopeMovieAgentService;
+import com.peliplat.ai.service.LibraryFilter;
+import com.peliplat.ai.service.MovieSearchExecutor;
 import com.peliplat.ai.service.MovieSearchService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,12 +31,15 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -43,15 +55,29 @@ public class MovieToolController {
     private final AiModelFactory aiModelFactory;
     private final AiModelProperties aiModelProperties;
     private final MovieSearchService movieSearchService;
+    private final MovieSearchExecutor movieSearchExecutor;
+    private final PeliplatProperties peliplatProperties;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
     public MovieToolController(AiModelFactory aiModelFactory,
                               AiModelProperties aiModelProperties,
-                              @Qualifier("peliplatMovieSearchService") MovieSearchService movieSearchService) {
+                              @Qualifier("peliplatMovieSearchService") MovieSearchService movieSearchService,
+                              MovieSearchExecutor movieSearchExecutor,
+                              PeliplatProperties peliplatProperties) {
         this.aiModelFactory = aiModelFactory;
         this.aiModelProperties = aiModelProperties;
         this.movieSearchService = movieSearchService;
+        this.movieSearchExecutor = movieSearchExecutor;
+        this.peliplatProperties = peliplatProperties;
+    }
+
+    /**
+     * 创建供AI调用的电影工具
+     */
+    private MovieTools newMovieTools() {
+        return new MovieTools(movieSearchService, personIndex, similarMovieIndex,
+                peliplatProperties.getSearch().isFoldTraditionalChinese());
     }
 
     /**
@@ -76,6 +102,8 @@ public class MovieToolController {
                 - 描述情节/角色 → 推断电影名称，再搜索
                 - 询问年份/类型 → 使用 searchMoviesByYear
                 - 询问地区电影 → 使用 searchMoviesByRegionAndGenre
+                - 询问导演/演员的作品 → 使用 searchMoviesByPerson
+                - 询问类似某部电影的电影 → 使用 searchSimilarMovies
                 
                 🎯 STEP 2: 电影名称推断规则
                 - 优先使用英文原名搜索，提高匹配准确性
@@ -87,6 +115,8 @@ public class MovieToolController {
                 - 多部电影：concurrentSearchMovies(英文名列表, 语言代码)
                 - 按条件筛选：searchMoviesByYear(年份, 类型, 语言代码)
                 - 地区特定：searchMoviesByRegionAndGenre(地区代码, 类型, 年份)
+                - 导演/演员：searchMoviesByPerson(人员姓名, 职务, 语言代码)
+                - 相似电影：searchSimilarMovies(电影名称, 语言代码)
                 
                 🎯 STEP 4: 语言代码精确映射
                 - 中国/中文/华语电影 → 'zh'
@@ -118,7 +148,7 @@ public class MovieToolController {
             // 调用AI工具 - 使用当前激活的模型
             ChatClient currentChatClient = aiModelFactory.getCurrentChatClient();
             String response = currentChatClient.prompt(new Prompt(List.of(systemMsg, userMsg)))
-                    .tools(new MovieTools(movieSearchService))
+                    .tools(newMovieTools())
                     .call()
                     .content();
 
@@ -150,7 +180,7 @@ public class MovieToolController {
                         logger.info("执行工具函数: {} 参数: {}", functionName, parameters.toString());
                         
                         // 执行对应的工具方法
-                        MovieTools movieTools = new MovieTools(movieSearchService);
+                        MovieTools movieTools = newMovieTools();
                         
                         if ("searchMovies".equals(functionName)) {
                             String movieName = parameters.has("movieName") ? parameters.get("movieName").asText() : 
@@ -158,7 +188,7 @@ public class MovieToolController {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用searchMovies: movieName={}, languageCode={}", movieName, languageCode);
-                            toolResponse = movieTools.searchMovies(movieName, languageCode);
+                            toolResponse = movieTools.searchMovies(movieName, languageCode, readInt(parameters, "limit"));
                         } else if ("concurrentSearchMovies".equals(functionName)) {
                             String movieNames = parameters.has("movieNames") ? parameters.get("movieNames").asText() : 
                                                parameters.has("movie_names") ? parameters.get("movie_names").asText() : "";
@@ -172,7 +202,7 @@ public class MovieToolController {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用searchMoviesByYear: year={}, genre={}, languageCode={}", year, genre, languageCode);
-                            toolResponse = movieTools.searchMoviesByYear(year, genre, languageCode);
+                            toolResponse = movieTools.searchMoviesByYear(year, genre, languageCode, readInt(parameters, "page"), readInt(parameters, "limit"));
                         } else if ("searchMoviesByRegionAndGenre".equals(functionName)) {
                             String regionCode = parameters.has("regionCode") ? parameters.get("regionCode").asText() : 
                                                parameters.has("region_code") ? parameters.get("region_code").asText() : 
@@ -180,12 +210,26 @@ public class MovieToolController {
                             String genre = parameters.has("genre") ? parameters.get("genre").asText() : null;
                             String year = parameters.has("year") ? parameters.get("year").asText() : null;
                             logger.info("调用searchMoviesByRegionAndGenre: regionCode={}, genre={}, year={}", regionCode, genre, year);
-                            toolResponse = movieTools.searchMoviesByRegionAndGenre(regionCode, genre, year);
+                            toolResponse = movieTools.searchMoviesByRegionAndGenre(regionCode, genre, year, readInt(parameters, "limit"));
                         } else if ("getPopularMovies".equals(functionName)) {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用getPopularMovies: languageCode={}", languageCode);
-                            toolResponse = movieTools.getPopularMovies(languageCode);
+                            toolResponse = movieTools.getPopularMovies(languageCode, readInt(parameters, "limit"));
+                        } else if ("searchMoviesByPerson".equals(functionName)) {
+                            String person = parameters.has("person") ? parameters.get("person").asText() : "";
+                            String role = parameters.has("role") ? parameters.get("role").asText() : null;
+                            String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
+                                                 parameters.has("language") ? parameters.get("language").asText() : "en";
+                            logger.info("调用searchMoviesByPerson: person={}, role={}, languageCode={}", person, role, languageCode);
+                            toolResponse = movieTools.searchMoviesByPerson(person, role, languageCode, readInt(parameters, "limit"));
+                        } else if ("searchSimilarMovies".equals(functionName)) {
+                            String movie = parameters.has("movie") ? parameters.get("movie").asText() : 
+                                          parameters.has("movieName") ? parameters.get("movieName").asText() : "";
+                            String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
+                                                 parameters.has("language") ? parameters.get("language").asText() : "en";
+                            logger.info("调用searchSimilarMovies: movie={}, languageCode={}", movie, languageCode);
+                            toolResponse = movieTools.searchSimilarMovies(movie, languageCode, readInt(parameters, "limit"));
                         } else if ("smartMovieSearch".equals(functionName)) {
                             String movieNames = parameters.has("movieNames") ? parameters.get("movieNames").asText() : 
                                                parameters.has("movie_names") ? parameters.get("movie_names").asText() : "";
@@ -477,6 +521,8 @@ public class MovieToolController {
                 - 描述情节/角色 → 推断电影名称，再搜索
                 - 询问年份/类型 → 使用 searchMoviesByYear
                 - 询问地区电影 → 使用 searchMoviesByRegionAndGenre
+                - 询问导演/演员的作品 → 使用 searchMoviesByPerson
+                - 询问类似某部电影的电影 → 使用 searchSimilarMovies
                 
                 🎯 STEP 2: 电影名称推断规则
                 - 优先使用英文原名搜索，提高匹配准确性
@@ -488,6 +534,8 @@ public class MovieToolController {
                 - 多部电影：concurrentSearchMovies(英文名列表, 语言代码)
                 - 按条件筛选：searchMoviesByYear(年份, 类型, 语言代码)
                 - 地区特定：searchMoviesByRegionAndGenre(地区代码, 类型, 年份)
+                - 导演/演员：searchMoviesByPerson(人员姓名, 职务, 语言代码)
+                - 相似电影：searchSimilarMovies(电影名称, 语言代码)
                 
                 🎯 STEP 4: 语言代码精确映射
                 - 中国/中文/华语电影 → 'zh'
@@ -516,7 +564,7 @@ public class MovieToolController {
 
             // 调用指定模型的AI工具
             String response = chatClient.prompt(new Prompt(List.of(systemMsg, userMsg)))
-                    .tools(new MovieTools(movieSearchService))
+                    .tools(newMovieTools())
                     .call()
                     .content();
 
@@ -548,7 +596,7 @@ public class MovieToolController {
                         logger.info("执行工具函数: {} 参数: {}", functionName, parameters.toString());
                         
                         // 执行对应的工具方法
-                        MovieTools movieTools = new MovieTools(movieSearchService);
+                        MovieTools movieTools = newMovieTools();
                         
                         if ("searchMovies".equals(functionName)) {
                             String movieName = parameters.has("movieName") ? parameters.get("movieName").asText() : 
@@ -556,7 +604,7 @@ public class MovieToolController {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用searchMovies: movieName={}, languageCode={}", movieName, languageCode);
-                            toolResponse = movieTools.searchMovies(movieName, languageCode);
+                            toolResponse = movieTools.searchMovies(movieName, languageCode, readInt(parameters, "limit"));
                         } else if ("concurrentSearchMovies".equals(functionName)) {
                             String movieNames = parameters.has("movieNames") ? parameters.get("movieNames").asText() : 
                                                parameters.has("movie_names") ? parameters.get("movie_names").asText() : "";
@@ -570,7 +618,7 @@ public class MovieToolController {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用searchMoviesByYear: year={}, genre={}, languageCode={}", year, genre, languageCode);
-                            toolResponse = movieTools.searchMoviesByYear(year, genre, languageCode);
+                            toolResponse = movieTools.searchMoviesByYear(year, genre, languageCode, readInt(parameters, "page"), readInt(parameters, "limit"));
                         } else if ("searchMoviesByRegionAndGenre".equals(functionName)) {
                             String regionCode = parameters.has("regionCode") ? parameters.get("regionCode").asText() : 
                                                parameters.has("region_code") ? parameters.get("region_code").asText() : 
@@ -578,12 +626,26 @@ public class MovieToolController {
                             String genre = parameters.has("genre") ? parameters.get("genre").asText() : null;
                             String year = parameters.has("year") ? parameters.get("year").asText() : null;
                             logger.info("调用searchMoviesByRegionAndGenre: regionCode={}, genre={}, year={}", regionCode, genre, year);
-                            toolResponse = movieTools.searchMoviesByRegionAndGenre(regionCode, genre, year);
+                            toolResponse = movieTools.searchMoviesByRegionAndGenre(regionCode, genre, year, readInt(parameters, "limit"));
                         } else if ("getPopularMovies".equals(functionName)) {
                             String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
                                                  parameters.has("language") ? parameters.get("language").asText() : "en";
                             logger.info("调用getPopularMovies: languageCode={}", languageCode);
-                            toolResponse = movieTools.getPopularMovies(languageCode);
+                            toolResponse = movieTools.getPopularMovies(languageCode, readInt(parameters, "limit"));
+                        } else if ("searchMoviesByPerson".equals(functionName)) {
+                            String person = parameters.has("person") ? parameters.get("person").asText() : "";
+                            String role = parameters.has("role") ? parameters.get("role").asText() : null;
+                            String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
+                                                 parameters.has("language") ? parameters.get("language").asText() : "en";
+                            logger.info("调用searchMoviesByPerson: person={}, role={}, languageCode={}", person, role, languageCode);
+                            toolResponse = movieTools.searchMoviesByPerson(person, role, languageCode, readInt(parameters, "limit"));
+                        } else if ("searchSimilarMovies".equals(functionName)) {
+                            String movie = parameters.has("movie") ? parameters.get("movie").asText() : 
+                                          parameters.has("movieName") ? parameters.get("movieName").asText() : "";
+                            String languageCode = parameters.has("languageCode") ? parameters.get("languageCode").asText() : 
+                                                 parameters.has("language") ? parameters.get("language").asText() : "en";
+                            logger.info("调用searchSimilarMovies: movie={}, languageCode={}", movie, languageCode);
+                            toolResponse = movieTools.searchSimilarMovies(movie, languageCode, readInt(parameters, "limit"));
                         } else if ("smartMovieSearch".equals(functionName)) {
                             String movieNames = parameters.has("movieNames") ? parameters.get("movieNames").asText() : 
                                                parameters.has("movie_names") ? parameters.get("movie_names").asText() : "";
@@ -709,10 +771,11 @@ public class MovieToolController {
     @GetMapping("/api/movie/query")
     public ResponseEntity<Map<String, Object>> queryMovies(
             @Parameter(description = "查询语句，如'我想看今年的爱情片电影'") @RequestParam("query") String query,
-            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language) {
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "返回条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
 
         try {
-            MovieListResponseVo responseVo = movieSearchService.searchMoviesByQueryForVo(query, language);
+            MovieListResponseVo responseVo = movieSearchService.searchMoviesByQueryForVo(query, language, limit);
 
             // 创建返回结果Map
             Map<String, Object> result = new HashMap<>();
@@ -744,10 +807,13 @@ public class MovieToolController {
     public ResponseEntity<Map<String, Object>> searchMoviesByYear(
             @Parameter(description = "电影年份，如'2024'") @RequestParam("year") String year,
             @Parameter(description = "电影类型，如'Action'（可选）") @RequestParam(value = "genre", required = false) String genre,
-            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language) {
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "页码，从1开始，默认1") @RequestParam(value = "page", required = false, defaultValue = "1") int page,
+            @Parameter(description = "每页条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
 
         try {
-            MovieListResponseVo responseVo = movieSearchService.searchMoviesByYearAndGenreForVo(year, genre, language);
+            MovieListResponseVo responseVo = movieSearchService.searchMoviesByYearAndGenreForVo(year, genre, language,
+                    page, limit);
 
             // 创建返回结果Map
             Map<String, Object> result = new HashMap<>();
@@ -777,10 +843,11 @@ public class MovieToolController {
     @Operation(summary = "获取本周热门电影")
     @GetMapping("/api/movie/popular-this-week")
     public ResponseEntity<Map<String, Object>> getPopularMoviesThisWeek(
-            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language) {
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "返回条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
 
         try {
-            MovieListResponseVo responseVo = movieSearchService.getPopularMoviesThisWeekForVo(language);
+            MovieListResponseVo responseVo = movieSearchService.getPopularMoviesThisWeekForVo(language, limit);
 
             // 创建返回结果Map
             Map<String, Object> result = new HashMap<>();
@@ -804,6 +871,144 @@ public class MovieToolController {
         }
     }
     
+    /**
+     * 按筛选条件流式导出整个库列表（NDJSON，每行一部电影）
+     */
+    @Operation(summary = "按年份、类型、地区、片长流式导出库列表(NDJSON)")
+    @GetMapping(value = "/api/movie/library/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieDetailVo> streamLibraryMovies(
+            @Parameter(description = "电影年份，如'2024'或区间'2000:2010'（可选）") @RequestParam(value = "year", required = false) String year,
+            @Parameter(description = "电影类型，多个用逗号分隔，如'History,War'（可选）") @RequestParam(value = "genre", required = false) String genre,
+            @Parameter(description = "地区筛选值（可选）") @RequestParam(value = "region", required = false) String region,
+            @Parameter(description = "片长区间（分钟），如'90:120'（可选）") @RequestParam(value = "runtime", required = false) String runtime,
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "最多返回条数，0表示不限制") @RequestParam(value = "limit", required = false, defaultValue = "0") long limit) {
+
+        Flux<MovieDetailVo> movies = movieSearchService.streamLibraryMovies(
+                new LibraryFilter(year, genre, region, runtime), language);
+        // 客户端断开或达到条数后取消订阅，不再继续翻页
+        return limit > 0 ? movies.take(limit) : movies;
+    }
+
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    /**
+     * 片名输入提示，只查本地前缀树，不访问PeliPlat
+     */
+    @Operation(summary = "片名输入提示（按热度排序）")
+    @GetMapping("/api/movie/suggest")
+    public ResponseEntity<List<TitleSuggestion>> suggestTitles(
+            @Parameter(description = "已输入的片名前缀") @RequestParam("prefix") String prefix,
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "返回条数，默认10，最多10") @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(titleSuggester.suggest(prefix, language, Math.min(limit, TitleSuggester.MAX_SUGGESTIONS)));
+    }
+
+    @Autowired
+    private PersonIndex personIndex;
+
+    /**
+     * 按导演或演员查询其作品，只查本地人员作品索引，不访问PeliPlat
+     */
+    @Operation(summary = "按导演或演员查询作品（本地人员作品索引）")
+    @GetMapping("/api/movie/person")
+    public ResponseEntity<Map<String, Object>> searchMoviesByPerson(
+            @Parameter(description = "人员姓名（任一语言）或pcId") @RequestParam("person") String person,
+            @Parameter(description = "职务：director或actor（可选），留空不限") @RequestParam(value = "role", required = false) String role,
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "返回条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+
+        Map<String, Object> result = new HashMap<>();
+        MovieListResponseVo responseVo = personIndex.filmography(person, PersonIndex.Role.parse(role), language,
+                Math.max(1, limit));
+        if (responseVo == null) {
+            result.put("retCode", 404);
+            result.put("message", "本地人员作品索引中没有该人员: " + person);
+            result.put("movies", new ArrayList<>());
+            return ResponseEntity.status(404).body(result);
+        }
+        result.put("retCode", responseVo.getRetCode());
+        result.put("persons", personIndex.find(person));
+        result.put("totalCount", responseVo.getTotalCount());
+        result.put("count", responseVo.getCount());
+        result.put("movies", responseVo.getResult());
+        return ResponseEntity.ok(result);
+    }
+
+    @Autowired
+    private SimilarMovieIndex similarMovieIndex;
+
+    /**
+     * 相似电影（"更多类似"），只查本地相似电影索引，不访问PeliPlat
+     */
+    @Operation(summary = "查找相似电影（按剧情关键词、类型和简介）")
+    @GetMapping("/api/movie/similar")
+    public ResponseEntity<Map<String, Object>> searchSimilarMovies(
+            @Parameter(description = "电影ppId或片名") @RequestParam("movie") String movie,
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "返回条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+
+        Map<String, Object> result = new HashMap<>();
+        MovieListResponseVo responseVo = similarMovieIndex.similar(movie, language, Math.max(1, limit));
+        if (responseVo == null) {
+            result.put("retCode", 404);
+            result.put("message", "本地相似电影索引中没有该电影: " + movie);
+            result.put("movies", new ArrayList<>());
+            return ResponseEntity.status(404).body(result);
+        }
+        result.put("retCode", responseVo.getRetCode());
+        result.put("count", responseVo.getCount());
+        result.put("movies", responseVo.getResult());
+        return ResponseEntity.ok(result);
+    }
+
+    @Autowired
+    private CatalogStore catalogStore;
+
+    /**
+     * 在本地电影目录快照上按年份区间、类型、原始语言筛选
+     */
+    @Operation(summary = "本地电影目录分面筛选（年份区间、多类型与/或、原始语言，按热度或评分排序）")
+    @GetMapping("/api/movie/catalog/filter")
+    public ResponseEntity<Map<String, Object>> filterCatalog(
+            @Parameter(description = "电影年份，如'2024'或区间'2000:2010'（可选）") @RequestParam(value = "year", required = false) String year,
+            @Parameter(description = "电影类型，多个用逗号分隔，如'History,War'（可选）") @RequestParam(value = "genre", required = false) String genre,
+            @Parameter(description = "多个类型的匹配方式：all须同时满足，any满足其一，默认all") @RequestParam(value = "match", required = false, defaultValue = "all") String match,
+            @Parameter(description = "电影原始语言代码，多个用逗号分隔，如'ja,ko'（可选）") @RequestParam(value = "originalLanguage", required = false) String originalLanguage,
+            @Parameter(description = "排序方式：popularity或rating，默认popularity") @RequestParam(value = "sort", required = false, defaultValue = "popularity") String sort,
+            @Parameter(description = "语言代码，默认en") @RequestParam(value = "language", required = false, defaultValue = "en") String language,
+            @Parameter(description = "页码，从1开始") @RequestParam(value = "page", required = false, defaultValue = "1") int page,
+            @Parameter(description = "返回条数，默认20") @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+
+        Map<String, Object> result = new HashMap<>();
+        int[] years = CatalogStore.parseYearRange(year);
+        if (years == null) {
+            result.put("retCode", 400);
+            result.put("message", "年份格式错误: " + year);
+            result.put("movies", new ArrayList<>());
+            return ResponseEntity.badRequest().body(result);
+        }
+        CatalogQuery.Sort order = "rating".equalsIgnoreCase(sort) ? CatalogQuery.Sort.RATING : CatalogQuery.Sort.POPULARITY;
+        int pageSize = Math.max(1, limit);
+        MovieListResponseVo responseVo = catalogStore.filter(new CatalogQuery(years[0], years[1],
+                CatalogStore.splitGenres(genre), !"any".equalsIgnoreCase(match), CatalogStore.splitList(originalLanguage),
+                order, (Math.max(1, page) - 1) * pageSize, pageSize), language);
+        if (responseVo == null) {
+            result.put("retCode", 404);
+            result.put("message", "本地电影目录中没有该语言的快照或未知的类型");
+            result.put("movies", new ArrayList<>());
+            return ResponseEntity.status(404).body(result);
+        }
+        result.put("retCode", responseVo.getRetCode());
+        result.put("totalCount", responseVo.getTotalCount());
+        result.put("totalPage", responseVo.getTotalPage());
+        result.put("count", responseVo.getCount());
+        result.put("movies", responseVo.getResult());
+        return ResponseEntity.ok(result);
+    }
+    
     // ==================================================
     // 智能体电影推荐接口
     // ==================================================
@@ -851,13 +1056,14 @@ public class MovieToolController {
                                         "timestamp", System.currentTimeMillis()
                                     )));
                                 
-                                // 并发搜索提取到的电影
-                                List<CompletableFuture<MovieDetailVo>> searchFutures = movieNames.parallelStream()
-                                    .map(movieName -> CompletableFuture.supplyAsync(() -> {
+                                // 并发搜索提取到的电影（使用共享的搜索线程池），保留原始Future以便超时后中断
+                                List<CompletableFuture<MovieDetailVo>> searchFutures = movieNames.stream()
+                                    .map(movieName -> movieSearchExecutor.supplyAsync(() -> {
                                         try {
                                             logger.debug("🔍 搜索电影: {}", movieName);
+                                            // 每个推荐名称只取最匹配的一部，上游只请求1条
                                             MovieListResponseVo responseVo = movieSearchService.searchMoviesByQueryForVo(
-                                                movieName, "zh"
+                                                movieName, "zh", 1
                                             );
                                             
                                             if (responseVo != null && responseVo.getResult() != null && !responseVo.getResult().isEmpty()) {
@@ -873,66 +1079,55 @@ public class MovieToolController {
                                     }))
                                     .collect(Collectors.toList());
                                 
-                                // 等待所有搜索完成
-                                CompletableFuture<Void> allSearches = CompletableFuture.allOf(
-                                    searchFutures.toArray(new CompletableFuture[0])
-                                );
-                                
-                                allSearches.thenRun(() -> {
-                                    try {
-                                        List<MovieDetailVo> foundMovies = searchFutures.stream()
-                                            .map(CompletableFuture::join)
-                                            .filter(Objects::nonNull)
-                                            .collect(Collectors.toList());
-                                        
-                                        long endTime = System.currentTimeMillis();
-                                        
-                                        // 发送搜索结果
-                                        emitter.send(SseEmitter.event()
-                                            .name("movies_found")
-                                            .data(Map.of(
-                                                "movies", foundMovies,
-                                                "totalCount", foundMovies.size(),
-                                                "executionTime", endTime - startTime,
-                                                "timestamp", System.currentTimeMillis()
-                                            )));
-                                        
-                                        // 流式输出智能体的解释内容
-                                        String explanation = result.getExplanation();
-                                        if (explanation != null && !explanation.trim().isEmpty()) {
-                                            // 将解释内容分段发送（模拟打字机效果）
-                                            String[] sentences = explanation.split("。");
-                                            for (int i = 0; i < sentences.length; i++) {
-                                                if (!sentences[i].trim().isEmpty()) {
-                                                    Thread.sleep(500); // 500ms间隔
-                                                    emitter.send(SseEmitter.event()
-                                                        .name("explanation_chunk")
-                                                        .data(Map.of(
-                                                            "text", sentences[i] + (i < sentences.length - 1 ? "。" : ""),
-                                                            "isLast", i == sentences.length - 1,
-                                                            "timestamp", System.currentTimeMillis()
-                                                        )));
+                                // 等待所有搜索完成（单个任务失败不影响等待其他任务），超时则只使用已完成的结果；
+                                // 后续发送在公共线程池中执行，不占用搜索线程池
+                                CompletableFuture.allOf(searchFutures.stream()
+                                        .map(future -> future.exceptionally(e -> null))
+                                        .toArray(CompletableFuture[]::new))
+                                    .orTimeout(peliplatProperties.getExecutor().getFanoutTimeoutMillis(), TimeUnit.MILLISECONDS)
+                                    .whenCompleteAsync((ignored, timeout) -> {
+                                        // 无论成功与否都取消未完成的任务
+                                        MovieSearchExecutor.cancelAll(searchFutures);
+                                        if (timeout != null) {
+                                            logger.warn("⏰ 搜索推荐电影超时，返回已完成的部分结果: {}", movieNames);
+                                        }
+                                        try {
+                                            List<MovieDetailVo> foundMovies = new ArrayList<>();
+                                            for (int i = 0; i < searchFutures.size(); i++) {
+                                                CompletableFuture<MovieDetailVo> future = searchFutures.get(i);
+                                                if (future.isDone() && !future.isCompletedExceptionally()) {
+                                                    MovieDetailVo movie = future.getNow(null);
+                                                    if (movie != null) {
+                                                        foundMovies.add(movie);
+                                                    }
+                                                } else if (future.isCompletedExceptionally() && !future.isCancelled()) {
+                                                    logger.warn("⚠️ 搜索任务未执行: {}", movieNames.get(i));
                                                 }
                                             }
+                                            
+                                            long endTime = System.currentTimeMillis();
+                                            
+                                            // 发送搜索结果
+                                            emitter.send(SseEmitter.event()
+                                                .name("movies_found")
+                                                .data(Map.of(
+                                                    "movies", foundMovies,
+                                                    "totalCount", foundMovies.size(),
+                                                    "executionTime", endTime - startTime,
+                                                    "timestamp", System.currentTimeMillis()
+                                                )));
+                                            
+                                            // 流式输出智能体的解释内容，之后发送完成事件
+                                            String explanation = result.getExplanation();
+                                            String[] sentences = explanation != null && !explanation.trim().isEmpty()
+                                                ? explanation.split("。") : new String[0];
+                                            sendExplanation(emitter, sentences, 0, foundMovies.size(), endTime - startTime);
+                                            
+                                        } catch (Exception e) {
+                                            logger.error("❌ 发送搜索结果失败", e);
+                                            emitter.completeWithError(e);
                                         }
-                                        
-                                        // 发送完成事件
-                                        emitter.send(SseEmitter.event()
-                                            .name("complete")
-                                            .data(Map.of(
-                                                "message", "推荐完成",
-                                                "totalMovies", foundMovies.size(),
-                                                "executionTime", endTime - startTime,
-                                                "timestamp", System.currentTimeMillis()
-                                            )));
-                                        
-                                        emitter.complete();
-                                        
-                                    } catch (Exception e) {
-                                        logger.error("❌ 发送搜索结果失败", e);
-                                        emitter.completeWithError(e);
-                                    }
-                                });
+                                    });
                                 
                             } else {
                                 // 没有提取到电影名称
@@ -1012,6 +1207,60 @@ public class MovieToolController {
             .body(emitter);
     }
     
+    /**
+     * 从第index句起逐句发送智能体的解释内容（模拟打字机效果，500ms间隔），全部发送后发送完成事件。
+     * 间隔由延迟执行器调度，等待期间不占用线程
+     */
+    private void sendExplanation(SseEmitter emitter, String[] sentences, int index, int totalMovies,
+                                 long executionTime) {
+        int next = index;
+        while (next < sentences.length && sentences[next].trim().isEmpty()) {
+            next++;
+        }
+        if (next >= sentences.length) {
+            try {
+                // 发送完成事件
+                emitter.send(SseEmitter.event()
+                    .name("complete")
+                    .data(Map.of(
+                        "message", "推荐完成",
+                        "totalMovies", totalMovies,
+                        "executionTime", executionTime,
+                        "timestamp", System.currentTimeMillis()
+                    )));
+                emitter.complete();
+            } catch (Exception e) {
+                logger.error("❌ 发送完成事件失败", e);
+                emitter.completeWithError(e);
+            }
+            return;
+        }
+        int current = next;
+        CompletableFuture.runAsync(() -> {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name("explanation_chunk")
+                    .data(Map.of(
+                        "text", sentences[current] + (current < sentences.length - 1 ? "。" : ""),
+                        "isLast", current == sentences.length - 1,
+                        "timestamp", System.currentTimeMillis()
+                    )));
+                sendExplanation(emitter, sentences, current + 1, totalMovies, executionTime);
+            } catch (Exception e) {
+                logger.error("❌ 发送解释内容失败", e);
+                emitter.completeWithError(e);
+            }
+        }, CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 读取工具调用参数中的整数（数字或数字字符串，如页码、返回条数），未提供时返回null（使用默认值）
+     */
+    private Integer readInt(com.fasterxml.jackson.databind.JsonNode parameters, String name) {
+        com.fasterxml.jackson.databind.JsonNode value = parameters.get(name);
+        return value != null && !value.isNull() ? value.asInt(0) : null;
+    }
+
     /**
      * 生成搜索建议
      */
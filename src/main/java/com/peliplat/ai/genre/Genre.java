@@ -0,0 +1,23 @@
+package com.peliplat.ai.genre;
+
+import java.util.Locale;
+
+/**
+ * 电影类型
+ *
+ * @param bit       类型在分类表中的紧凑编号，用作BitSet下标
+ * @param id        类型ID（基本类型为数字，子类型为tg开头），只有展示名称的类型为null
+ * @param name      英文名称
+ * @param localName 中文名称，没有时为null
+ * @param filterId  库列表接口filterIds使用的ID，没有时为null
+ * @param parentId  父类型ID，基本类型为null
+ */
+public record Genre(int bit, String id, String name, String localName, String filterId, String parentId) {
+
+    /**
+     * 本地索引使用的键：有类型ID时使用ID，否则使用小写英文名称
+     */
+    public String key() {
+        return id != null ? id : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,280 @@
+package com.peliplat.ai.genre;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.peliplat.ai.config.PeliplatProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 类型分类表的加载与刷新
+ * 启动时加载本地快照（没有时使用MovieGenreConstants构建的内置分类表），开启刷新后定期读取PeliPlat的筛选项元数据，
+ * 更新已有类型的筛选ID并补充新出现的类型，写回快照后整体替换GenreTaxonomy.current()，查询方始终读到完整的一版
+ */
+@Component
+public class GenreCatalog implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenreCatalog.class);
+
+    // 元数据中类型名称和筛选ID可能使用的字段
+    private static final String[] NAME_FIELDS = {"name", "label", "title"};
+    private static final String[] ID_FIELDS = {"filterId", "id", "value"};
+    private static final Pattern FILTER_ID = Pattern.compile("\\d+");
+
+    private final RestTemplate restTemplate;
+    private final PeliplatProperties.Genres config;
+    private final Path snapshotFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    public GenreCatalog(RestTemplate restTemplate, PeliplatProperties peliplatProperties) {
+        this.restTemplate = restTemplate;
+        this.config = peliplatProperties.getGenres();
+        this.snapshotFile = Path.of(config.getSnapshotFile());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("genre-refresh-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        load();
+    }
+
+    /**
+     * 加载本地快照；文件不存在或损坏时保留内置分类表
+     */
+    private void load() {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return;
+        }
+        try {
+            GenreTaxonomy taxonomy = fromJson(Files.readAllBytes(snapshotFile));
+            GenreTaxonomy.install(taxonomy);
+            logger.info("类型分类表快照已加载: {}, 类型数: {}", snapshotFile, taxonomy.genres().size());
+        } catch (IOException | RuntimeException e) {
+            logger.error("加载类型分类表快照失败，使用内置分类表: {}", snapshotFile, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String metadataUrl = config.getMetadataUrl();
+        if (!config.isRefreshEnabled() || metadataUrl == null || metadataUrl.isBlank()) {
+            logger.info("类型分类表刷新已关闭");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, Math.max(60, config.getRefreshIntervalSeconds()),
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * 读取筛选项元数据并替换当前分类表；请求失败或元数据中没有可识别的类型时保留当前分类表
+     */
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            String body = restTemplate.getForObject(config.getMetadataUrl(), String.class);
+            GenreTaxonomy merged = body != null ? merge(GenreTaxonomy.current(), objectMapper.readTree(body)) : null;
+            if (merged == null) {
+                logger.warn("筛选项元数据中没有可识别的类型，保留当前分类表");
+                return;
+            }
+            GenreTaxonomy.install(merged);
+            write(merged);
+            logger.info("类型分类表已刷新，类型数: {}, 耗时: {}ms", merged.genres().size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("刷新类型分类表失败，保留当前分类表", e);
+        }
+    }
+
+    /**
+     * 按筛选项元数据生成新的分类表：元数据中的筛选项按所在数组分组，含有已知类型的组视为类型筛选项。
+     * 名称（英文或中文）匹配的类型使用元数据中的筛选ID，未出现的类型保留原筛选ID，
+     * 组内分类表中没有的名称作为只有展示名称的类型加入
+     *
+     * @return 新分类表，元数据中没有任何已知类型时返回null
+     */
+    static GenreTaxonomy merge(GenreTaxonomy taxonomy, JsonNode metadata) {
+        List<Map<String, String>> groups = new ArrayList<>();
+        collectGroups(metadata, groups);
+        Map<Genre, String> updated = new HashMap<>();
+        Map<String, String> added = new LinkedHashMap<>();
+        Set<String> addedKeys = new HashSet<>();
+        for (Map<String, String> group : groups) {
+            Map<Genre, String> matched = new HashMap<>();
+            Map<String, String> unknown = new LinkedHashMap<>();
+            group.forEach((name, filterId) -> {
+                Genre genre = taxonomy.find(name);
+                if (genre == null) {
+                    unknown.put(name, filterId);
+                } else if (isOwnName(genre, name)) {
+                    matched.putIfAbsent(genre, filterId);
+                }
+                // 只通过别名匹配到的名称不确定对应关系，忽略
+            });
+            if (matched.isEmpty()) {
+                continue;
+            }
+            matched.forEach(updated::putIfAbsent);
+            unknown.forEach((name, filterId) -> {
+                if (addedKeys.add(GenreTaxonomy.key(name))) {
+                    added.put(name, filterId);
+                }
+            });
+        }
+        if (updated.isEmpty()) {
+            return null;
+        }
+        GenreTaxonomy.Builder builder = GenreTaxonomy.builder();
+        for (Genre genre : taxonomy.genres()) {
+            builder.genre(genre.id(), genre.name(), genre.localName(),
+                    updated.getOrDefault(genre, genre.filterId()), genre.parentId());
+        }
+        added.forEach((name, filterId) -> builder.genre(null, name, null, filterId, null));
+        taxonomy.aliases().forEach(builder::alias);
+        return builder.build();
+    }
+
+    private static boolean isOwnName(Genre genre, String name) {
+        String key = GenreTaxonomy.key(name);
+        return key.equals(GenreTaxonomy.key(genre.name()))
+                || genre.localName() != null && key.equals(GenreTaxonomy.key(genre.localName()));
+    }
+
+    /**
+     * 递归查找数组中同时带有名称和数字筛选ID的对象，每个数组一组，组内同名时保留第一个
+     */
+    private static void collectGroups(JsonNode node, List<Map<String, String>> groups) {
+        if (node == null) {
+            return;
+        }
+        if (node.isArray()) {
+            Map<String, String> group = new LinkedHashMap<>();
+            for (JsonNode element : node) {
+                String name = firstText(element, NAME_FIELDS);
+                String filterId = firstText(element, ID_FIELDS);
+                if (name != null && filterId != null && FILTER_ID.matcher(filterId).matches()) {
+                    group.putIfAbsent(name.trim(), filterId);
+                }
+            }
+            if (!group.isEmpty()) {
+                groups.add(group);
+            }
+        }
+        for (JsonNode child : node) {
+            collectGroups(child, groups);
+        }
+    }
+
+    private static String firstText(JsonNode node, String[] fields) {
+        for (String field : fields) {
+            JsonNode value = node.get(field);
+            if (value != null && value.isValueNode() && !value.isNull() && !value.asText().isBlank()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 写入快照：先写临时文件再原子替换，避免其他节点读到写了一半的文件
+     */
+    private void write(GenreTaxonomy taxonomy) {
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, toJson(taxonomy));
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.error("写入类型分类表快照失败: {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * 编码为快照JSON：{"genres": [{"id", "name", "localName", "filterId", "parentId"}], "aliases": {别名: 类型名称}}
+     */
+    byte[] toJson(GenreTaxonomy taxonomy) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode genres = root.putArray("genres");
+        for (Genre genre : taxonomy.genres()) {
+            ObjectNode node = genres.addObject();
+            putIfPresent(node, "id", genre.id());
+            node.put("name", genre.name());
+            putIfPresent(node, "localName", genre.localName());
+            putIfPresent(node, "filterId", genre.filterId());
+            putIfPresent(node, "parentId", genre.parentId());
+        }
+        ObjectNode aliases = root.putObject("aliases");
+        taxonomy.aliases().forEach(aliases::put);
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    /**
+     * 解码快照JSON
+     */
+    GenreTaxonomy fromJson(byte[] data) throws IOException {
+        JsonNode root = objectMapper.readTree(data);
+        JsonNode genres = root.path("genres");
+        if (!genres.isArray() || genres.isEmpty()) {
+            throw new IOException("类型分类表快照中没有类型");
+        }
+        GenreTaxonomy.Builder builder = GenreTaxonomy.builder();
+        for (JsonNode node : genres) {
+            String name = text(node, "name");
+            if (name == null) {
+                throw new IOException("类型分类表快照中的类型缺少名称");
+            }
+            builder.genre(text(node, "id"), name, text(node, "localName"), text(node, "filterId"),
+                    text(node, "parentId"));
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.path("aliases").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> alias = it.next();
+            builder.alias(alias.getKey(), alias.getValue().asText());
+        }
+        return builder.build();
+    }
+
+    private static void putIfPresent(ObjectNode node, String field, String value) {
+        if (value != null) {
+            node.put(field, value);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
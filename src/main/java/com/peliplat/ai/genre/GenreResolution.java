@@ -0,0 +1,37 @@
+package com.peliplat.ai.genre;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 类型字符串的解析结果
+ *
+ * @param genres     解析出的类型，按出现顺序去重
+ * @param bits       解析出的类型编号集合
+ * @param filterIds  上游筛选使用的ID（子类型没有自己的筛选ID时使用父类型的），按出现顺序去重
+ * @param unresolved 无法识别的词
+ */
+public record GenreResolution(List<Genre> genres, BitSet bits, List<String> filterIds, List<String> unresolved) {
+
+    /**
+     * 是否解析出了至少一个类型
+     */
+    public boolean hasGenres() {
+        return !genres.isEmpty();
+    }
+
+    /**
+     * 逗号分隔的英文类型名称，可再次解析得到相同的结果
+     */
+    public String names() {
+        return genres.stream().map(Genre::name).collect(Collectors.joining(","));
+    }
+
+    /**
+     * 逗号分隔的上游筛选ID，没有时为空字符串
+     */
+    public String filterIdString() {
+        return String.join(",", filterIds);
+    }
+}
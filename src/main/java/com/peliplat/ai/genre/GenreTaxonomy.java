@@ -0,0 +1,369 @@
+package com.peliplat.ai.genre;
+
+import com.peliplat.ai.util.MovieGenreConstants;
+import com.peliplat.ai.util.QueryNormalizer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * 电影类型分类表
+ * 包含类型ID、英文和中文名称、父子关系、上游筛选ID以及别名。名称和别名归一化（大小写、全角半角、连字符、繁简体）后
+ * 放入字符前缀树，类型字符串只需从左到右扫描一遍，每个位置取最长的匹配，
+ * 因此"romantic comedy, 科幻恐怖片"可以一次解析为Rom-com和Sci-Fi horror。
+ * 构建后不可变，可在线程间共享；当前使用的分类表由GenreCatalog刷新后整体替换，读取无需加锁
+ */
+public final class GenreTaxonomy {
+
+    // 用户输入中分隔多个类型的符号（归一化会把标点变成空格，因此在归一化之前切分）
+    private static final Pattern SEPARATORS = Pattern.compile("[,，、;；/|+&]");
+    // 连接词和"片"、"电影"等后缀，不算作无法识别的词
+    private static final String[] FILLERS = {"and", "or", "movie", "movies", "film", "films", "genre", "genres",
+            "和", "与", "或", "的", "片", "类", "电影", "类型"};
+    private static final Genre[] FILLER = new Genre[0];
+
+    private static final AtomicReference<GenreTaxonomy> CURRENT = new AtomicReference<>();
+
+    private final List<Genre> genres;
+    private final Map<String, String> aliases;
+    private final Map<String, Genre> byId;
+    private final Map<String, Genre[]> byAlias;
+    private final Node root;
+
+    private GenreTaxonomy(List<Genre> genres, Map<String, String> aliases, Map<String, Genre[]> byAlias) {
+        this.genres = List.copyOf(genres);
+        this.aliases = Collections.unmodifiableMap(new LinkedHashMap<>(aliases));
+        Map<String, Genre> ids = new HashMap<>();
+        for (Genre genre : genres) {
+            if (genre.id() != null) {
+                ids.put(genre.id(), genre);
+            }
+        }
+        this.byId = Map.copyOf(ids);
+        this.byAlias = Map.copyOf(byAlias);
+        this.root = new Node();
+        byAlias.forEach(this::insert);
+        for (String filler : FILLERS) {
+            if (!byAlias.containsKey(filler)) {
+                insert(filler, FILLER);
+            }
+        }
+    }
+
+    /**
+     * 由MovieGenreConstants构建的默认分类表
+     */
+    public static GenreTaxonomy defaults() {
+        return Defaults.INSTANCE;
+    }
+
+    /**
+     * 当前使用的分类表，未加载快照或刷新前为默认分类表
+     */
+    public static GenreTaxonomy current() {
+        GenreTaxonomy taxonomy = CURRENT.get();
+        return taxonomy != null ? taxonomy : Defaults.INSTANCE;
+    }
+
+    /**
+     * 替换当前使用的分类表
+     */
+    static void install(GenreTaxonomy taxonomy) {
+        CURRENT.set(taxonomy);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 所有类型，按编号排列
+     */
+    public List<Genre> genres() {
+        return genres;
+    }
+
+    /**
+     * 构建时添加的别名及其对应的类型名称，按添加顺序排列
+     */
+    public Map<String, String> aliases() {
+        return aliases;
+    }
+
+    /**
+     * 按类型ID查找
+     */
+    public Genre byId(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    /**
+     * 按ID、名称或别名（整体）查找单个类型，对应多个类型的别名返回第一个
+     *
+     * @return 类型，无法识别时返回null
+     */
+    public Genre find(String name) {
+        if (name == null) {
+            return null;
+        }
+        Genre genre = byId.get(name.trim());
+        if (genre != null) {
+            return genre;
+        }
+        Genre[] matched = byAlias.get(key(name));
+        return matched != null && matched.length > 0 ? matched[0] : null;
+    }
+
+    /**
+     * 父类型，基本类型返回null
+     */
+    public Genre parent(Genre genre) {
+        return genre.parentId() != null ? byId.get(genre.parentId()) : null;
+    }
+
+    /**
+     * 上游筛选使用的ID：子类型没有自己的筛选ID时逐级使用父类型的
+     */
+    public String filterId(Genre genre) {
+        for (Genre current = genre; current != null; current = parent(current)) {
+            if (current.filterId() != null) {
+                return current.filterId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析可能包含多个类型的字符串
+     *
+     * @param text 类型字符串，如"Sci-fi, romantic comedy"、"科幻恐怖片"
+     * @return 解析结果，text为空时不含任何类型
+     */
+    public GenreResolution resolve(String text) {
+        List<Genre> matched = new ArrayList<>();
+        BitSet bits = new BitSet(genres.size());
+        Set<String> filterIds = new LinkedHashSet<>();
+        List<String> unresolved = new ArrayList<>();
+        if (text != null) {
+            for (String segment : SEPARATORS.split(text)) {
+                scan(key(segment), matched, bits, filterIds, unresolved);
+            }
+        }
+        return new GenreResolution(Collections.unmodifiableList(matched), bits, List.copyOf(filterIds),
+                Collections.unmodifiableList(unresolved));
+    }
+
+    /**
+     * 从左到右扫描已归一化的片段：拉丁文字只在词首开始匹配且匹配须在词尾结束，中日韩文字可在任意位置开始和结束
+     */
+    private void scan(String text, List<Genre> matched, BitSet bits, Set<String> filterIds, List<String> unresolved) {
+        int length = text.length();
+        int unknownStart = -1;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                unknownStart = flush(text, unknownStart, i, unresolved);
+                i++;
+                continue;
+            }
+            Node node = root;
+            int end = -1;
+            Genre[] found = null;
+            for (int j = i; j < length && (node = node.children.get(text.charAt(j))) != null; j++) {
+                if (node.genres != null && atBoundary(text, j + 1)) {
+                    end = j + 1;
+                    found = node.genres;
+                }
+            }
+            if (found != null) {
+                unknownStart = flush(text, unknownStart, i, unresolved);
+                for (Genre genre : found) {
+                    if (!bits.get(genre.bit())) {
+                        bits.set(genre.bit());
+                        matched.add(genre);
+                        String filterId = filterId(genre);
+                        if (filterId != null) {
+                            filterIds.add(filterId);
+                        }
+                    }
+                }
+                i = end;
+            } else if (isCjk(c)) {
+                if (unknownStart < 0) {
+                    unknownStart = i;
+                }
+                i++;
+            } else {
+                unknownStart = flush(text, unknownStart, i, unresolved);
+                int wordEnd = text.indexOf(' ', i);
+                wordEnd = wordEnd < 0 ? length : wordEnd;
+                unresolved.add(text.substring(i, wordEnd));
+                i = wordEnd;
+            }
+        }
+        flush(text, unknownStart, length, unresolved);
+    }
+
+    private static int flush(String text, int start, int end, List<String> unresolved) {
+        if (start >= 0 && end > start) {
+            unresolved.add(text.substring(start, end));
+        }
+        return -1;
+    }
+
+    private static boolean atBoundary(String text, int end) {
+        return end == text.length() || text.charAt(end) == ' '
+                || isCjk(text.charAt(end - 1)) || isCjk(text.charAt(end));
+    }
+
+    private void insert(String key, Genre[] matched) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        node.genres = matched;
+    }
+
+    static String key(String name) {
+        return QueryNormalizer.normalize(name, true);
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 前缀树节点，genres不为null时表示有名称或别名在此结束（空数组表示连接词）
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Genre[] genres;
+    }
+
+    /**
+     * 分类表构建器：先添加所有类型，再添加别名（别名按名称引用类型）
+     */
+    public static final class Builder {
+
+        private final Map<String, String[]> entries = new LinkedHashMap<>();
+        private final Map<String, String> aliases = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 添加类型
+         *
+         * @param id        类型ID，只有展示名称的类型为null
+         * @param name      英文名称
+         * @param localName 中文名称，可为null
+         * @param filterId  上游筛选ID，可为null
+         * @param parentId  父类型ID，可为null
+         */
+        public Builder genre(String id, String name, String localName, String filterId, String parentId) {
+            entries.put(name, new String[]{id, name, localName, filterId, parentId});
+            return this;
+        }
+
+        /**
+         * 添加别名
+         *
+         * @param alias 别名
+         * @param names 逗号分隔的一个或多个类型名称
+         */
+        public Builder alias(String alias, String names) {
+            aliases.put(alias, names);
+            return this;
+        }
+
+        public GenreTaxonomy build() {
+            List<Genre> genres = new ArrayList<>(entries.size());
+            Map<String, Genre> byName = new HashMap<>();
+            Map<String, Genre[]> byAlias = new HashMap<>();
+            for (String[] entry : entries.values()) {
+                Genre genre = new Genre(genres.size(), entry[0], entry[1], entry[2], entry[3], entry[4]);
+                genres.add(genre);
+                byName.put(key(genre.name()), genre);
+            }
+            // 别名优先级最低：名称（以及名称中"/"分隔的各部分）先占用键
+            for (Genre genre : genres) {
+                for (String name : new String[]{genre.name(), genre.localName()}) {
+                    if (name == null) {
+                        continue;
+                    }
+                    byAlias.put(key(name), new Genre[]{genre});
+                    for (String part : SEPARATORS.split(name)) {
+                        byAlias.putIfAbsent(key(part), new Genre[]{genre});
+                    }
+                }
+            }
+            aliases.forEach((alias, names) -> {
+                List<Genre> targets = new ArrayList<>();
+                for (String name : names.split(",")) {
+                    Genre target = byName.get(key(name));
+                    if (target != null) {
+                        targets.add(target);
+                    }
+                }
+                if (!targets.isEmpty()) {
+                    byAlias.putIfAbsent(key(alias), targets.toArray(new Genre[0]));
+                }
+            });
+            byAlias.remove("");
+            return new GenreTaxonomy(genres, aliases, byAlias);
+        }
+    }
+
+    /**
+     * 默认分类表，首次使用时构建
+     */
+    private static final class Defaults {
+
+        private static final GenreTaxonomy INSTANCE = fromConstants();
+
+        private static GenreTaxonomy fromConstants() {
+            Builder builder = builder();
+            List<String> ids = new ArrayList<>(MovieGenreConstants.GENRE_ID_TO_NAME_MAP.keySet());
+            // 基本类型按数字排在前面，子类型在后
+            ids.sort(Comparator.comparing((String id) -> id.startsWith("tg"))
+                    .thenComparing(id -> id.startsWith("tg") ? 0 : Integer.parseInt(id))
+                    .thenComparing(Comparator.naturalOrder()));
+            Set<String> named = new LinkedHashSet<>();
+            for (String id : ids) {
+                String name = MovieGenreConstants.GENRE_ID_TO_NAME_MAP.get(id);
+                named.add(name);
+                builder.genre(id, name, MovieGenreConstants.GENRE_ID_TO_LOCAL_NAME_MAP.get(id),
+                        MovieGenreConstants.GENRE_DISPLAY_NAME_TO_ID_MAP.get(name),
+                        MovieGenreConstants.GENRE_PARENT_ID_MAP.get(id));
+            }
+            // 只有展示名称（没有类型ID）的类型，如Teen、Epic
+            List<String> displayOnly = new ArrayList<>(MovieGenreConstants.GENRE_DISPLAY_NAME_TO_ID_MAP.keySet());
+            displayOnly.removeAll(named);
+            Collections.sort(displayOnly);
+            for (String name : displayOnly) {
+                builder.genre(null, name, null, MovieGenreConstants.GENRE_DISPLAY_NAME_TO_ID_MAP.get(name), null);
+            }
+            List<String> aliases = new ArrayList<>(MovieGenreConstants.GENRE_ALIAS_MAP.keySet());
+            Collections.sort(aliases);
+            for (String alias : aliases) {
+                builder.alias(alias, MovieGenreConstants.GENRE_ALIAS_MAP.get(alias));
+            }
+            return builder.build();
+        }
+    }
+}
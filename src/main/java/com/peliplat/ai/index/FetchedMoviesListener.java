@@ -0,0 +1,22 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.model.MovieDetailVo;
+
+import java.util.List;
+
+/**
+ * 电影获取监听器
+ * 每次从PeliPlat获取到一批电影后回调，本地索引据此增量更新。
+ * 回调在获取结果的线程上同步执行，实现应尽快返回且不抛出异常
+ */
+public interface FetchedMoviesListener {
+
+    /**
+     * 收到一批电影
+     *
+     * @param movies   按上游返回顺序排列的电影
+     * @param language 语言
+     * @param source   数据来源
+     */
+    void onMovies(List<MovieDetailVo> movies, String language, MovieSource source);
+}
@@ -0,0 +1,42 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 电影获取事件分发
+ * 搜索服务拿到上游结果后调用publish，依次通知所有FetchedMoviesListener；
+ * 单个监听器出错只记录日志，不影响搜索结果返回
+ */
+@Component
+public class FetchedMoviesPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchedMoviesPublisher.class);
+
+    private final ObjectProvider<FetchedMoviesListener> listeners;
+
+    public FetchedMoviesPublisher(ObjectProvider<FetchedMoviesListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * 通知所有监听器，空列表不分发
+     */
+    public void publish(List<MovieDetailVo> movies, String language, MovieSource source) {
+        if (movies == null || movies.isEmpty()) {
+            return;
+        }
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onMovies(movies, language, source);
+            } catch (RuntimeException e) {
+                logger.warn("更新本地索引失败: {}", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,244 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.util.QueryNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已知片名的容错匹配
+ * 对所有获取过的电影的片名和原名（归一化后）建立二元字符组倒排表：查询先按共有字符组数和长度差筛出候选，
+ * 再用有上限的编辑距离验证，取距离最小、上游名次最好的电影。
+ * 只保留至少有一个片名被收录的电影，片名数受max-documents限制，保留的电影数随之有界。
+ * 用于大模型推断出的略有偏差的片名（"Spirted Away"、"The Founding of Republic"）
+ */
+@Component
+public class FuzzyTitleMatcher implements FetchedMoviesListener, MeterBinder {
+
+    private static final int MIN_QUERY_LENGTH = 4;
+    private static final int CHARS_PER_EDIT = 6;
+
+    private final boolean enabled;
+    private final int maxTitles;
+    private final int maxEdits;
+    private final int minPreemptiveLength;
+    private final boolean foldTraditional;
+    private final Map<String, LanguageTitles> languages = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FuzzyTitleMatcher(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Index config = peliplatProperties.getIndex();
+        this.enabled = config.isEnabled() && config.isFuzzyEnabled();
+        this.maxTitles = config.getMaxDocuments();
+        this.maxEdits = Math.max(0, config.getFuzzyMaxEdits());
+        this.minPreemptiveLength = config.getFuzzyMinLength();
+        this.foldTraditional = peliplatProperties.getSearch().isFoldTraditionalChinese();
+    }
+
+    @Override
+    public void onMovies(List<MovieDetailVo> movies, String language, MovieSource source) {
+        if (!enabled) {
+            return;
+        }
+        LanguageTitles titles = languages.computeIfAbsent(languageKey(language), key -> new LanguageTitles());
+        for (int position = 0; position < movies.size(); position++) {
+            MovieDetailVo movie = movies.get(position);
+            if (movie != null && movie.getPpId() != null) {
+                titles.add(movie, position);
+            }
+        }
+    }
+
+    /**
+     * 查找片名与查询近似的已知电影
+     *
+     * @param query      查询条件（片名）
+     * @param language   语言
+     * @param preemptive 是否用于代替上游搜索；此时过短的查询不做近似匹配，以免"Alien"被解析为"Aliens"
+     * @return 最接近的电影，没有足够接近的片名时返回null
+     */
+    public MovieDetailVo match(String query, String language, boolean preemptive) {
+        if (!enabled) {
+            return null;
+        }
+        String normalized = QueryNormalizer.normalize(query, foldTraditional);
+        LanguageTitles titles = languages.get(languageKey(language));
+        int length = normalized.length();
+        MovieDetailVo movie = null;
+        if (titles != null && length >= MIN_QUERY_LENGTH && (!preemptive || length >= minPreemptiveLength)) {
+            movie = titles.closest(normalized, Math.min(maxEdits, Math.max(1, length / CHARS_PER_EDIT)));
+        }
+        (movie != null ? hits : misses).increment();
+        return movie;
+    }
+
+    /**
+     * 保留的电影数（所有语言合计）
+     */
+    public int size() {
+        int size = 0;
+        for (LanguageTitles titles : languages.values()) {
+            size += titles.movies.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.index.fuzzy.movies", this, FuzzyTitleMatcher::size)
+                .description("近似片名匹配保留的电影数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.fuzzy", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("近似片名匹配到已知电影的次数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.fuzzy", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("没有足够接近的已知片名的次数")
+                .register(registry);
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单一语言的片名表
+     */
+    private final class LanguageTitles {
+
+        // 归一化片名 -> ppId
+        private final Map<String, String> titles = new ConcurrentHashMap<>();
+        // 二元字符组 -> 归一化片名
+        private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+        // ppId -> 指向该电影的归一化片名，只在add中（持有锁时）读写
+        private final Map<String, Set<String>> owned = new HashMap<>();
+        // 只包含owned中的电影
+        private final Map<String, Known> movies = new ConcurrentHashMap<>();
+
+        /**
+         * 收录电影的片名；没有片名被收录的电影不保留，片名改指向其他电影后不再有片名的电影随之移除
+         */
+        synchronized void add(MovieDetailVo movie, int position) {
+            String ppId = movie.getPpId();
+            for (String title : new String[]{movie.getTitle(), movie.getOriginalTitle()}) {
+                String key = QueryNormalizer.normalize(title, foldTraditional);
+                if (key.length() < MIN_QUERY_LENGTH || (!titles.containsKey(key) && titles.size() >= maxTitles)) {
+                    continue;
+                }
+                String displaced = titles.put(key, ppId);
+                if (displaced == null) {
+                    for (String gram : grams(key)) {
+                        grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                    }
+                } else if (!displaced.equals(ppId)) {
+                    release(displaced, key);
+                }
+                owned.computeIfAbsent(ppId, id -> new HashSet<>(2)).add(key);
+            }
+            if (owned.containsKey(ppId)) {
+                movies.merge(ppId, new Known(movie, position),
+                        (previous, current) -> new Known(movie, Math.min(previous.bestPosition(), position)));
+            }
+        }
+
+        private void release(String ppId, String key) {
+            Set<String> keys = owned.get(ppId);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                owned.remove(ppId);
+                movies.remove(ppId);
+            }
+        }
+
+        MovieDetailVo closest(String query, int allowedEdits) {
+            Set<String> queryGrams = grams(query);
+            // 每次编辑最多破坏两个二元组，共有组数不足的片名不可能在编辑距离内
+            int minShared = queryGrams.size() - 2 * allowedEdits;
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                for (String title : grams.getOrDefault(gram, Set.of())) {
+                    if (Math.abs(title.length() - query.length()) <= allowedEdits) {
+                        shared.merge(title, 1, Integer::sum);
+                    }
+                }
+            }
+            Known best = null;
+            int bestDistance = allowedEdits + 1;
+            for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                if (candidate.getValue() < minShared) {
+                    continue;
+                }
+                int distance = editDistance(query, candidate.getKey(), Math.min(allowedEdits, bestDistance));
+                Known known = movies.get(titles.get(candidate.getKey()));
+                if (known != null && (distance < bestDistance
+                        || distance == bestDistance && best != null && known.bestPosition() < best.bestPosition())) {
+                    best = known;
+                    bestDistance = distance;
+                }
+            }
+            return best != null ? best.movie() : null;
+        }
+    }
+
+    /**
+     * 首尾补空格后的二元字符组
+     */
+    static Set<String> grams(String text) {
+        String padded = " " + text + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 有上限的编辑距离，超过max时返回max + 1
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * 已知电影及其在上游结果中出现过的最好名次
+     */
+    private record Known(MovieDetailVo movie, int bestPosition) {
+    }
+}
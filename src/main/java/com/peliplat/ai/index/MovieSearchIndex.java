@@ -0,0 +1,267 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.PersonVo;
+import com.peliplat.ai.util.QueryNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地电影倒排索引
+ * 按语言索引关键词搜索（detailSearch）返回过的电影，词项来自片名、原名、导演、演员、剧情关键词和类型；
+ * 库列表返回的电影字段不同，不参与关键词搜索的回答。
+ * 关键词搜索先查本地：查询归一化后与某部电影的片名或原名完全一致时视为可信命中，
+ * 返回该电影及包含全部查询词的其他电影。只在查询单部电影或本地命中数达到请求条数时才直接回答，
+ * 其余情况由调用方查询上游，避免以少于上游的结果回答
+ */
+@Component
+public class MovieSearchIndex implements FetchedMoviesListener, MeterBinder {
+
+    private static final int TITLE_WEIGHT = 4;
+    private static final int PERSON_WEIGHT = 2;
+    private static final int TAG_WEIGHT = 1;
+
+    private final boolean enabled;
+    private final int maxDocuments;
+    private final boolean foldTraditional;
+    private final Map<String, LanguageIndex> languages = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MovieSearchIndex(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Index config = peliplatProperties.getIndex();
+        this.enabled = config.isEnabled();
+        this.maxDocuments = config.getMaxDocuments();
+        this.foldTraditional = peliplatProperties.getSearch().isFoldTraditionalChinese();
+    }
+
+    @Override
+    public void onMovies(List<MovieDetailVo> movies, String language, MovieSource source) {
+        if (!enabled || source != MovieSource.DETAIL_SEARCH) {
+            return;
+        }
+        LanguageIndex index = languages.computeIfAbsent(languageKey(language), key -> new LanguageIndex());
+        for (int position = 0; position < movies.size(); position++) {
+            MovieDetailVo movie = movies.get(position);
+            if (movie != null && movie.getPpId() != null) {
+                index.add(movie, position);
+            }
+        }
+    }
+
+    /**
+     * 在本地索引中搜索，没有可信命中或命中数不足limit（limit为1时除外）时返回null
+     *
+     * @param query    查询条件
+     * @param language 语言
+     * @param limit    最多返回条数
+     * @return 电影列表响应对象，或null
+     */
+    public MovieListResponseVo search(String query, String language, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        LanguageIndex index = languages.get(languageKey(language));
+        List<MovieDetailVo> movies = index != null
+                ? index.search(QueryNormalizer.normalize(query, foldTraditional), limit)
+                : List.of();
+        if (movies.isEmpty() || limit > 1 && movies.size() < limit) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setResult(movies);
+        responseVo.setCount(movies.size());
+        responseVo.setTotalCount(movies.size());
+        responseVo.setTotalPage(1);
+        return responseVo;
+    }
+
+    /**
+     * 已索引的电影数（所有语言合计）
+     */
+    public int size() {
+        int size = 0;
+        for (LanguageIndex index : languages.values()) {
+            size += index.docs.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.index.documents", this, MovieSearchIndex::size)
+                .description("本地倒排索引中的电影数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("本地倒排索引直接回答的搜索次数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("本地倒排索引没有可信命中、转查上游的搜索次数")
+                .register(registry);
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单一语言的索引
+     */
+    private final class LanguageIndex {
+
+        private final Map<String, Entry> docs = new ConcurrentHashMap<>();
+        // 词项 -> (ppId -> 该词在这部电影中的最高字段权重)
+        private final Map<String, Map<String, Integer>> postings = new ConcurrentHashMap<>();
+        // 归一化片名/原名 -> ppId
+        private final Map<String, Set<String>> titles = new ConcurrentHashMap<>();
+
+        /**
+         * 加入或更新一部电影；同一ppId的更新在compute中串行执行，旧词项随之移除
+         */
+        void add(MovieDetailVo movie, int position) {
+            String ppId = movie.getPpId();
+            if (!docs.containsKey(ppId) && docs.size() >= maxDocuments) {
+                return;
+            }
+            Map<String, Integer> terms = terms(movie);
+            Set<String> titleKeys = titleKeys(movie);
+            docs.compute(ppId, (id, previous) -> {
+                if (previous != null) {
+                    for (String term : previous.terms()) {
+                        if (!terms.containsKey(term)) {
+                            postings.computeIfPresent(term, (t, ids) -> ids.remove(id) != null && ids.isEmpty() ? null : ids);
+                        }
+                    }
+                    for (String title : previous.titles()) {
+                        if (!titleKeys.contains(title)) {
+                            titles.computeIfPresent(title, (t, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+                        }
+                    }
+                }
+                terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight));
+                titleKeys.forEach(title -> titles.computeIfAbsent(title, t -> ConcurrentHashMap.newKeySet()).add(id));
+                int bestPosition = previous != null ? Math.min(previous.bestPosition(), position) : position;
+                return new Entry(movie, terms.keySet(), titleKeys, bestPosition);
+            });
+        }
+
+        /**
+         * 片名完全一致的电影排在前面，其后是包含全部查询词的电影；同组内按得分、再按上游返回时的最好名次排序
+         */
+        List<MovieDetailVo> search(String normalizedQuery, int limit) {
+            Set<String> exact = normalizedQuery.isEmpty() ? null : titles.get(normalizedQuery);
+            if (exact == null || exact.isEmpty()) {
+                return List.of();
+            }
+            Map<String, Integer> scores = null;
+            for (String token : new HashSet<>(TextTokens.tokenizeNormalized(normalizedQuery))) {
+                Map<String, Integer> posting = postings.getOrDefault(token, Map.of());
+                if (scores == null) {
+                    scores = new HashMap<>(posting);
+                } else {
+                    scores.keySet().retainAll(posting.keySet());
+                    scores.replaceAll((id, score) -> score + posting.getOrDefault(id, 0));
+                }
+            }
+            Map<String, Integer> finalScores = scores != null ? scores : Map.of();
+            Set<String> ids = new HashSet<>(exact);
+            ids.addAll(finalScores.keySet());
+            List<Entry> candidates = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                Entry entry = docs.get(id);
+                if (entry != null) {
+                    candidates.add(entry);
+                }
+            }
+            candidates.sort(Comparator
+                    .comparingInt((Entry entry) -> exact.contains(entry.movie().getPpId()) ? 0 : 1)
+                    .thenComparingInt(entry -> -finalScores.getOrDefault(entry.movie().getPpId(), 0))
+                    .thenComparingInt(Entry::bestPosition));
+            List<MovieDetailVo> movies = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (int i = 0; i < candidates.size() && movies.size() < limit; i++) {
+                movies.add(candidates.get(i).movie());
+            }
+            return movies;
+        }
+    }
+
+    private Map<String, Integer> terms(MovieDetailVo movie) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, movie.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, movie.getOriginalTitle(), TITLE_WEIGHT);
+        addPersons(terms, movie.getDirectors());
+        addPersons(terms, movie.getActors());
+        if (movie.getPlotKeywords() != null) {
+            for (String keyword : movie.getPlotKeywords()) {
+                addTerms(terms, keyword, TAG_WEIGHT);
+            }
+        }
+        if (movie.getGenres() != null) {
+            for (String genre : movie.getGenres().split(",")) {
+                addTerms(terms, genre, TAG_WEIGHT);
+            }
+        }
+        return terms;
+    }
+
+    private void addPersons(Map<String, Integer> terms, List<PersonVo> persons) {
+        if (persons != null) {
+            for (PersonVo person : persons) {
+                if (person != null) {
+                    addTerms(terms, person.getName(), PERSON_WEIGHT);
+                }
+            }
+        }
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int weight) {
+        if (text != null) {
+            for (String token : TextTokens.tokenize(text, foldTraditional)) {
+                terms.merge(token, weight, Math::max);
+            }
+        }
+    }
+
+    private Set<String> titleKeys(MovieDetailVo movie) {
+        Set<String> keys = new HashSet<>();
+        for (String title : new String[]{movie.getTitle(), movie.getOriginalTitle()}) {
+            String key = QueryNormalizer.normalize(title, foldTraditional);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 索引中的一部电影
+     *
+     * @param movie        电影实体
+     * @param terms        该电影的词项，更新时用于移除旧词项
+     * @param titles       归一化后的片名和原名
+     * @param bestPosition 在上游结果中出现过的最好名次
+     */
+    private record Entry(MovieDetailVo movie, Set<String> terms, Set<String> titles, int bestPosition) {
+    }
+}
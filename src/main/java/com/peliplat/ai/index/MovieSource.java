@@ -0,0 +1,19 @@
+package com.peliplat.ai.index;
+
+/**
+ * 电影数据来源
+ * 关键词搜索（detailSearch）和库列表（listMedias）返回的电影字段不同：前者带有原名、剧情关键词和匹配类型，
+ * 热度是占位值；后者带有真实热度和类型ID
+ */
+public enum MovieSource {
+
+    /**
+     * 关键词搜索API
+     */
+    DETAIL_SEARCH,
+
+    /**
+     * 库列表API（年份类型筛选、本周热门、库分页）
+     */
+    LIBRARY
+}
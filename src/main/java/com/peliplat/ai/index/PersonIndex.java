@@ -0,0 +1,279 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.PersonVo;
+import com.peliplat.ai.util.QueryNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 人员作品索引
+ * 从获取过的电影（搜索结果和目录导入）中收集导演和演员，按pcId记录其参与的电影；
+ * 各语言下的姓名（归一化后）都指向同一个pcId，因此用英文名也能查到中文结果。
+ * 没有pcId的人员以归一化姓名作为键。
+ * 作品按库列表给出的热度排序，详情搜索结果中的热度是占位值，不参与排序
+ */
+@Component
+public class PersonIndex implements FetchedMoviesListener, MeterBinder {
+
+    /**
+     * 人员在电影中的职务
+     */
+    public enum Role {
+        DIRECTOR(1), ACTOR(2);
+
+        private final int mask;
+
+        Role(int mask) {
+            this.mask = mask;
+        }
+
+        /**
+         * 解析职务参数，空值或无法识别时返回null（不限职务）
+         */
+        public static Role parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "director", "directors", "导演" -> DIRECTOR;
+                case "actor", "actors", "actress", "cast", "演员" -> ACTOR;
+                default -> null;
+            };
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxMovies;
+    private final boolean foldTraditional;
+    // 人员键 -> 人员
+    private final Map<String, Person> persons = new ConcurrentHashMap<>();
+    // 归一化姓名 -> 人员键
+    private final Map<String, Set<String>> names = new ConcurrentHashMap<>();
+    // 语言 -> (ppId -> 电影)
+    private final Map<String, Map<String, MovieDetailVo>> movies = new ConcurrentHashMap<>();
+    // ppId -> 库列表给出的热度
+    private final Map<String, Double> knownPopularity = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PersonIndex(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Index config = peliplatProperties.getIndex();
+        this.enabled = config.isEnabled();
+        this.maxMovies = config.getMaxDocuments();
+        this.foldTraditional = peliplatProperties.getSearch().isFoldTraditionalChinese();
+    }
+
+    @Override
+    public void onMovies(List<MovieDetailVo> fetched, String language, MovieSource source) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, MovieDetailVo> known = movies.computeIfAbsent(languageKey(language), key -> new ConcurrentHashMap<>());
+        for (MovieDetailVo movie : fetched) {
+            if (movie == null || movie.getPpId() == null
+                    || !known.containsKey(movie.getPpId()) && known.size() >= maxMovies) {
+                continue;
+            }
+            known.put(movie.getPpId(), movie);
+            if (source == MovieSource.LIBRARY && movie.getPopularity() != null
+                    && (knownPopularity.containsKey(movie.getPpId()) || knownPopularity.size() < maxMovies)) {
+                knownPopularity.put(movie.getPpId(), movie.getPopularity());
+            }
+            addCredits(movie.getPpId(), movie.getDirectors(), Role.DIRECTOR);
+            addCredits(movie.getPpId(), movie.getActors(), Role.ACTOR);
+        }
+    }
+
+    /**
+     * 查询人员参与的电影
+     *
+     * @param person   pcId或姓名（任一语言）
+     * @param role     只返回该职务的作品，null表示不限
+     * @param language 语言，优先返回该语言下获取的电影信息，没有时使用其他语言的
+     * @param limit    最多返回条数
+     * @return 按库列表热度降序的电影列表响应对象；索引中没有该人员时返回null
+     */
+    public MovieListResponseVo filmography(String person, Role role, String language, int limit) {
+        List<Person> matched = enabled ? resolve(person) : List.of();
+        if (matched.isEmpty()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        Set<String> ppIds = new LinkedHashSet<>();
+        for (Person candidate : matched) {
+            candidate.credits.forEach((ppId, roles) -> {
+                if (role == null || (roles & role.mask) != 0) {
+                    ppIds.add(ppId);
+                }
+            });
+        }
+        Map<String, MovieDetailVo> preferred = movies.getOrDefault(languageKey(language), Map.of());
+        List<MovieDetailVo> found = new ArrayList<>(ppIds.size());
+        for (String ppId : ppIds) {
+            MovieDetailVo movie = preferred.get(ppId);
+            if (movie == null) {
+                movie = anyLanguage(ppId);
+            }
+            if (movie != null) {
+                found.add(movie);
+            }
+        }
+        found.sort(Comparator
+                .comparingDouble((MovieDetailVo movie) -> -knownPopularity.getOrDefault(movie.getPpId(), 0.0))
+                .thenComparingInt(movie -> movie.getPublicationYear() != null ? -movie.getPublicationYear() : 0));
+        List<MovieDetailVo> result = found.subList(0, Math.min(Math.max(0, limit), found.size()));
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setResult(new ArrayList<>(result));
+        responseVo.setCount(result.size());
+        responseVo.setTotalCount(found.size());
+        responseVo.setTotalPage(1);
+        return responseVo;
+    }
+
+    /**
+     * 按pcId或姓名查找人员概况
+     */
+    public List<PersonSummary> find(String person) {
+        List<PersonSummary> summaries = new ArrayList<>();
+        for (Person candidate : enabled ? resolve(person) : List.<Person>of()) {
+            int directed = 0;
+            int acted = 0;
+            for (int roles : candidate.credits.values()) {
+                directed += (roles & Role.DIRECTOR.mask) != 0 ? 1 : 0;
+                acted += (roles & Role.ACTOR.mask) != 0 ? 1 : 0;
+            }
+            summaries.add(new PersonSummary(candidate.pcId, candidate.name, candidate.photoUrl, directed, acted));
+        }
+        return summaries;
+    }
+
+    /**
+     * 索引中的人员数
+     */
+    public int size() {
+        return persons.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.index.persons", this, PersonIndex::size)
+                .description("人员作品索引中的人员数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.person.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("在本地找到该人员的作品查询次数")
+                .register(registry);
+        FunctionCounter.builder("peliplat.index.person.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("本地没有该人员的作品查询次数")
+                .register(registry);
+    }
+
+    private void addCredits(String ppId, List<PersonVo> credits, Role role) {
+        if (credits == null) {
+            return;
+        }
+        for (PersonVo credit : credits) {
+            if (credit == null) {
+                continue;
+            }
+            String name = QueryNormalizer.normalize(credit.getName(), foldTraditional);
+            boolean hasPcId = credit.getPcId() != null && !credit.getPcId().isBlank();
+            if (!hasPcId && name.isEmpty()) {
+                continue;
+            }
+            String key = hasPcId ? credit.getPcId() : "name:" + name;
+            Person person = persons.computeIfAbsent(key, k -> new Person(hasPcId ? credit.getPcId() : null));
+            person.update(credit);
+            person.credits.merge(ppId, role.mask, (previous, current) -> previous | current);
+            if (!name.isEmpty()) {
+                names.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    private List<Person> resolve(String person) {
+        if (person == null || person.isBlank()) {
+            return List.of();
+        }
+        Person byPcId = persons.get(person.trim());
+        if (byPcId != null) {
+            return List.of(byPcId);
+        }
+        List<Person> matched = new ArrayList<>();
+        for (String key : names.getOrDefault(QueryNormalizer.normalize(person, foldTraditional), Set.of())) {
+            Person candidate = persons.get(key);
+            if (candidate != null) {
+                matched.add(candidate);
+            }
+        }
+        return matched;
+    }
+
+    private MovieDetailVo anyLanguage(String ppId) {
+        for (Map<String, MovieDetailVo> known : movies.values()) {
+            MovieDetailVo movie = known.get(ppId);
+            if (movie != null) {
+                return movie;
+            }
+        }
+        return null;
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 人员概况
+     *
+     * @param pcId     人员ID，上游没有提供时为null
+     * @param name     最近一次获取到的姓名
+     * @param photoUrl 照片地址
+     * @param directed 索引中导演的电影数
+     * @param acted    索引中出演的电影数
+     */
+    public record PersonSummary(String pcId, String name, String photoUrl, int directed, int acted) {
+    }
+
+    /**
+     * 索引中的一位人员，credits为ppId -> 职务位掩码
+     */
+    private static final class Person {
+        private final String pcId;
+        private final Map<String, Integer> credits = new ConcurrentHashMap<>();
+        private volatile String name;
+        private volatile String photoUrl;
+
+        Person(String pcId) {
+            this.pcId = pcId;
+        }
+
+        void update(PersonVo credit) {
+            if (credit.getName() != null) {
+                name = credit.getName();
+            }
+            if (credit.getPhotoUrl() != null) {
+                photoUrl = credit.getPhotoUrl();
+            }
+        }
+    }
+}
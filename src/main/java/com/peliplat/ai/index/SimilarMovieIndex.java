@@ -0,0 +1,315 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.util.QueryNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相似电影（"更多类似"）索引
+ * 每部获取过的电影按剧情关键词、类型和简介生成TF-IDF向量（次线性词频，类型和关键词整体另作为一个词并加权），
+ * 查询时取目标电影权重最高的若干词，经倒排表累加出候选，再对前若干个候选计算完整的余弦相似度。
+ * IDF在查询时按当前文档频率计算，新电影加入后无需重建
+ */
+@Component
+public class SimilarMovieIndex implements FetchedMoviesListener, MeterBinder {
+
+    private static final float KEYWORD_WEIGHT = 3;
+    private static final float GENRE_WEIGHT = 3;
+    private static final float SUMMARY_WEIGHT = 1;
+    // 只取目标电影权重最高的这么多个词生成候选
+    private static final int QUERY_TERMS = 32;
+    // 出现在超过这一比例（且多于RESCORE_CANDIDATES部）电影中的词不用于生成候选，仍参与余弦计算
+    private static final double MAX_CANDIDATE_DF = 0.25;
+    // 参与完整余弦计算的候选数
+    private static final int RESCORE_CANDIDATES = 200;
+    // 简介中超过这一长度的中日韩整段不作为词，只保留其二元词
+    private static final int MAX_CJK_WORD = 4;
+
+    private final boolean enabled;
+    private final int maxDocuments;
+    private final boolean foldTraditional;
+    private final Map<String, LanguageVectors> languages = new ConcurrentHashMap<>();
+
+    public SimilarMovieIndex(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Index config = peliplatProperties.getIndex();
+        this.enabled = config.isEnabled();
+        this.maxDocuments = config.getMaxDocuments();
+        this.foldTraditional = peliplatProperties.getSearch().isFoldTraditionalChinese();
+    }
+
+    @Override
+    public void onMovies(List<MovieDetailVo> movies, String language, MovieSource source) {
+        if (!enabled) {
+            return;
+        }
+        LanguageVectors vectors = languages.computeIfAbsent(languageKey(language), key -> new LanguageVectors());
+        for (MovieDetailVo movie : movies) {
+            if (movie != null && movie.getPpId() != null) {
+                Map<String, Float> terms = terms(movie);
+                if (!terms.isEmpty()) {
+                    vectors.add(movie, terms);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找与指定电影相似的电影
+     *
+     * @param movie    ppId或片名
+     * @param language 语言，该语言下没有这部电影时使用其他语言的向量
+     * @param limit    最多返回条数
+     * @return 按相似度降序的电影列表响应对象（不含目标电影本身）；索引中没有这部电影时返回null
+     */
+    public MovieListResponseVo similar(String movie, String language, int limit) {
+        if (!enabled || movie == null || movie.isBlank()) {
+            return null;
+        }
+        String key = movie.trim();
+        String title = QueryNormalizer.normalize(key, foldTraditional);
+        LanguageVectors vectors = languages.get(languageKey(language));
+        String ppId = vectors != null ? vectors.resolve(key, title) : null;
+        if (ppId == null) {
+            for (LanguageVectors other : languages.values()) {
+                ppId = other.resolve(key, title);
+                if (ppId != null) {
+                    vectors = other;
+                    break;
+                }
+            }
+        }
+        if (ppId == null) {
+            return null;
+        }
+        List<MovieDetailVo> movies = vectors.similar(ppId, Math.max(0, limit));
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setResult(movies);
+        responseVo.setCount(movies.size());
+        responseVo.setTotalCount(movies.size());
+        responseVo.setTotalPage(1);
+        return responseVo;
+    }
+
+    /**
+     * 已建立向量的电影数（所有语言合计）
+     */
+    public int size() {
+        int size = 0;
+        for (LanguageVectors vectors : languages.values()) {
+            size += vectors.docs.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.index.similar.documents", this, SimilarMovieIndex::size)
+                .description("相似电影索引中的电影数")
+                .register(registry);
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单一语言的向量和倒排表
+     */
+    private final class LanguageVectors {
+
+        private final Map<String, Doc> docs = new ConcurrentHashMap<>();
+        // 词 -> (ppId -> 词频权重)
+        private final Map<String, Map<String, Float>> postings = new ConcurrentHashMap<>();
+        // 归一化片名/原名 -> ppId
+        private final Map<String, String> titles = new ConcurrentHashMap<>();
+
+        void add(MovieDetailVo movie, Map<String, Float> terms) {
+            String ppId = movie.getPpId();
+            if (!docs.containsKey(ppId) && docs.size() >= maxDocuments) {
+                return;
+            }
+            docs.compute(ppId, (id, previous) -> {
+                if (previous != null) {
+                    for (String term : previous.terms().keySet()) {
+                        if (!terms.containsKey(term)) {
+                            postings.computeIfPresent(term, (t, ids) -> ids.remove(id) != null && ids.isEmpty() ? null : ids);
+                        }
+                    }
+                }
+                terms.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, tf));
+                return new Doc(movie, terms);
+            });
+            for (String title : new String[]{movie.getTitle(), movie.getOriginalTitle()}) {
+                String key = QueryNormalizer.normalize(title, foldTraditional);
+                if (!key.isEmpty()) {
+                    titles.putIfAbsent(key, ppId);
+                }
+            }
+        }
+
+        String resolve(String ppId, String normalizedTitle) {
+            return docs.containsKey(ppId) ? ppId : titles.get(normalizedTitle);
+        }
+
+        List<MovieDetailVo> similar(String ppId, int limit) {
+            Doc target = docs.get(ppId);
+            if (target == null || limit == 0) {
+                return new ArrayList<>();
+            }
+            int total = docs.size();
+            Map<String, Double> query = weights(target.terms(), total);
+            double queryNorm = norm(query);
+            // 第一步：用目标电影中较少见、权重较高的词从倒排表累加部分点积
+            List<Map.Entry<String, Double>> queryTerms = new ArrayList<>(query.entrySet());
+            queryTerms.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+            Map<String, Double> partial = new HashMap<>();
+            int used = 0;
+            for (Map.Entry<String, Double> term : queryTerms) {
+                Map<String, Float> posting = postings.getOrDefault(term.getKey(), Map.of());
+                // 只出现在目标电影中的词带不来候选；太常见的词候选过多，交给第二步计算
+                if (posting.size() <= 1 || posting.size() > Math.max(RESCORE_CANDIDATES, total * MAX_CANDIDATE_DF)) {
+                    continue;
+                }
+                double idf = idf(posting.size(), total);
+                posting.forEach((id, tf) -> partial.merge(id, term.getValue() * tf(tf) * idf, Double::sum));
+                if (++used >= QUERY_TERMS) {
+                    break;
+                }
+            }
+            partial.remove(ppId);
+            // 第二步：对部分点积最高的候选计算完整余弦相似度
+            List<Map.Entry<String, Double>> candidates = topEntries(partial, RESCORE_CANDIDATES);
+            Map<String, Double> cosine = new HashMap<>();
+            for (Map.Entry<String, Double> candidate : candidates) {
+                Doc doc = docs.get(candidate.getKey());
+                if (doc == null) {
+                    continue;
+                }
+                Map<String, Double> vector = weights(doc.terms(), total);
+                double dot = 0;
+                for (Map.Entry<String, Double> weight : vector.entrySet()) {
+                    dot += weight.getValue() * query.getOrDefault(weight.getKey(), 0.0);
+                }
+                double denominator = queryNorm * norm(vector);
+                if (denominator > 0 && dot > 0) {
+                    cosine.put(candidate.getKey(), dot / denominator);
+                }
+            }
+            List<MovieDetailVo> movies = new ArrayList<>();
+            for (Map.Entry<String, Double> entry : topEntries(cosine, limit)) {
+                Doc doc = docs.get(entry.getKey());
+                if (doc != null) {
+                    movies.add(doc.movie());
+                }
+            }
+            return movies;
+        }
+
+        private Map<String, Double> weights(Map<String, Float> terms, int total) {
+            Map<String, Double> weights = new HashMap<>(terms.size() * 2);
+            terms.forEach((term, tf) -> weights.put(term,
+                    tf(tf) * idf(postings.getOrDefault(term, Map.of()).size(), total)));
+            return weights;
+        }
+    }
+
+    /**
+     * 次线性词频
+     */
+    private static double tf(float tf) {
+        return 1 + Math.log(tf);
+    }
+
+    private static double idf(int df, int total) {
+        return Math.log(1 + (double) total / Math.max(1, df));
+    }
+
+    private static double norm(Map<String, Double> vector) {
+        double sum = 0;
+        for (double weight : vector.values()) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * 按值取最大的k项，值相同时按键排序以保证结果稳定
+     */
+    private static List<Map.Entry<String, Double>> topEntries(Map<String, Double> scores, int k) {
+        Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue()
+                .thenComparing(Map.Entry.<String, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(Math.max(1, k), order);
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (k > 0 && order.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Map.Entry<String, Double>> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    private Map<String, Float> terms(MovieDetailVo movie) {
+        Map<String, Float> terms = new HashMap<>();
+        if (movie.getPlotKeywords() != null) {
+            for (String keyword : movie.getPlotKeywords()) {
+                addWhole(terms, "k:", keyword, KEYWORD_WEIGHT);
+                addTokens(terms, keyword, KEYWORD_WEIGHT, false);
+            }
+        }
+        if (movie.getGenres() != null) {
+            for (String genre : movie.getGenres().split(",")) {
+                addWhole(terms, "g:", genre, GENRE_WEIGHT);
+            }
+        }
+        addTokens(terms, movie.getSummary(), SUMMARY_WEIGHT, true);
+        return terms;
+    }
+
+    private void addWhole(Map<String, Float> terms, String prefix, String text, float weight) {
+        String normalized = QueryNormalizer.normalize(text, foldTraditional);
+        if (!normalized.isEmpty()) {
+            terms.merge(prefix + normalized, weight, Float::sum);
+        }
+    }
+
+    private void addTokens(Map<String, Float> terms, String text, float weight, boolean skipLongCjk) {
+        if (text == null) {
+            return;
+        }
+        for (String token : TextTokens.tokenize(text, foldTraditional)) {
+            if (skipLongCjk && token.codePointCount(0, token.length()) > MAX_CJK_WORD
+                    && TextTokens.isCjk(token.codePointAt(0))) {
+                continue;
+            }
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    /**
+     * 索引中的一部电影
+     *
+     * @param movie 电影实体
+     * @param terms 词 -> 词频权重，更新时用于移除旧词
+     */
+    private record Doc(MovieDetailVo movie, Map<String, Float> terms) {
+    }
+}
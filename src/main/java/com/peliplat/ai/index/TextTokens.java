@@ -0,0 +1,61 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.util.QueryNormalizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地索引分词
+ * 文本先经QueryNormalizer归一化再按空白切分；中日韩文字没有空白分词，
+ * 连续的中日韩文字除整体作为一个词外，再拆出相邻两字的二元词，使"千寻"也能命中"千与千寻"
+ */
+final class TextTokens {
+
+    private TextTokens() {
+    }
+
+    /**
+     * 对已归一化的文本分词
+     */
+    static List<String> tokenizeNormalized(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            tokens.add(word);
+            if (word.codePointCount(0, word.length()) > 2 && isCjk(word.codePointAt(0))) {
+                addBigrams(word, tokens);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 归一化后分词
+     */
+    static List<String> tokenize(String text, boolean foldTraditional) {
+        return tokenizeNormalized(QueryNormalizer.normalize(text, foldTraditional));
+    }
+
+    private static void addBigrams(String word, List<String> tokens) {
+        int[] codePoints = word.codePoints().toArray();
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            if (isCjk(codePoints[i]) && isCjk(codePoints[i + 1])) {
+                tokens.add(new String(codePoints, i, 2));
+            }
+        }
+    }
+
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,296 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.util.QueryNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 片名输入提示
+ * 每种语言获取过的片名和原名（归一化后）放在一棵压缩前缀树（radix tree）中，
+ * 每个节点保存其下热度最高的MAX_SUGGESTIONS部电影，查询只需沿前缀走到对应节点，与树的大小无关。
+ * 新电影随获取结果逐条插入，不需要整体重建；同一电影再次获取时更新其热度。
+ * 热度只取自库列表，关键词搜索结果中的热度是占位值，按未知处理并沿用该电影已知的热度
+ */
+@Component
+public class TitleSuggester implements FetchedMoviesListener, MeterBinder {
+
+    /**
+     * 单次最多返回的提示数（也是每个节点保存的条数）
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final boolean enabled;
+    private final int maxTitles;
+    private final boolean foldTraditional;
+    private final Map<String, LanguageTrie> languages = new ConcurrentHashMap<>();
+
+    public TitleSuggester(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Index config = peliplatProperties.getIndex();
+        this.enabled = config.isEnabled();
+        this.maxTitles = config.getMaxDocuments();
+        this.foldTraditional = peliplatProperties.getSearch().isFoldTraditionalChinese();
+    }
+
+    @Override
+    public void onMovies(List<MovieDetailVo> movies, String language, MovieSource source) {
+        if (!enabled) {
+            return;
+        }
+        LanguageTrie trie = languages.computeIfAbsent(languageKey(language), key -> new LanguageTrie());
+        trie.lock.writeLock().lock();
+        try {
+            for (MovieDetailVo movie : movies) {
+                if (movie == null || movie.getPpId() == null) {
+                    continue;
+                }
+                double popularity = trie.popularity(movie, source);
+                for (String title : new String[]{movie.getTitle(), movie.getOriginalTitle()}) {
+                    String key = QueryNormalizer.normalize(title, foldTraditional);
+                    if (!key.isEmpty()) {
+                        trie.insert(key, new TitleSuggestion(movie.getPpId(), title, movie.getOriginalTitle(),
+                                movie.getPublicationYear(), movie.getPhotoUrl(), popularity));
+                    }
+                }
+            }
+        } finally {
+            trie.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按前缀返回热度最高的片名
+     *
+     * @param prefix   已输入的片名前缀
+     * @param language 语言
+     * @param limit    最多返回条数，不超过MAX_SUGGESTIONS
+     * @return 按热度降序的提示，同一电影只出现一次
+     */
+    public List<TitleSuggestion> suggest(String prefix, String language, int limit) {
+        String key = QueryNormalizer.normalize(prefix, foldTraditional);
+        LanguageTrie trie = languages.get(languageKey(language));
+        if (!enabled || trie == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+            // 归一化会去掉末尾空白，但输入中的空格表示上一个词已经输完
+            key += " ";
+        }
+        trie.lock.readLock().lock();
+        try {
+            Node node = trie.find(key);
+            if (node == null) {
+                return List.of();
+            }
+            return List.of(Arrays.copyOf(node.top, Math.min(limit, node.size)));
+        } finally {
+            trie.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 树中的片名数（所有语言合计）
+     */
+    public int size() {
+        int size = 0;
+        for (LanguageTrie trie : languages.values()) {
+            trie.lock.readLock().lock();
+            try {
+                size += trie.titleCount;
+            } finally {
+                trie.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("peliplat.index.suggest.titles", this, TitleSuggester::size)
+                .description("输入提示前缀树中的片名数")
+                .register(registry);
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单一语言的前缀树，读写都在其读写锁内进行
+     */
+    private final class LanguageTrie {
+
+        private final Node root = new Node("");
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // ppId -> 库列表给出的热度
+        private final Map<String, Double> knownPopularity = new HashMap<>();
+        private int titleCount;
+
+        /**
+         * 排序用的热度：库列表的热度记下并使用，其他来源沿用已知热度，未知时为0
+         */
+        double popularity(MovieDetailVo movie, MovieSource source) {
+            if (source == MovieSource.LIBRARY && movie.getPopularity() != null) {
+                if (knownPopularity.size() < maxTitles || knownPopularity.containsKey(movie.getPpId())) {
+                    knownPopularity.put(movie.getPpId(), movie.getPopularity());
+                }
+                return movie.getPopularity();
+            }
+            return knownPopularity.getOrDefault(movie.getPpId(), 0.0);
+        }
+
+        /**
+         * 前缀所在的节点（前缀可以在边的中间结束），不存在时返回null
+         */
+        Node find(String key) {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    return null;
+                }
+                String label = child.label;
+                int remaining = key.length() - i;
+                if (remaining <= label.length()) {
+                    // 前缀在这条边的中间结束
+                    return label.startsWith(key.substring(i)) ? child : null;
+                }
+                if (!key.startsWith(label, i)) {
+                    return null;
+                }
+                i += label.length();
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * 树中是否已有这个片名
+         */
+        boolean contains(String key) {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null || !key.startsWith(child.label, i)) {
+                    return false;
+                }
+                i += child.label.length();
+                node = child;
+            }
+            return node.terminal;
+        }
+
+        /**
+         * 插入片名；片名数已达上限且是新片名时不做任何修改，避免路径上的节点提示指向树中不存在的片名
+         */
+        void insert(String key, TitleSuggestion suggestion) {
+            if (titleCount >= maxTitles && !contains(key)) {
+                return;
+            }
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    child.terminal = true;
+                    titleCount++;
+                    node.children.put(key.charAt(i), child);
+                    child.offer(suggestion);
+                    return;
+                }
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                child.offer(suggestion);
+                i += common;
+                node = child;
+            }
+            if (!node.terminal) {
+                node.terminal = true;
+                titleCount++;
+            }
+        }
+    }
+
+    /**
+     * 在边的第at个字符处拆分，返回新的中间节点
+     */
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        // 中间节点之下的片名就是原子节点之下的片名
+        System.arraycopy(child.top, 0, middle.top, 0, child.size);
+        middle.size = child.size;
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 前缀树节点，label为从父节点到本节点的边上的字符串
+     */
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final TitleSuggestion[] top = new TitleSuggestion[MAX_SUGGESTIONS];
+        private int size;
+        private boolean terminal;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * 把电影加入本节点的热度前MAX_SUGGESTIONS名；同一电影已存在时替换为新值
+         */
+        void offer(TitleSuggestion suggestion) {
+            int existing = -1;
+            for (int i = 0; i < size; i++) {
+                if (top[i].ppId().equals(suggestion.ppId())) {
+                    existing = i;
+                    break;
+                }
+            }
+            if (existing >= 0) {
+                System.arraycopy(top, existing + 1, top, existing, size - existing - 1);
+                size--;
+            } else if (size == MAX_SUGGESTIONS && suggestion.popularity() <= top[size - 1].popularity()) {
+                return;
+            }
+            int position = size < MAX_SUGGESTIONS ? size : MAX_SUGGESTIONS - 1;
+            while (position > 0 && top[position - 1].popularity() < suggestion.popularity()) {
+                if (position < MAX_SUGGESTIONS) {
+                    top[position] = top[position - 1];
+                }
+                position--;
+            }
+            top[position] = suggestion;
+            size = Math.min(size + 1, MAX_SUGGESTIONS);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.peliplat.ai.index;
+
+/**
+ * 片名输入提示
+ *
+ * @param ppId            电影ID
+ * @param title           匹配到的片名（片名或原名）
+ * @param originalTitle   原名
+ * @param publicationYear 上映年份
+ * @param photoUrl        海报地址
+ * @param popularity      热度，未知时为0
+ */
+public record TitleSuggestion(String ppId, String title, String originalTitle, Integer publicationYear,
+                              String photoUrl, double popularity) {
+}
@@ -10,6 +10,7 @@ public class MovieDetailVo {
     private String mmId;
     private String ppId;
     private String title;
+    private String originalTitle;
     private String photoUrl;
     private Integer publicationYear;
     private String rating;
@@ -71,6 +72,14 @@ public class MovieDetailVo {
         this.title = title;
     }
 
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    public void setOriginalTitle(String originalTitle) {
+        this.originalTitle = originalTitle;
+    }
+
     public String getPhotoUrl() {
         return photoUrl;
     }
@@ -1,8 +1,11 @@
 package com.peliplat.ai.movie;
 
+import com.peliplat.ai.index.PersonIndex;
+import com.peliplat.ai.index.SimilarMovieIndex;
 import com.peliplat.ai.model.MovieDetailVo;
 import com.peliplat.ai.model.MovieListResponseVo;
 import com.peliplat.ai.service.MovieSearchService;
+import com.peliplat.ai.util.QueryNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
@@ -12,7 +15,9 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -23,10 +28,25 @@ public class MovieTools {
 
     private static final Logger logger = LoggerFactory.getLogger(MovieTools.class);
 
+    /**
+     * 未指定条数时返回的电影数量
+     */
+    private static final int DEFAULT_LIMIT = 20;
+
     private final MovieSearchService movieSearchService;
+    private final PersonIndex personIndex;
+    private final SimilarMovieIndex similarMovieIndex;
+    private final boolean foldTraditionalChinese;
 
-    public MovieTools(@Qualifier("peliplatMovieSearchService") MovieSearchService movieSearchService) {
+    /**
+     * @param foldTraditionalChinese 去重时是否折叠繁体字，与搜索服务缓存键的peliplat.search.fold-traditional-chinese保持一致
+     */
+    public MovieTools(@Qualifier("peliplatMovieSearchService") MovieSearchService movieSearchService,
+                      PersonIndex personIndex, SimilarMovieIndex similarMovieIndex, boolean foldTraditionalChinese) {
         this.movieSearchService = movieSearchService;
+        this.personIndex = personIndex;
+        this.similarMovieIndex = similarMovieIndex;
+        this.foldTraditionalChinese = foldTraditionalChinese;
     }
 
     /**
@@ -36,7 +56,8 @@ public class MovieTools {
     @Tool(description = "根据影片名称搜索电影，查询多部电影的时候优先调用concurrentSearchMovies。如果查询包含地区信息（如'中国电影'、'韩国电影'），请相应调整language参数", returnDirect = true)
     public Response searchMovies(
             @ToolParam(description = "要搜索的电影的准确或常用标题。如果用户提供的是描述性内容，请先尝试推断出实际的电影标题") String query,
-            @ToolParam(description = "电影信息显示的语言代码：中国电影用'zh'，韩国电影用'ko'，日本电影用'ja'，英语电影用'en'，默认为'en'") String language) {
+            @ToolParam(description = "电影信息显示的语言代码：中国电影用'zh'，韩国电影用'ko'，日本电影用'ja'，英语电影用'en'，默认为'en'") String language,
+            @ToolParam(description = "返回的电影条数（可选），只需要最匹配的一部电影时传1，默认20", required = false) Integer limit) {
 
         try {
             if (!StringUtils.hasText(query)) {
@@ -44,11 +65,12 @@ public class MovieTools {
                 return new Response(new ArrayList<>());
             }
 
-            logger.info("电影搜索请求: {}, 语言: {}", query, language);
+            logger.info("电影搜索请求: {}, 语言: {}, 条数: {}", query, language, limit);
 
             String languageCode = language != null ? language : "en";
-            // 使用新的ForVo方法
-            MovieListResponseVo responseVo = movieSearchService.searchMoviesByQueryForVo(query, languageCode);
+            // 使用新的ForVo方法，只向上游请求需要的条数
+            MovieListResponseVo responseVo = movieSearchService.searchMoviesByQueryForVo(query, languageCode,
+                    resolveLimit(limit));
 
             if (responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
                 return new Response(new ArrayList<>());
@@ -78,10 +100,7 @@ public class MovieTools {
             }
 
             // 将查询字符串按逗号分割成列表
-            List<String> queryList = Arrays.stream(queries.split(","))
-                    .map(String::trim)
-                    .filter(q -> !q.isEmpty())
-                    .collect(Collectors.toList());
+            List<String> queryList = splitQueries(queries);
 
             if (queryList.isEmpty()) {
                 logger.error("Invalid request: no valid queries after parsing");
@@ -113,17 +132,19 @@ public class MovieTools {
     @Tool(description = "按年份、类型、地区搜索电影。当你需要查找特定年份、特定类型或特定地区的电影时使用此功能。对于中国/中文电影，请将language设置为'zh'，对于韩国电影设置为'ko'，日本电影设置为'ja'等", returnDirect = true)
     public Response searchMoviesByYear(
             @ToolParam(description = "电影年份（可选），例如'2024'。可以留空搜索所有年份") String year,
-            @ToolParam(description = "电影类型，查询多种类型的时候用逗号分割（可选），支持的类型有：Action, Adventure, Animation, Comedy, Crime, Documentary, Drama, Family, Fantasy, History, Horror, Music, Mystery, Romance, Thriller, War, Western, Sci-Fi, Biography, Film-Noir, Musical。革命片可以使用History,War组合") String genre,
-            @ToolParam(description = "电影信息显示的语言代码，重要：中国电影用'zh'，韩国电影用'ko'，日本电影用'ja'，英语电影用'en'。这个参数决定了搜索的电影来源地区") String language) {
+            @ToolParam(description = "电影类型，查询多种类型的时候用逗号分割（可选），支持的类型有：Action, Adventure, Animation, Comedy, Crime, Documentary, Drama, Family, Fantasy, History, Horror, Music, Mystery, Romance, Thriller, War, Western, Sci-Fi, Biography, Film-Noir, Musical。革命片可以使用History,War组合。也可以使用中文类型名（如科幻、爱情）、子类型（如Spy film、Time travel）或常见写法（如Sci-fi、romantic comedy）") String genre,
+            @ToolParam(description = "电影信息显示的语言代码，重要：中国电影用'zh'，韩国电影用'ko'，日本电影用'ja'，英语电影用'en'。这个参数决定了搜索的电影来源地区") String language,
+            @ToolParam(description = "页码（可选），从1开始，用户要求查看更多结果时传下一页，默认1", required = false) Integer page,
+            @ToolParam(description = "返回的电影条数（可选），只需要最匹配的一部电影时传1，默认20", required = false) Integer limit) {
 
         try {
 
-            logger.info("按年份搜索电影请求: 年份={}, 类型={}, 语言={}", year, genre, language);
+            logger.info("按年份搜索电影请求: 年份={}, 类型={}, 语言={}, 页码={}, 条数={}", year, genre, language, page, limit);
 
             String languageCode = language != null ? language : "en";
-            // 使用新的ForVo方法
+            // 使用新的ForVo方法，后续几页会在后台预取
             MovieListResponseVo responseVo = movieSearchService.searchMoviesByYearAndGenreForVo(year, genre,
-                    languageCode);
+                    languageCode, page != null && page > 0 ? page : 1, resolveLimit(limit));
 
             if (responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
                 return new Response(new ArrayList<>());
@@ -143,14 +164,16 @@ public class MovieTools {
      */
     @Tool(description = "获取本周热门电影。当你需要了解当前流行或热门的电影时使用此功能。支持的电影类型参考按年份搜索功能。", returnDirect = true)
     public Response getPopularMovies(
-            @ToolParam(description = "电影信息显示的语言代码，默认为'en'英语") String language) {
+            @ToolParam(description = "电影信息显示的语言代码，默认为'en'英语") String language,
+            @ToolParam(description = "返回的热门电影条数（可选），默认20", required = false) Integer limit) {
 
         try {
-            logger.info("获取本周热门电影请求，语言: {}", language);
+            logger.info("获取本周热门电影请求，语言: {}, 条数: {}", language, limit);
 
             String languageCode = language != null ? language : "en";
             // 使用新的ForVo方法
-            MovieListResponseVo responseVo = movieSearchService.getPopularMoviesThisWeekForVo(languageCode);
+            MovieListResponseVo responseVo = movieSearchService.getPopularMoviesThisWeekForVo(languageCode,
+                    resolveLimit(limit));
 
             if (responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
                 return new Response(new ArrayList<>());
@@ -171,15 +194,17 @@ public class MovieTools {
     @Tool(description = "按地区和类型搜索电影。当用户询问特定地区的特定类型电影时首先使用，如'中国历史革命片'、'韩国爱情片'等。如果返回的结果不是该地区的电影或结果不准确，请立即使用smartMovieSearch工具根据具体电影名称重新搜索", returnDirect = true)
     public Response searchMoviesByRegionAndGenre(
             @ToolParam(description = "地区/国家，影响搜索的电影来源：中国用'zh'，韩国用'ko'，日本用'ja'，美国/英语地区用'en'等") String region,
-            @ToolParam(description = "电影类型，支持的类型有：Action, Adventure, Animation, Comedy, Crime, Documentary, Drama, Family, Fantasy, History, Horror, Music, Mystery, Romance, Thriller, War, Western, Sci-Fi, Biography, Film-Noir, Musical。革命片可以使用History,War组合") String genre,
-            @ToolParam(description = "电影年份（可选），例如'2024'。可以留空搜索所有年份") String year) {
+            @ToolParam(description = "电影类型，支持的类型有：Action, Adventure, Animation, Comedy, Crime, Documentary, Drama, Family, Fantasy, History, Horror, Music, Mystery, Romance, Thriller, War, Western, Sci-Fi, Biography, Film-Noir, Musical。革命片可以使用History,War组合。也可以使用中文类型名（如科幻、爱情）、子类型（如Spy film、Time travel）或常见写法（如Sci-fi、romantic comedy）") String genre,
+            @ToolParam(description = "电影年份（可选），例如'2024'。可以留空搜索所有年份") String year,
+            @ToolParam(description = "返回的电影条数（可选），只需要最匹配的一部电影时传1，默认20", required = false) Integer limit) {
 
         try {
-            logger.info("按地区和类型搜索电影请求: 地区={}, 类型={}, 年份={}", region, genre, year);
+            logger.info("按地区和类型搜索电影请求: 地区={}, 类型={}, 年份={}, 条数={}", region, genre, year, limit);
 
             String languageCode = region != null ? region : "en";
             // 使用按年份搜索的方法，但重点是地区和类型
-            MovieListResponseVo responseVo = movieSearchService.searchMoviesByYearAndGenreForVo(year, genre, languageCode);
+            MovieListResponseVo responseVo = movieSearchService.searchMoviesByYearAndGenreForVo(year, genre, languageCode,
+                    resolveLimit(limit));
 
             if (responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
                 return new Response(new ArrayList<>());
@@ -213,10 +238,7 @@ public class MovieTools {
             String languageCode = language != null ? language : "en";
             
             // 将电影名称分割成列表
-            List<String> movieList = Arrays.stream(movieNames.split(","))
-                    .map(String::trim)
-                    .filter(name -> !name.isEmpty())
-                    .collect(Collectors.toList());
+            List<String> movieList = splitQueries(movieNames);
 
             if (movieList.isEmpty()) {
                 logger.error("No valid movie names after parsing");
@@ -238,6 +260,93 @@ public class MovieTools {
         }
     }
 
+    /**
+     * 按导演或演员搜索电影
+     * 只查本地人员作品索引，不访问PeliPlat
+     */
+    @Tool(description = "按导演或演员查询其参与的电影，如'诺兰导演的电影'、'周星驰主演的电影'。只能查到之前搜索或导入过的电影，返回空列表时请推断该人员的代表作名称并调用concurrentSearchMovies", returnDirect = true)
+    public Response searchMoviesByPerson(
+            @ToolParam(description = "导演或演员的姓名，英文名或中文名均可，例如'Christopher Nolan'") String person,
+            @ToolParam(description = "职务（可选）：'director'只查导演的作品，'actor'只查出演的作品，留空不限", required = false) String role,
+            @ToolParam(description = "电影信息显示的语言代码，默认为'en'英语") String language,
+            @ToolParam(description = "返回的电影条数（可选），默认20", required = false) Integer limit) {
+
+        try {
+            if (!StringUtils.hasText(person)) {
+                logger.error("Invalid request: person is required");
+                return new Response(new ArrayList<>());
+            }
+
+            logger.info("按人员搜索电影请求: 人员={}, 职务={}, 语言={}, 条数={}", person, role, language, limit);
+
+            String languageCode = language != null ? language : "en";
+            MovieListResponseVo responseVo = personIndex.filmography(person, PersonIndex.Role.parse(role),
+                    languageCode, resolveLimit(limit));
+
+            if (responseVo == null || responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
+                return new Response(new ArrayList<>());
+            } else {
+                // 直接返回电影对象列表
+                return new Response(responseVo.getResult());
+            }
+        } catch (Exception e) {
+            logger.error("按人员搜索电影失败", e);
+            return new Response(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 查找相似电影
+     * 按剧情关键词、类型和简介在本地计算相似度，不访问PeliPlat
+     */
+    @Tool(description = "查找与某部电影相似的电影，如'类似盗梦空间的电影'、'还有哪些像这部的'。只能基于之前搜索或导入过的电影，返回空列表时请推断几部相似电影的名称并调用concurrentSearchMovies", returnDirect = true)
+    public Response searchSimilarMovies(
+            @ToolParam(description = "电影的ppId，或电影的准确片名（英文名或当前语言的片名）") String movie,
+            @ToolParam(description = "电影信息显示的语言代码，默认为'en'英语") String language,
+            @ToolParam(description = "返回的电影条数（可选），默认20", required = false) Integer limit) {
+
+        try {
+            if (!StringUtils.hasText(movie)) {
+                logger.error("Invalid request: movie is required");
+                return new Response(new ArrayList<>());
+            }
+
+            logger.info("相似电影搜索请求: 电影={}, 语言={}, 条数={}", movie, language, limit);
+
+            String languageCode = language != null ? language : "en";
+            MovieListResponseVo responseVo = similarMovieIndex.similar(movie, languageCode, resolveLimit(limit));
+
+            if (responseVo == null || responseVo.getResult() == null || responseVo.getResult().isEmpty()) {
+                return new Response(new ArrayList<>());
+            } else {
+                // 直接返回电影对象列表
+                return new Response(responseVo.getResult());
+            }
+        } catch (Exception e) {
+            logger.error("相似电影搜索失败", e);
+            return new Response(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 未指定或不合法的条数使用默认值
+     */
+    private static int resolveLimit(Integer limit) {
+        return limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+    }
+
+    /**
+     * 按逗号分割查询条件，去掉空项以及归一化后重复的项（如"Titanic, titanic"）
+     */
+    private List<String> splitQueries(String queries) {
+        Set<String> seen = new HashSet<>();
+        return Arrays.stream(queries.split("[,，]"))
+                .map(String::trim)
+                .filter(query -> !query.isEmpty())
+                .filter(query -> seen.add(QueryNormalizer.normalize(query, foldTraditionalChinese)))
+                .collect(Collectors.toList());
+    }
+
     /**
      * 电影工具响应类
      */
@@ -0,0 +1,18 @@
+package com.peliplat.ai.service;
+
+/**
+ * 库列表（listMedias）筛选条件
+ * 各字段均可为空，为空表示不按该条件筛选
+ *
+ * @param year      年份，单个年份如"2024"，或年份区间如"2000:2010"
+ * @param genre     电影类型，逗号分隔的多个类型名称，如"History,War"
+ * @param region    地区筛选值，按PeliPlat的filterRegion原样传递
+ * @param runtime   片长区间（分钟），如"90:120"
+ * @param mediaType 媒体类型，为空时为1（电影）
+ */
+public record LibraryFilter(String year, String genre, String region, String runtime, Integer mediaType) {
+
+    public LibraryFilter(String year, String genre, String region, String runtime) {
+        this(year, genre, region, runtime, null);
+    }
+}
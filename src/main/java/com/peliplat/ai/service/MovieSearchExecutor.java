@@ -0,0 +1,142 @@
+package com.peliplat.ai.service;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 电影搜索并发执行器
+ * 所有并发搜索（concurrentSearchMoviesForVo、智能体推荐搜索等）共用同一个有界线程池，
+ * 避免每次请求创建线程池导致线程数失控。
+ * 不直接注册为Executor类型的Bean，以免替换Spring Boot默认的applicationTaskExecutor
+ */
+@Component
+public class MovieSearchExecutor implements MeterBinder, DisposableBean {
+
+    private static final String METRIC_PREFIX = "peliplat.search.fanout";
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private Counter rejectedCounter;
+
+    public MovieSearchExecutor(PeliplatProperties peliplatProperties) {
+        PeliplatProperties.Executor config = peliplatProperties.getExecutor();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("movie-search-");
+        executor.setCorePoolSize(config.getPoolSize());
+        executor.setMaxPoolSize(config.getPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setKeepAliveSeconds(config.getKeepAliveSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        // 线程数与队列均已满时拒绝任务，由调用方按无结果处理
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new RejectedExecutionException("Movie search executor saturated");
+        });
+        // 应用关闭时等待在途任务结束，超时后强制中断
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(config.getAwaitTerminationSeconds());
+        executor.initialize();
+    }
+
+    /**
+     * 在共享线程池中异步执行任务；线程池饱和时返回异常完成的Future。
+     * 返回的Future被cancel(true)时会中断正在执行任务的线程，及时释放线程池容量
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        InterruptibleFuture<T> result = new InterruptibleFuture<>();
+        try {
+            result.bind(executor.submit(() -> {
+                if (result.isDone()) {
+                    return; // 开始执行前已被取消
+                }
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * 取消尚未完成的任务并中断执行中的线程，超时或异常时调用方无需继续等待。
+     * 须传入supplyAsync直接返回的Future，经thenApply、exceptionally等派生的Future取消时不会中断任务
+     */
+    public static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 底层执行器，供需要直接传入Executor的场景使用
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 暴露线程池指标（executor.active、executor.queued、executor.completed等）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("并发搜索线程池饱和时被拒绝的任务数")
+                .register(registry);
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), METRIC_PREFIX, Tags.empty())
+                .bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 取消时同时取消线程池中对应任务的CompletableFuture
+     */
+    private static final class InterruptibleFuture<T> extends CompletableFuture<T> {
+
+        private volatile Future<?> task;
+
+        private void bind(Future<?> task) {
+            this.task = task;
+            if (isCancelled()) {
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (cancelled && running != null) {
+                running.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.peliplat.ai.service;
 
 import com.peliplat.ai.model.MediaBaseVo;
+import com.peliplat.ai.model.MovieDetailVo;
 import com.peliplat.ai.model.MovieListResponseVo;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
@@ -30,6 +32,16 @@ public interface MovieSearchService {
      */
     MovieListResponseVo searchMoviesByQueryForVo(String query, String language);
 
+    /**
+     * 根据用户查询条件搜索电影，只向上游请求需要的条数（返回结构化数据）
+     * 
+     * @param query    用户查询条件
+     * @param language 语言
+     * @param limit    返回条数
+     * @return 电影列表响应对象
+     */
+    MovieListResponseVo searchMoviesByQueryForVo(String query, String language, int limit);
+
 
     /**
      * 根据年份和类型搜索电影（返回结构化数据）
@@ -41,6 +53,31 @@ public interface MovieSearchService {
      */
     MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String genre, String language);
 
+    /**
+     * 根据年份和类型搜索电影，只向上游请求需要的条数（返回结构化数据）
+     * 
+     * @param year     年份
+     * @param genre    电影类型
+     * @param language 语言
+     * @param limit    返回条数
+     * @return 电影列表响应对象
+     */
+    MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String genre, String language, int limit);
+
+    /**
+     * 根据年份和类型分页搜索电影（返回结构化数据）
+     * 返回当前页后在后台并发预取后续几页到缓存，翻页时无需再等待上游
+     * 
+     * @param year     年份
+     * @param genre    电影类型
+     * @param language 语言
+     * @param page     页码，从1开始
+     * @param limit    每页条数
+     * @return 电影列表响应对象
+     */
+    MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String genre, String language, int page,
+                                                        int limit);
+
 
     /**
      * 获取本周热门电影（返回结构化数据）
@@ -50,6 +87,25 @@ public interface MovieSearchService {
      */
     MovieListResponseVo getPopularMoviesThisWeekForVo(String language);
 
+    /**
+     * 获取本周热门电影，只返回需要的条数（返回结构化数据）
+     * 
+     * @param language 语言
+     * @param limit    返回条数
+     * @return 热门电影列表响应对象
+     */
+    MovieListResponseVo getPopularMoviesThisWeekForVo(String language, int limit);
+
+    /**
+     * 按筛选条件遍历整个库列表，逐部发出电影
+     * 惰性求值：订阅后才开始翻页，按下游需求继续，预读页数有上限
+     * 
+     * @param filter   筛选条件
+     * @param language 语言
+     * @return 按页码顺序发出的电影
+     */
+    Flux<MovieDetailVo> streamLibraryMovies(LibraryFilter filter, String language);
+
     /**
      * 并发搜索多个查询条件的电影，并合并结果
      * 
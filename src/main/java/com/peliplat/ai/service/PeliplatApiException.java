@@ -0,0 +1,16 @@
+package com.peliplat.ai.service;
+
+/**
+ * PeliPlat API调用失败异常
+ * 用于区分上游错误与正常的空结果，避免把错误结果写入缓存
+ */
+public class PeliplatApiException extends RuntimeException {
+
+    public PeliplatApiException(String message) {
+        super(message);
+    }
+
+    public PeliplatApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,112 @@
+package com.peliplat.ai.service;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 响应式电影搜索服务接口
+ * 与MovieSearchService语义一致，但不占用调用线程等待PeliPlat响应
+ */
+public interface ReactiveMovieSearchService {
+
+    /**
+     * 根据用户查询条件搜索电影
+     *
+     * @param query    用户查询条件
+     * @param language 语言
+     * @return 电影列表响应对象
+     */
+    Mono<MovieListResponseVo> searchMoviesByQuery(String query, String language);
+
+    /**
+     * 根据用户查询条件搜索电影，指定返回条数
+     *
+     * @param query    用户查询条件
+     * @param language 语言
+     * @param pageSize 返回条数
+     * @return 电影列表响应对象
+     */
+    Mono<MovieListResponseVo> searchMoviesByQuery(String query, String language, int pageSize);
+
+    /**
+     * 根据年份和类型搜索电影
+     *
+     * @param year     年份
+     * @param genre    电影类型
+     * @param language 语言
+     * @return 电影列表响应对象
+     */
+    Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language);
+
+    /**
+     * 根据年份和类型搜索电影，指定返回条数
+     *
+     * @param year     年份
+     * @param genre    电影类型
+     * @param language 语言
+     * @param pageSize 返回条数
+     * @return 电影列表响应对象
+     */
+    Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language, int pageSize);
+
+    /**
+     * 根据年份和类型搜索电影，指定页码和每页条数
+     *
+     * @param year     年份
+     * @param genre    电影类型
+     * @param language 语言
+     * @param pageId   页码，从1开始
+     * @param pageSize 每页条数
+     * @return 电影列表响应对象
+     */
+    Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language, int pageId,
+                                                         int pageSize);
+
+    /**
+     * 获取本周热门电影
+     *
+     * @param language 语言
+     * @return 热门电影列表响应对象
+     */
+    Mono<MovieListResponseVo> getPopularMoviesThisWeek(String language);
+
+    /**
+     * 获取本周热门电影，指定返回条数
+     *
+     * @param language 语言
+     * @param pageSize 返回条数
+     * @return 热门电影列表响应对象
+     */
+    Mono<MovieListResponseVo> getPopularMoviesThisWeek(String language, int pageSize);
+
+    /**
+     * 搜索单部最匹配的电影（pageSize=1），没有结果时为空
+     *
+     * @param query    电影名称
+     * @param language 语言
+     * @return 最匹配的电影
+     */
+    Mono<MovieDetailVo> searchSingleMovie(String query, String language);
+
+    /**
+     * 并发搜索多个查询条件的电影，按查询顺序逐个发出
+     *
+     * @param queries  查询条件列表
+     * @param language 语言
+     * @return 每个查询最匹配的电影
+     */
+    Flux<MovieDetailVo> concurrentSearchMovies(List<String> queries, String language);
+
+    /**
+     * 并发搜索多个查询条件的电影，并合并结果
+     *
+     * @param queries  查询条件列表
+     * @param language 语言
+     * @return 合并后的电影列表响应对象
+     */
+    Mono<MovieListResponseVo> concurrentSearchMoviesForVo(List<String> queries, String language);
+}
@@ -0,0 +1,234 @@
+package com.peliplat.ai.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.PersonVo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * detailSearch响应的流式解码器
+ * 逐个读取JSON token，直接生成最终返回的MovieDetailVo列表，
+ * 不再构建SearchResultVo/MediaDetailVo中间对象，backdrops、newBackdrops、highLight等不返回的字段直接跳过。
+ * 字段映射与PeliplatApiSupport.convertMediaDetailToMovie保持一致
+ */
+final class DetailSearchDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private DetailSearchDecoder() {
+    }
+
+    /**
+     * 解码响应体，响应体为空或不是JSON对象时返回null
+     */
+    static MovieListResponseVo decode(byte[] body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * 解码响应流，响应体为空或不是JSON对象时返回null
+     */
+    static MovieListResponseVo decode(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    private static MovieListResponseVo decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        List<MovieDetailVo> movies = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                readResult(parser, movies);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setResult(movies);
+        responseVo.setCount(movies.size());
+        responseVo.setTotalCount(movies.size());
+        responseVo.setTotalPage(1);
+        return responseVo;
+    }
+
+    private static void readResult(JsonParser parser, List<MovieDetailVo> movies) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("list".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    MovieDetailVo movie = readItem(parser);
+                    if (movie != null) {
+                        movies.add(movie);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 读取列表项，没有details时返回null
+     */
+    private static MovieDetailVo readItem(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        MovieDetailVo movie = null;
+        String relateType = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("details".equals(field) && value == JsonToken.START_OBJECT) {
+                movie = readDetails(parser);
+            } else if ("relateType".equals(field)) {
+                relateType = readString(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (movie != null) {
+            movie.setRelateType(relateType);
+        }
+        return movie;
+    }
+
+    private static MovieDetailVo readDetails(JsonParser parser) throws IOException {
+        MovieDetailVo movie = PeliplatApiSupport.newMovieDetail();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "mediaId" -> movie.setMediaId(readLong(parser));
+                case "ppId" -> {
+                    String ppId = readString(parser);
+                    movie.setPpId(ppId);
+                    movie.setMmId(ppId); // 使用相同的ppId
+                }
+                case "title" -> movie.setTitle(readString(parser));
+                case "originalTitle" -> movie.setOriginalTitle(readString(parser));
+                case "poster" -> movie.setPhotoUrl(readString(parser));
+                case "publicYear" -> movie.setPublicationYear(readInteger(parser));
+                case "rating" -> movie.setRating(readString(parser));
+                case "mediaType" -> movie.setMediaType(readInteger(parser));
+                case "watchStatus" -> movie.setWatchStatus(readInteger(parser));
+                case "watchListStatus" -> movie.setWatchListStatus(readInteger(parser));
+                case "certificate" -> movie.setCertificate(readString(parser));
+                case "runTime" -> movie.setRunTime(readInteger(parser));
+                case "genres" -> movie.setGenres(readString(parser));
+                case "geners" -> movie.setGeners(readString(parser));
+                case "releaseDate" -> movie.setReleaseDate(readString(parser));
+                case "plot" -> movie.setSummary(readString(parser));
+                case "plotKeywords" -> movie.setPlotKeywords(readStringList(parser));
+                case "languages" -> movie.setLanguageCodes(readString(parser));
+                case "directors" -> movie.setDirectors(readPersons(parser));
+                case "actors" -> movie.setActors(readPersons(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return movie;
+    }
+
+    private static List<PersonVo> readPersons(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<PersonVo> persons = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                persons.add(null);
+                continue;
+            }
+            PersonVo person = new PersonVo();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "personId" -> person.setPersonId(readLong(parser));
+                    case "pcId" -> person.setPcId(readString(parser));
+                    case "name" -> person.setName(readString(parser));
+                    case "photoUrl" -> person.setPhotoUrl(readString(parser));
+                    case "role" -> person.setRole(readString(parser));
+                    case "biography" -> person.setBiography(readString(parser));
+                    case "job" -> person.setJob(readString(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    private static List<String> readStringList(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(parser));
+        }
+        return values;
+    }
+
+    /**
+     * 读取字符串，数字和布尔值按文本读取（与Jackson默认的类型转换一致）
+     */
+    private static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getValueAsLong();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            return text.isEmpty() ? null : Long.valueOf(text);
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Integer readInteger(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getValueAsInt();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            return text.isEmpty() ? null : Integer.valueOf(text);
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
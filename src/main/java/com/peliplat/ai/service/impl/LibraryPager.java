@@ -0,0 +1,67 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 库列表深度翻页
+ * 把按页码获取的库列表展开为逐部电影的惰性Flux：订阅后才开始请求，
+ * 下游没有需求时不会继续翻页，同时在途或已缓冲的页数不超过readAhead，内存占用与总页数无关。
+ * 遇到不满一页的结果、第一页给出的totalPage或maxPages时结束
+ */
+final class LibraryPager {
+
+    private LibraryPager() {
+    }
+
+    /**
+     * 逐页遍历库列表
+     *
+     * @param fetchPage 按页码（从1开始）获取一页结果，上游失败时发出错误
+     * @param pageSize  每页条数
+     * @param readAhead 最多预读的页数（含正在请求的页）
+     * @param maxPages  最多遍历的页数
+     * @return 按页码顺序逐部发出的电影
+     */
+    static Flux<MovieDetailVo> stream(IntFunction<Mono<MovieListResponseVo>> fetchPage, int pageSize,
+                                      int readAhead, int maxPages) {
+        return Mono.defer(() -> fetchPage.apply(1))
+                .flatMapMany(first -> {
+                    List<MovieDetailVo> firstMovies = moviesOf(first);
+                    int lastPage = lastPage(first, firstMovies.size(), pageSize, maxPages);
+                    if (lastPage <= 1) {
+                        return Flux.just(firstMovies);
+                    }
+                    // flatMapSequential按页码顺序输出，同时订阅的页数即预读上限
+                    Flux<List<MovieDetailVo>> rest = Flux.range(2, lastPage - 1)
+                            .flatMapSequential(pageId -> fetchPage.apply(pageId)
+                                    .map(LibraryPager::moviesOf)
+                                    .defaultIfEmpty(Collections.emptyList()), readAhead, 1)
+                            .takeUntil(movies -> movies.size() < pageSize);
+                    return Flux.concat(Mono.just(firstMovies), rest);
+                })
+                // 每次只展开一页，避免flatMapIterable默认预取多页
+                .flatMapIterable(movies -> movies, 1);
+    }
+
+    /**
+     * 根据第一页推算最后一页：第一页不满时只有一页，有totalPage时以其为准，且不超过maxPages
+     */
+    private static int lastPage(MovieListResponseVo first, int firstCount, int pageSize, int maxPages) {
+        if (firstCount < pageSize) {
+            return 1;
+        }
+        Integer totalPage = first.getTotalPage();
+        return totalPage != null && totalPage > 0 ? Math.min(totalPage, maxPages) : maxPages;
+    }
+
+    private static List<MovieDetailVo> moviesOf(MovieListResponseVo responseVo) {
+        return responseVo.getResult() != null ? responseVo.getResult() : Collections.emptyList();
+    }
+}
@@ -0,0 +1,352 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.genre.GenreResolution;
+import com.peliplat.ai.genre.GenreTaxonomy;
+import com.peliplat.ai.model.MediaDetailVo;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.SearchResultVo;
+import com.peliplat.ai.service.LibraryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PeliPlat API公共支持类
+ * 阻塞式与响应式实现共用的URL构建、请求参数构建和结果转换逻辑
+ */
+final class PeliplatApiSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeliplatApiSupport.class);
+
+    static final String PELIPLAT_API_BASE_URL = "https://www.peliplat.com/api/web/search/detailSearch/v2";
+    static final String PELIPLAT_LIBRARY_API_URL = "https://www.peliplat.com/api/web/mediaList/library/listMedias";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final String POPULAR_MOVIES_FILTER_ID = "1901930552914399274";
+
+    /**
+     * detailSearch请求URL模板
+     */
+    private static final RequestTemplate SEARCH_URL_TEMPLATE = RequestTemplate.query(PELIPLAT_API_BASE_URL)
+            .rawVariable("languageCode")
+            .rawVariable("pageSize")
+            .constant("client", "web")
+            .variable("keyword")
+            .rawVariable("pageId")
+            .constant("mark", "movies,series")
+            .build();
+
+    /**
+     * 按年份、类型、地区和片长筛选的库列表表单模板
+     */
+    private static final RequestTemplate LIBRARY_FILTER_FORM_TEMPLATE = RequestTemplate.form()
+            .variable("filterIds")
+            .variable("language")
+            .constant("client", "web")
+            .constant("watched", "false")
+            .constant("whereToWatch", "false")
+            .constant("targetUid", "")
+            .variable("filterMediaType") // 1表示电影
+            .constant("sort", "3")
+            .constant("sortMode", "1")
+            .constant("queryMode", "2")
+            .variable("pageId")
+            .variable("pageSize")
+            .variable("filterYear")
+            .variable("filterRegion")
+            .variable("filterRuntime")
+            .build();
+
+    /**
+     * 本周热门电影的库列表表单模板
+     */
+    private static final RequestTemplate POPULAR_MOVIES_FORM_TEMPLATE = RequestTemplate.form()
+            .constant("filterIds", POPULAR_MOVIES_FILTER_ID) // 本周热门电影的特定ID
+            .variable("language")
+            .constant("client", "web")
+            .constant("watched", "false")
+            .constant("whereToWatch", "false")
+            .constant("filterMediaType", "1") // 1表示电影
+            .constant("filterYear", "")
+            .constant("filterRegion", "")
+            .constant("filterRuntime", "")
+            .constant("sort", "3")
+            .constant("sortMode", "1")
+            .constant("queryMode", "2")
+            .variable("pageId")
+            .variable("pageSize")
+            .build();
+
+    /**
+     * 库列表表单请求头（只读，所有请求共用）
+     */
+    static final HttpHeaders FORM_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        FORM_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private PeliplatApiSupport() {
+        // 防止实例化
+    }
+
+    /**
+     * 构建PeliPlat搜索API的URL
+     */
+    static String buildSearchUrl(String query, int pageId, String language) {
+        return buildSearchUrl(query, pageId, language, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 构建PeliPlat搜索API的URL，支持指定pageSize
+     */
+    static String buildSearchUrl(String query, int pageId, String language, int pageSize) {
+        if (query == null) {
+            logger.error("Error building search URL: query is null");
+            return PELIPLAT_API_BASE_URL;
+        }
+        return SEARCH_URL_TEMPLATE.expand(language, String.valueOf(pageSize), query, String.valueOf(pageId));
+    }
+
+    /**
+     * 构建按年份和类型筛选的库列表表单请求体
+     */
+    static byte[] buildYearAndGenreForm(String year, String genre, String language) {
+        return buildYearAndGenreForm(year, genre, language, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 构建按年份和类型筛选的库列表表单请求体，支持指定pageSize
+     */
+    static byte[] buildYearAndGenreForm(String year, String genre, String language, int pageSize) {
+        return buildYearAndGenreForm(year, genre, language, 1, pageSize);
+    }
+
+    /**
+     * 构建按年份和类型筛选的库列表表单请求体，支持指定页码和pageSize
+     */
+    static byte[] buildYearAndGenreForm(String year, String genre, String language, int pageId, int pageSize) {
+        return buildLibraryForm(new LibraryFilter(year, genre, null, null), language, pageId, pageSize);
+    }
+
+    /**
+     * 构建库列表表单请求体，支持年份、类型、地区、片长和媒体类型筛选
+     */
+    static byte[] buildLibraryForm(LibraryFilter filter, String language, int pageId, int pageSize) {
+        return LIBRARY_FILTER_FORM_TEMPLATE.expandToBytes(resolveGenreFilterIds(filter.genre()), language,
+                filter.mediaType() != null ? String.valueOf(filter.mediaType()) : "1", String.valueOf(pageId),
+                String.valueOf(pageSize), rangeFilter(filter.year()), filter.region() != null ? filter.region() : "",
+                rangeFilter(filter.runtime()));
+    }
+
+    /**
+     * 区间筛选值：单个值"2024"转为"[2024:2024]"，区间"2000:2010"转为"[2000:2010]"，为空时返回空字符串
+     */
+    private static String rangeFilter(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        return value.indexOf(':') >= 0 ? "[" + value + "]" : "[" + value + ":" + value + "]";
+    }
+
+    /**
+     * 构建本周热门电影的库列表表单请求体
+     */
+    static byte[] buildPopularMoviesForm(String language) {
+        // 默认第1页，20条
+        return buildPopularMoviesForm(language, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 构建本周热门电影的库列表表单请求体，支持指定pageSize
+     */
+    static byte[] buildPopularMoviesForm(String language, int pageSize) {
+        return POPULAR_MOVIES_FORM_TEMPLATE.expandToBytes(language, "1", String.valueOf(pageSize));
+    }
+
+    /**
+     * 将类型字符串（可含多个类型、别名和中文名称）解析为filterIds
+     */
+    private static String resolveGenreFilterIds(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return "";
+        }
+        GenreResolution resolution = GenreTaxonomy.current().resolve(genre);
+        if (!resolution.unresolved().isEmpty()) {
+            logger.warn("未识别的电影类型: {}，原始类型: {}", resolution.unresolved(), genre);
+        }
+        String filterIds = resolution.filterIdString();
+        logger.info("电影类型筛选: {} -> {} -> IDs: {}", genre, resolution.names(), filterIds);
+        return filterIds;
+    }
+
+    /**
+     * 类型字符串统一为英文类型名称（"科幻, romantic comedy" -> "Sci-Fi,Rom-com"），使别名和中文名称共用缓存；
+     * 没有识别出任何类型时原样返回
+     */
+    static String canonicalGenre(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return genre;
+        }
+        GenreResolution resolution = GenreTaxonomy.current().resolve(genre);
+        return resolution.hasGenres() ? resolution.names() : genre;
+    }
+
+    /**
+     * 指定了类型却没有任何可用于上游筛选的ID：此时上游会返回不带类型筛选的结果，调用方应直接返回空结果
+     */
+    static boolean isUnfilterableGenre(String genre) {
+        return genre != null && !genre.isBlank() && GenreTaxonomy.current().resolve(genre).filterIds().isEmpty();
+    }
+
+    /**
+     * 创建空的响应对象
+     */
+    static MovieListResponseVo createEmptyResponse() {
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setMessage(null);
+        responseVo.setShow(null);
+        responseVo.setTotalPage(0);
+        responseVo.setTotalCount(0);
+        responseVo.setCount(0);
+        responseVo.setResult(new ArrayList<>());
+        return responseVo;
+    }
+
+    /**
+     * 截取前limit条结果，结果不超过limit时原样返回；原响应可能被缓存共享，因此不修改原对象
+     */
+    static MovieListResponseVo limitResult(MovieListResponseVo responseVo, int limit) {
+        if (responseVo == null || responseVo.getResult() == null || responseVo.getResult().size() <= limit) {
+            return responseVo;
+        }
+        MovieListResponseVo limited = new MovieListResponseVo();
+        limited.setRetCode(responseVo.getRetCode());
+        limited.setMessage(responseVo.getMessage());
+        limited.setShow(responseVo.getShow());
+        limited.setTotalPage(responseVo.getTotalPage());
+        limited.setTotalCount(responseVo.getTotalCount());
+        limited.setResult(new ArrayList<>(responseVo.getResult().subList(0, limit)));
+        limited.setCount(limit);
+        return limited;
+    }
+
+    /**
+     * 合并并发搜索结果（按ppId去重，保留首次出现的顺序）
+     */
+    static MovieListResponseVo mergeConcurrentResults(List<MovieDetailVo> allMovies) {
+        MovieListResponseVo mergedResult = new MovieListResponseVo();
+        mergedResult.setRetCode(200);
+        mergedResult.setMessage("并发搜索结果合并 - 每个查询获取一部电影");
+
+        // 去重（按ppId去重）
+        Map<String, MovieDetailVo> uniqueMoviesMap = new LinkedHashMap<>();
+        for (MovieDetailVo movie : allMovies) {
+            if (movie != null && movie.getPpId() != null && !uniqueMoviesMap.containsKey(movie.getPpId())) {
+                uniqueMoviesMap.put(movie.getPpId(), movie);
+            }
+        }
+
+        List<MovieDetailVo> uniqueMovies = new ArrayList<>(uniqueMoviesMap.values());
+
+        mergedResult.setResult(uniqueMovies);
+        mergedResult.setCount(uniqueMovies.size());
+        mergedResult.setTotalCount(uniqueMovies.size());
+        mergedResult.setTotalPage(1);
+        return mergedResult;
+    }
+
+    /**
+     * 将SearchResultVo转换为MovieListResponseVo
+     */
+    static MovieListResponseVo convertSearchResultToMovieList(SearchResultVo searchResult) {
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setRetCode(200);
+        responseVo.setMessage(null);
+        responseVo.setShow(null);
+
+        List<MovieDetailVo> movieList = new ArrayList<>();
+
+        if (searchResult.getResult() != null && searchResult.getResult().getList() != null) {
+            List<SearchResultVo.SearchItem> items = searchResult.getResult().getList();
+
+            for (SearchResultVo.SearchItem item : items) {
+                if (item.getDetails() != null) {
+                    // 转换MediaDetailVo为MovieDetailVo
+                    MovieDetailVo movie = convertMediaDetailToMovie(item.getDetails());
+                    movie.setRelateType(item.getRelateType());
+                    movieList.add(movie);
+                }
+            }
+        }
+
+        responseVo.setResult(movieList);
+        responseVo.setCount(movieList.size());
+        responseVo.setTotalCount(movieList.size());
+        responseVo.setTotalPage(1);
+
+        return responseVo;
+    }
+
+    /**
+     * 将MediaDetailVo转换为MovieDetailVo
+     */
+    static MovieDetailVo convertMediaDetailToMovie(MediaDetailVo mediaDetail) {
+        MovieDetailVo movie = newMovieDetail();
+
+        // 复制属性
+        movie.setMediaId(mediaDetail.getMediaId());
+        movie.setPpId(mediaDetail.getPpId());
+        movie.setMmId(mediaDetail.getPpId()); // 使用相同的ppId
+        movie.setTitle(mediaDetail.getTitle());
+        movie.setOriginalTitle(mediaDetail.getOriginalTitle());
+        movie.setPhotoUrl(mediaDetail.getPoster());
+        movie.setPublicationYear(mediaDetail.getPublicYear());
+        movie.setRating(mediaDetail.getRating());
+        movie.setMediaType(mediaDetail.getMediaType());
+        movie.setWatchStatus(mediaDetail.getWatchStatus());
+        movie.setWatchListStatus(mediaDetail.getWatchListStatus());
+        movie.setCertificate(mediaDetail.getCertificate());
+        movie.setRunTime(mediaDetail.getRunTime());
+        movie.setGenres(mediaDetail.getGenres());
+        movie.setGeners(mediaDetail.getGeners());
+        movie.setReleaseDate(mediaDetail.getReleaseDate());
+        movie.setSummary(mediaDetail.getPlot());
+        movie.setPlotKeywords(mediaDetail.getPlotKeywords());
+        movie.setLanguageCodes(mediaDetail.getLanguages());
+
+        // 复制导演和演员信息
+        movie.setDirectors(mediaDetail.getDirectors());
+        movie.setActors(mediaDetail.getActors());
+
+        return movie;
+    }
+
+    /**
+     * 创建MovieDetailVo并填入detailSearch中没有对应字段的默认值
+     */
+    static MovieDetailVo newMovieDetail() {
+        MovieDetailVo movie = new MovieDetailVo();
+        // 设置投票数（如果MediaDetailVo中没有这个属性，设为0）
+        movie.setVoteCount(0);
+        movie.setRank(0);
+        movie.setPopularity(9999900.0);
+        // 设置类型ID（MediaDetailVo中可能没有这个属性）
+        movie.setGenreIds(new ArrayList<>());
+        movie.setSeason(0);
+        movie.setEpisode(0);
+        movie.setReleaseDateInt(0); // 可以通过解析releaseDate生成
+        movie.setInWatchlist(false);
+        movie.setTotalGross(null);
+        return movie;
+    }
+}
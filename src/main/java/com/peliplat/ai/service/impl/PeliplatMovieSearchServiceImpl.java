@@ -1,52 +1,94 @@
 package com.peliplat.ai.service.impl;
 
+import com.peliplat.ai.cache.CacheRegion;
+import com.peliplat.ai.cache.SearchCacheKey;
+import com.peliplat.ai.cache.SearchResultCache;
+import com.peliplat.ai.catalog.CatalogStore;
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.index.FetchedMoviesPublisher;
+import com.peliplat.ai.index.FuzzyTitleMatcher;
+import com.peliplat.ai.index.MovieSearchIndex;
+import com.peliplat.ai.index.MovieSource;
 import com.peliplat.ai.model.MediaBaseVo;
-import com.peliplat.ai.model.MediaDetailVo;
 import com.peliplat.ai.model.MovieDetailVo;
 import com.peliplat.ai.model.MovieListResponseVo;
-import com.peliplat.ai.model.SearchResultVo;
+import com.peliplat.ai.service.LibraryFilter;
+import com.peliplat.ai.service.MovieSearchExecutor;
 import com.peliplat.ai.service.MovieSearchService;
+import com.peliplat.ai.service.PeliplatApiException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import com.peliplat.ai.util.MovieGenreConstants;
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.DEFAULT_PAGE_SIZE;
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.PELIPLAT_LIBRARY_API_URL;
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.buildSearchUrl;
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.createEmptyResponse;
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.limitResult;
 
 /**
  * PeliPlat电影搜索服务实现
- * 通过调用PeliPlat API搜索电影
+ * 通过调用PeliPlat API搜索电影，结果经SearchResultCache缓存；
+ * 开启peliplat.search.reactive-delegate时上游调用委托给响应式实现。
+ * 从上游获取的电影都经FetchedMoviesPublisher写入本地索引，关键词搜索先查MovieSearchIndex，
+ * 按年份和类型的搜索先查本地电影目录快照CatalogStore
  */
 @Service("peliplatMovieSearchService")
 public class PeliplatMovieSearchServiceImpl implements MovieSearchService {
 
     private static final Logger logger = LoggerFactory.getLogger(PeliplatMovieSearchServiceImpl.class);
-    private static final String PELIPLAT_API_BASE_URL = "https://www.peliplat.com/api/web/search/detailSearch/v2";
-    private static final String PELIPLAT_LIBRARY_API_URL = "https://www.peliplat.com/api/web/mediaList/library/listMedias";
-    private static final int DEFAULT_PAGE_SIZE = 20;
-    private static final String POPULAR_MOVIES_FILTER_ID = "1901930552914399274";
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private PeliplatReactiveMovieSearchServiceImpl reactiveMovieSearchService;
+
+    @Autowired
+    private PeliplatProperties peliplatProperties;
+
+    @Autowired
+    private MovieSearchExecutor movieSearchExecutor;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private PopularMoviesSnapshot popularMoviesSnapshot;
+
+    @Autowired
+    private FetchedMoviesPublisher fetchedMoviesPublisher;
+
+    @Autowired
+    private MovieSearchIndex movieSearchIndex;
+
+    @Autowired
+    private CatalogStore catalogStore;
+
+    @Autowired
+    private FuzzyTitleMatcher fuzzyTitleMatcher;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -74,21 +116,21 @@ public class PeliplatMovieSearchServiceImpl implements MovieSearchService {
 
     @Override
     public MovieListResponseVo searchMoviesByQueryForVo(String query, String language) {
-        try {
-            // 构建API请求URL
-            String url = buildSearchUrl(query, 1, language);
-            logger.info("Searching movies with URL: {}", url);
-
-            // 直接将响应转换为SearchResultVo对象
-            ResponseEntity<SearchResultVo> response = restTemplate.getForEntity(url, SearchResultVo.class);
+        return searchMoviesByQueryForVo(query, language, DEFAULT_PAGE_SIZE);
+    }
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                // 将SearchResultVo转换为MovieListResponseVo
-                return convertSearchResultToMovieList(response.getBody());
-            } else {
-                logger.error("Failed to search movies, status: {}", response.getStatusCode());
-                return createEmptyResponse();
+    @Override
+    public MovieListResponseVo searchMoviesByQueryForVo(String query, String language, int limit) {
+        // 上游pageSize与调用方需要的条数一致，缓存键同样按条数区分
+        int pageSize = resolvePageSize(limit);
+        try {
+            // 本地索引有可信命中时无需访问缓存和上游
+            MovieListResponseVo local = movieSearchIndex.search(query, language, pageSize);
+            if (local != null) {
+                return local;
             }
+            return limitResult(searchResultCache.get(CacheRegion.QUERY, queryKey(query, language, pageSize),
+                    () -> fetchMoviesByQuery(query, language, pageSize)), pageSize);
         } catch (Exception e) {
             logger.error("Error searching movies by query: {}", query, e);
             return createEmptyResponse();
@@ -97,139 +139,244 @@ public class PeliplatMovieSearchServiceImpl implements MovieSearchService {
 
     @Override
     public MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String genre, String language) {
-        try {
-            // 构建库列表API的URL
-            String url = PELIPLAT_LIBRARY_API_URL;
-            logger.info("Searching movies by year and genre with URL: {}", url);
-
-            // 构建请求头
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.setContentType(org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED);
-
-            // 构建请求参数
-            MultiValueMap<String, String> requestParams = new org.springframework.util.LinkedMultiValueMap<>();
-
-            // 添加类型筛选 - 支持逗号分隔的多个genre
-            if (genre != null && !genre.isEmpty()) {
-                // 按逗号分隔多个genre
-                String[] genres = genre.split(",");
-                List<String> genreIds = new ArrayList<>();
-
-                // 获取每个genre的ID
-                for (String singleGenre : genres) {
-                    String trimmedGenre = singleGenre.trim();
-                    if (!trimmedGenre.isEmpty()) {
-                        String genreId = MovieGenreConstants.getGenreIdByDisplayName(trimmedGenre);
-                        if (genreId != null && !genreId.isEmpty()) {
-                            genreIds.add(genreId);
-                            logger.info("添加电影类型筛选: {} -> ID: {}", trimmedGenre, genreId);
-                        } else {
-                            logger.warn("未找到电影类型: {} 对应的ID", trimmedGenre);
-                        }
-                    }
-                }
+        return searchMoviesByYearAndGenreForVo(year, genre, language, DEFAULT_PAGE_SIZE);
+    }
 
-                // 将所有ID用逗号连接
-                if (!genreIds.isEmpty()) {
-                    String filterIds = String.join(",", genreIds);
-                    requestParams.add("filterIds", filterIds);
-                    logger.info("最终电影类型筛选IDs: {}", filterIds);
-                } else {
-                    requestParams.add("filterIds", "");
-                    logger.warn("所有提供的电影类型均未找到对应ID: {}", genre);
-                }
-            } else {
-                requestParams.add("filterIds", "");
-            }
+    @Override
+    public MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String genre, String language,
+                                                               int limit) {
+        return searchMoviesByYearAndGenreForVo(year, genre, language, 1, limit);
+    }
 
-            requestParams.add("language", language);
-            requestParams.add("client", "web");
-            requestParams.add("watched", "false");
-            requestParams.add("whereToWatch", "false");
-            requestParams.add("targetUid", "");
-            requestParams.add("filterMediaType", "1"); // 1表示电影
-            requestParams.add("sort", "3");
-            requestParams.add("sortMode", "1");
-            requestParams.add("queryMode", "2");
-            requestParams.add("pageId", "1");
-            requestParams.add("pageSize", String.valueOf(DEFAULT_PAGE_SIZE));
-
-            // 添加年份筛选
-            if (year != null && !year.isEmpty()) {
-                requestParams.add("filterYear", "[" + year + ":" + year + "]");
-            } else {
-                requestParams.add("filterYear", "");
+    @Override
+    public MovieListResponseVo searchMoviesByYearAndGenreForVo(String year, String requestedGenre, String language,
+                                                               int page, int limit) {
+        int pageId = Math.max(1, page);
+        int pageSize = resolvePageSize(limit);
+        // 别名和中文名称统一为英文类型名称，共用本地快照和缓存
+        String genre = PeliplatApiSupport.canonicalGenre(requestedGenre);
+        try {
+            // 本地目录快照能回答时不访问上游，也无需预取
+            MovieListResponseVo local = catalogStore.searchYearAndGenre(year, genre, language, pageId, pageSize);
+            if (local != null) {
+                return local;
             }
-
-            requestParams.add("filterRegion", "");
-            requestParams.add("filterRuntime", "");
-
-            // 创建HttpEntity
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(requestParams, headers);
-
-            // 直接将响应转换为MovieListResponseVo对象
-            ResponseEntity<MovieListResponseVo> response = restTemplate.postForEntity(url, requestEntity,
-                    MovieListResponseVo.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody();
-            } else {
-                logger.error("Failed to search movies by year and genre, status: {}", response.getStatusCode());
+            if (PeliplatApiSupport.isUnfilterableGenre(genre)) {
+                // 上游会忽略类型返回不相关的结果，不发出请求
+                logger.warn("无法按类型筛选，直接返回空结果，类型：{}", requestedGenre);
                 return createEmptyResponse();
             }
+            MovieListResponseVo responseVo = loadYearAndGenrePage(year, genre, language, pageId, pageSize);
+            // 当前页直接返回，后续几页在后台预取到缓存
+            prefetchYearAndGenrePages(year, genre, language, pageId, pageSize, responseVo);
+            return limitResult(responseVo, pageSize);
         } catch (Exception e) {
-            logger.error("Error searching movies by year: {} and genre: {}", year, genre, e);
+            logger.error("Error searching movies by year: {} and genre: {} page: {}", year, genre, pageId, e);
             return createEmptyResponse();
         }
     }
 
+    /**
+     * 经缓存读取按年份和类型筛选的一页结果
+     */
+    private MovieListResponseVo loadYearAndGenrePage(String year, String genre, String language, int pageId,
+                                                     int pageSize) {
+        return searchResultCache.get(CacheRegion.YEAR_GENRE, yearAndGenreKey(year, genre, language, pageId, pageSize),
+                () -> fetchMoviesByYearAndGenre(year, genre, language, pageId, pageSize));
+    }
+
+    /**
+     * 在后台预取当前页之后的prefetchPages页。
+     * 预取页分配到prefetchConcurrency条通道，每条通道顺序加载，单次请求同时占用的上游请求数不超过通道数；
+     * 当前页不满或已到最后一页时不预取，已缓存的页直接命中，预取失败只记录日志
+     */
+    private void prefetchYearAndGenrePages(String year, String genre, String language, int pageId, int pageSize,
+                                           MovieListResponseVo current) {
+        int pages = peliplatProperties.getSearch().getPrefetchPages();
+        if (pages <= 0 || current.getResult() == null || current.getResult().size() < pageSize) {
+            return;
+        }
+        Integer totalPage = current.getTotalPage();
+        int lastPage = totalPage != null && totalPage > 0 ? Math.min(pageId + pages, totalPage) : pageId + pages;
+        if (lastPage <= pageId) {
+            return;
+        }
+        int lanes = Math.max(1, Math.min(peliplatProperties.getSearch().getPrefetchConcurrency(), lastPage - pageId));
+        for (int lane = 1; lane <= lanes; lane++) {
+            int firstPage = pageId + lane;
+            movieSearchExecutor.supplyAsync(() -> {
+                for (int next = firstPage; next <= lastPage; next += lanes) {
+                    MovieListResponseVo prefetched = loadYearAndGenrePage(year, genre, language, next, pageSize);
+                    if (prefetched.getResult() == null || prefetched.getResult().size() < pageSize) {
+                        break; // 已到最后一页
+                    }
+                }
+                return null;
+            }).exceptionally(e -> {
+                logger.debug("预取按年份和类型搜索结果失败，年份：{}, 类型：{}, 原因：{}", year, genre, e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 按年份和类型搜索的缓存键，第1页沿用不带页码的键
+     */
+    private static SearchCacheKey yearAndGenreKey(String year, String genre, String language, int pageId,
+                                                  int pageSize) {
+        String query = year + "|" + genre;
+        return SearchCacheKey.of(pageId > 1 ? query + "|p" + pageId : query, language, pageSize);
+    }
+
     @Override
     public MovieListResponseVo getPopularMoviesThisWeekForVo(String language) {
-        try {
-            // 构建库列表API的URL
-            String url = PELIPLAT_LIBRARY_API_URL;
-            logger.info("Fetching popular movies this week with URL: {}", url);
-
-            // 构建请求头
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.setContentType(org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED);
-
-            // 构建请求参数
-            MultiValueMap<String, String> requestParams = new org.springframework.util.LinkedMultiValueMap<>();
-            requestParams.add("filterIds", POPULAR_MOVIES_FILTER_ID); // 本周热门电影的特定ID
-            requestParams.add("language", language);
-            requestParams.add("client", "web");
-            requestParams.add("watched", "false");
-            requestParams.add("whereToWatch", "false");
-            requestParams.add("filterMediaType", "1"); // 1表示电影
-            requestParams.add("filterYear", "");
-            requestParams.add("filterRegion", "");
-            requestParams.add("filterRuntime", "");
-            requestParams.add("sort", "3");
-            requestParams.add("sortMode", "1");
-            requestParams.add("queryMode", "2");
-            requestParams.add("pageId", "1"); // 默认第1页
-            requestParams.add("pageSize", String.valueOf(DEFAULT_PAGE_SIZE)); // 默认20条
-
-            // 创建HttpEntity
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(requestParams, headers);
-
-            // 直接将响应转换为MovieListResponseVo对象
-            ResponseEntity<MovieListResponseVo> response = restTemplate.postForEntity(url, requestEntity,
-                    MovieListResponseVo.class);
+        return getPopularMoviesThisWeekForVo(language, DEFAULT_PAGE_SIZE);
+    }
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody();
-            } else {
-                logger.error("Failed to fetch popular movies, status: {}", response.getStatusCode());
-                return createEmptyResponse();
+    @Override
+    public MovieListResponseVo getPopularMoviesThisWeekForVo(String language, int limit) {
+        int pageSize = resolvePageSize(limit);
+        // 优先使用后台预取的快照（DEFAULT_PAGE_SIZE条），无需等待上游
+        if (pageSize <= DEFAULT_PAGE_SIZE) {
+            MovieListResponseVo precomputed = popularMoviesSnapshot.get(language);
+            if (precomputed != null) {
+                return limitResult(precomputed, pageSize);
             }
+        }
+        try {
+            return limitResult(searchResultCache.get(CacheRegion.POPULAR, SearchCacheKey.of("", language, pageSize),
+                    () -> fetchPopularMoviesThisWeek(language, pageSize)), pageSize);
         } catch (Exception e) {
             logger.error("Error fetching popular movies this week", e);
             return createEmptyResponse();
         }
     }
 
+    @Override
+    public Flux<MovieDetailVo> streamLibraryMovies(LibraryFilter filter, String language) {
+        PeliplatProperties.Search config = peliplatProperties.getSearch();
+        int pageSize = Math.max(1, config.getStreamPageSize());
+        if (PeliplatApiSupport.isUnfilterableGenre(filter.genre())) {
+            logger.warn("无法按类型筛选，不遍历库列表，类型：{}", filter.genre());
+            return Flux.empty();
+        }
+        logger.info("深度翻页遍历库列表，筛选条件：{}, 语言：{}", filter, language);
+        // 批量遍历不经过结果缓存，避免挤掉在线查询的缓存条目；阻塞的上游调用放在boundedElastic线程上
+        return LibraryPager.stream(pageId -> Mono.fromCallable(() -> fetchLibraryPage(filter, language, pageId, pageSize))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                pageSize, Math.max(1, config.getStreamReadAhead()), Math.max(1, config.getStreamMaxPages()));
+    }
+
+    /**
+     * 调用库列表API获取一页结果，上游失败时抛出PeliplatApiException
+     */
+    private MovieListResponseVo fetchLibraryPage(LibraryFilter filter, String language, int pageId, int pageSize) {
+        logger.debug("Listing library page {} with URL: {}", pageId, PELIPLAT_LIBRARY_API_URL);
+        ResponseEntity<MovieListResponseVo> response = postLibrary(
+                PeliplatApiSupport.buildLibraryForm(filter, language, pageId, pageSize));
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            return published(response.getBody(), language, MovieSource.LIBRARY);
+        }
+        throw new PeliplatApiException("Failed to list library page " + pageId + ", status: "
+                + response.getStatusCode());
+    }
+
+    /**
+     * 调用搜索API，上游失败时抛出PeliplatApiException
+     */
+    private MovieListResponseVo fetchMoviesByQuery(String query, String language, int pageSize) {
+        if (isReactiveDelegate()) {
+            return published(blockOnReactive(reactiveMovieSearchService.fetchMoviesByQuery(query, language,
+                    pageSize)), language, MovieSource.DETAIL_SEARCH);
+        }
+
+        // 构建API请求URL
+        String url = buildSearchUrl(query, 1, language, pageSize);
+        logger.info("Searching movies with URL: {}", url);
+
+        // 流式解码响应，直接生成MovieListResponseVo
+        MovieListResponseVo result = restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new PeliplatApiException("Failed to search movies, status: " + response.getStatusCode());
+            }
+            return DetailSearchDecoder.decode(response.getBody());
+        });
+        if (result == null) {
+            throw new PeliplatApiException("Failed to search movies, empty response body");
+        }
+        return published(result, language, MovieSource.DETAIL_SEARCH);
+    }
+
+    /**
+     * 调用库列表API按年份和类型筛选，上游失败时抛出PeliplatApiException
+     */
+    private MovieListResponseVo fetchMoviesByYearAndGenre(String year, String genre, String language, int pageId,
+                                                          int pageSize) {
+        if (isReactiveDelegate()) {
+            return published(blockOnReactive(reactiveMovieSearchService.fetchMoviesByYearAndGenre(year, genre,
+                    language, pageId, pageSize)), language, MovieSource.LIBRARY);
+        }
+
+        logger.info("Searching movies by year and genre with URL: {}, page: {}", PELIPLAT_LIBRARY_API_URL, pageId);
+
+        // 构建请求体
+        byte[] form = PeliplatApiSupport.buildYearAndGenreForm(year, genre, language, pageId, pageSize);
+
+        ResponseEntity<MovieListResponseVo> response = postLibrary(form);
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            return published(response.getBody(), language, MovieSource.LIBRARY);
+        }
+        throw new PeliplatApiException("Failed to search movies by year and genre, status: "
+                + response.getStatusCode());
+    }
+
+    /**
+     * 调用库列表API获取本周热门电影，上游失败时抛出PeliplatApiException
+     * （供PopularMoviesRefresher后台刷新使用）
+     */
+    MovieListResponseVo fetchPopularMoviesThisWeek(String language) {
+        return fetchPopularMoviesThisWeek(language, DEFAULT_PAGE_SIZE);
+    }
+
+    private MovieListResponseVo fetchPopularMoviesThisWeek(String language, int pageSize) {
+        if (isReactiveDelegate()) {
+            return published(blockOnReactive(reactiveMovieSearchService.fetchPopularMoviesThisWeek(language,
+                    pageSize)), language, MovieSource.LIBRARY);
+        }
+
+        logger.info("Fetching popular movies this week with URL: {}", PELIPLAT_LIBRARY_API_URL);
+
+        // 构建请求体
+        byte[] form = PeliplatApiSupport.buildPopularMoviesForm(language, pageSize);
+
+        ResponseEntity<MovieListResponseVo> response = postLibrary(form);
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            return published(response.getBody(), language, MovieSource.LIBRARY);
+        }
+        throw new PeliplatApiException("Failed to fetch popular movies, status: " + response.getStatusCode());
+    }
+
+    /**
+     * 把上游返回的电影交给本地索引等监听方，原样返回结果
+     */
+    private MovieListResponseVo published(MovieListResponseVo result, String language, MovieSource source) {
+        if (result.getResult() != null) {
+            fetchedMoviesPublisher.publish(result.getResult(), language, source);
+        }
+        return result;
+    }
+
+    /**
+     * 以表单方式调用库列表API
+     */
+    private ResponseEntity<MovieListResponseVo> postLibrary(byte[] form) {
+        // 请求体已按表单编码，请求头使用共享的只读实例
+        HttpEntity<byte[]> requestEntity = new HttpEntity<>(form, PeliplatApiSupport.FORM_HEADERS);
+
+        // 直接将响应转换为MovieListResponseVo对象
+        return restTemplate.postForEntity(PELIPLAT_LIBRARY_API_URL, requestEntity, MovieListResponseVo.class);
+    }
+
     @Override
     public MovieListResponseVo concurrentSearchMoviesForVo(List<String> queries, String language) {
         if (CollectionUtils.isEmpty(queries)) {
@@ -238,117 +385,118 @@ public class PeliplatMovieSearchServiceImpl implements MovieSearchService {
 
         logger.info("并发搜索电影列表，查询条件：{}, 语言：{}", queries, language);
 
-        try {
-            // 创建线程池
-            ExecutorService executor = Executors.newFixedThreadPool(Math.min(queries.size(), 10));
-
-            // 为每个查询创建异步任务，直接在API调用时指定只获取一部电影
-            List<CompletableFuture<MovieDetailVo>> futures = queries.stream()
-                    .map(query -> CompletableFuture.supplyAsync(() -> {
-                        try {
-                            // 查询时pageSize设为1，直接从源头减少传输量
-                            String url = buildSearchUrl(query, 1, language, 1);
-                            logger.info("并发搜索单部电影，URL: {}", url);
-
-                            // 直接将响应转换为SearchResultVo对象
-                            ResponseEntity<SearchResultVo> response = restTemplate.getForEntity(url,
-                                    SearchResultVo.class);
-
-                            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                                SearchResultVo searchResult = response.getBody();
-                                // 转换为MovieDetailVo
-                                if (searchResult.getResult() != null &&
-                                        searchResult.getResult().getList() != null &&
-                                        !searchResult.getResult().getList().isEmpty()) {
-                                    SearchResultVo.SearchItem item = searchResult.getResult().getList().get(0);
-                                    if (item.getDetails() != null) {
-                                        MovieDetailVo movie = convertMediaDetailToMovie(item.getDetails());
-                                        movie.setRelateType(item.getRelateType());
-                                        return movie;
-                                    }
-                                }
-                            }
-                            return null;
-                        } catch (Exception e) {
-                            logger.error("并发搜索电影出错，查询条件：{}, 语言：{}", query, language, e);
-                            return null;
-                        }
-                    }, executor))
-                    .collect(Collectors.toList());
-
-            // 等待所有异步任务完成
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                    futures.toArray(new CompletableFuture[0]));
-
-            // 收集所有结果
-            allFutures.join();
+        // 归一化后相同的查询只搜索一次
+        Set<SearchCacheKey> seen = new HashSet<>();
+        List<String> distinctQueries = queries.stream()
+                .filter(query -> seen.add(queryKey(query, language, 1)))
+                .collect(Collectors.toList());
 
-            // 合并结果
-            MovieListResponseVo mergedResult = new MovieListResponseVo();
-            mergedResult.setRetCode(200);
-            mergedResult.setMessage("并发搜索结果合并 - 每个查询获取一部电影");
+        // 为每个查询创建异步任务，在共享线程池中执行；保留原始Future以便超时后中断
+        List<CompletableFuture<MovieDetailVo>> futures = distinctQueries.stream()
+                .map(query -> movieSearchExecutor.supplyAsync(() -> searchSingleMovie(query, language)))
+                .collect(Collectors.toList());
 
-            List<MovieDetailVo> allMovies = new ArrayList<>();
+        try {
+            // 等待所有异步任务完成（单个任务失败不影响等待其他任务），超时则只使用已完成的结果
+            CompletableFuture.allOf(futures.stream()
+                            .map(future -> future.exceptionally(e -> null))
+                            .toArray(CompletableFuture[]::new))
+                    .get(peliplatProperties.getExecutor().getFanoutTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("并发搜索电影超时，返回已完成的部分结果，查询条件：{}", queries);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("并发搜索电影被中断，查询条件：{}", queries);
+        } catch (ExecutionException e) {
+            logger.error("并发搜索电影出现异常，查询条件：{}, 语言：{}", queries, language, e);
+        } finally {
+            // 无论成功与否都取消未完成的任务
+            MovieSearchExecutor.cancelAll(futures);
+        }
 
-            for (CompletableFuture<MovieDetailVo> future : futures) {
-                MovieDetailVo movie = future.get();
+        List<MovieDetailVo> allMovies = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<MovieDetailVo> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                MovieDetailVo movie = future.getNow(null);
                 if (movie != null) {
                     allMovies.add(movie);
                 }
+            } else if (future.isCompletedExceptionally() && !future.isCancelled()) {
+                logger.warn("并发搜索任务未执行，查询条件：{}", distinctQueries.get(i));
             }
+        }
 
-            // 去重（按ppId去重）
-            Map<String, MovieDetailVo> uniqueMoviesMap = new HashMap<>();
-            for (MovieDetailVo movie : allMovies) {
-                if (movie.getPpId() != null && !uniqueMoviesMap.containsKey(movie.getPpId())) {
-                    uniqueMoviesMap.put(movie.getPpId(), movie);
-                }
-            }
-
-            List<MovieDetailVo> uniqueMovies = new ArrayList<>(uniqueMoviesMap.values());
-
-            mergedResult.setResult(uniqueMovies);
-            mergedResult.setCount(uniqueMovies.size());
-            mergedResult.setTotalCount(uniqueMovies.size());
-            mergedResult.setTotalPage(1);
-
-            // 关闭线程池
-            executor.shutdown();
+        // 合并结果
+        MovieListResponseVo mergedResult = PeliplatApiSupport.mergeConcurrentResults(allMovies);
 
-            logger.info("并发搜索电影完成，共获取到 {} 部电影", mergedResult.getCount());
-            return mergedResult;
+        logger.info("并发搜索电影完成，共获取到 {} 部电影", mergedResult.getCount());
+        return mergedResult;
+    }
 
+    /**
+     * 搜索单部最匹配的电影：先查本地索引，再用近似片名匹配已知电影，都没有时才查询上游（pageSize设为1）；
+     * 上游也没有结果时放宽长度限制再做一次近似匹配，避免返回空结果
+     */
+    private MovieDetailVo searchSingleMovie(String query, String language) {
+        try {
+            MovieListResponseVo responseVo = movieSearchIndex.search(query, language, 1);
+            if (responseVo == null) {
+                MovieDetailVo nearMatch = fuzzyTitleMatcher.match(query, language, true);
+                if (nearMatch != null) {
+                    logger.info("近似片名匹配到已知电影，查询条件：{}, 电影：{}", query, nearMatch.getTitle());
+                    return nearMatch;
+                }
+                responseVo = searchResultCache.get(CacheRegion.QUERY, queryKey(query, language, 1),
+                        () -> fetchMoviesByQuery(query, language, 1));
+            }
+            if (responseVo.getResult() != null && !responseVo.getResult().isEmpty()) {
+                return responseVo.getResult().get(0);
+            }
+            return fuzzyTitleMatcher.match(query, language, false);
         } catch (Exception e) {
-            logger.error("并发搜索电影出现异常，查询条件：{}, 语言：{}", queries, language, e);
-            return createEmptyResponse();
+            logger.error("并发搜索电影出错，查询条件：{}, 语言：{}", query, language, e);
+            return null;
         }
     }
 
     /**
-     * 构建PeliPlat搜索API的URL
+     * 关键词搜索的缓存键，查询条件经QueryNormalizer归一化
+     */
+    private SearchCacheKey queryKey(String query, String language, int pageSize) {
+        return SearchCacheKey.of(query, language, pageSize, peliplatProperties.getSearch().isFoldTraditionalChinese());
+    }
+
+    /**
+     * 将调用方请求的条数限制在[1, maxLimit]范围内，作为上游pageSize
      */
-    private String buildSearchUrl(String query, int pageId, String language) {
-        return buildSearchUrl(query, pageId, language, DEFAULT_PAGE_SIZE);
+    private int resolvePageSize(int limit) {
+        return Math.max(1, Math.min(limit, peliplatProperties.getSearch().getMaxLimit()));
     }
 
     /**
-     * 构建PeliPlat搜索API的URL，支持指定pageSize
+     * 是否委托给响应式实现
      */
-    private String buildSearchUrl(String query, int pageId, String language, int pageSize) {
+    private boolean isReactiveDelegate() {
+        return peliplatProperties.getSearch().isReactiveDelegate();
+    }
+
+    /**
+     * 等待响应式结果，上游失败、超时或无结果时抛出PeliplatApiException，与同步调用一样不会被当作空结果缓存
+     */
+    private MovieListResponseVo blockOnReactive(Mono<MovieListResponseVo> result) {
+        MovieListResponseVo responseVo;
         try {
-            return UriComponentsBuilder.fromHttpUrl(PELIPLAT_API_BASE_URL)
-                    .queryParam("languageCode", language)
-                    .queryParam("pageSize", pageSize)
-                    .queryParam("client", "web")
-                    .queryParam("keyword", URLEncoder.encode(query, StandardCharsets.UTF_8.name()))
-                    .queryParam("pageId", pageId)
-                    .queryParam("mark", "movies,series")
-                    .build()
-                    .toUriString();
-        } catch (Exception e) {
-            logger.error("Error building search URL", e);
-            return PELIPLAT_API_BASE_URL;
+            responseVo = result.block(Duration.ofMillis(peliplatProperties.getSearch().getBlockTimeoutMillis()));
+        } catch (PeliplatApiException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new PeliplatApiException("Error waiting for reactive movie search result", e);
         }
+        if (responseVo == null) {
+            throw new PeliplatApiException("Reactive movie search completed without result");
+        }
+        return responseVo;
     }
 
     /**
@@ -443,99 +591,4 @@ public class PeliplatMovieSearchServiceImpl implements MovieSearchService {
             return Collections.emptyList();
         }
     }
-
-    /**
-     * 创建空的响应对象
-     */
-    private MovieListResponseVo createEmptyResponse() {
-        MovieListResponseVo responseVo = new MovieListResponseVo();
-        responseVo.setRetCode(200);
-        responseVo.setMessage(null);
-        responseVo.setShow(null);
-        responseVo.setTotalPage(0);
-        responseVo.setTotalCount(0);
-        responseVo.setCount(0);
-        responseVo.setResult(new ArrayList<>());
-        return responseVo;
-    }
-
-    /**
-     * 将SearchResultVo转换为MovieListResponseVo
-     */
-    private MovieListResponseVo convertSearchResultToMovieList(SearchResultVo searchResult) {
-        MovieListResponseVo responseVo = new MovieListResponseVo();
-        responseVo.setRetCode(200);
-        responseVo.setMessage(null);
-        responseVo.setShow(null);
-
-        List<MovieDetailVo> movieList = new ArrayList<>();
-
-        if (searchResult.getResult() != null && searchResult.getResult().getList() != null) {
-            List<SearchResultVo.SearchItem> items = searchResult.getResult().getList();
-
-            for (SearchResultVo.SearchItem item : items) {
-                if (item.getDetails() != null) {
-                    // 转换MediaDetailVo为MovieDetailVo
-                    MovieDetailVo movie = convertMediaDetailToMovie(item.getDetails());
-                    movie.setRelateType(item.getRelateType());
-                    movieList.add(movie);
-                }
-            }
-        }
-
-        responseVo.setResult(movieList);
-        responseVo.setCount(movieList.size());
-        responseVo.setTotalCount(movieList.size());
-        responseVo.setTotalPage(1);
-
-        return responseVo;
-    }
-
-    /**
-     * 将MediaDetailVo转换为MovieDetailVo
-     */
-    private MovieDetailVo convertMediaDetailToMovie(MediaDetailVo mediaDetail) {
-        MovieDetailVo movie = new MovieDetailVo();
-
-        // 复制属性
-        movie.setMediaId(mediaDetail.getMediaId());
-        movie.setPpId(mediaDetail.getPpId());
-        movie.setMmId(mediaDetail.getPpId()); // 使用相同的ppId
-        movie.setTitle(mediaDetail.getTitle());
-        movie.setPhotoUrl(mediaDetail.getPoster());
-        movie.setPublicationYear(mediaDetail.getPublicYear());
-        movie.setRating(mediaDetail.getRating());
-
-        // 设置投票数（如果MediaDetailVo中没有这个属性，设为0）
-        movie.setVoteCount(0);
-
-        movie.setMediaType(mediaDetail.getMediaType());
-        movie.setRank(0);
-        movie.setPopularity(9999900.0);
-        movie.setWatchStatus(mediaDetail.getWatchStatus());
-        movie.setWatchListStatus(mediaDetail.getWatchListStatus());
-        movie.setCertificate(mediaDetail.getCertificate());
-        movie.setRunTime(mediaDetail.getRunTime());
-        movie.setGenres(mediaDetail.getGenres());
-        movie.setGeners(mediaDetail.getGeners());
-
-        // 设置类型ID（MediaDetailVo中可能没有这个属性）
-        movie.setGenreIds(new ArrayList<>());
-
-        movie.setSeason(0);
-        movie.setEpisode(0);
-        movie.setReleaseDate(mediaDetail.getReleaseDate());
-        movie.setReleaseDateInt(0); // 可以通过解析releaseDate生成
-        movie.setSummary(mediaDetail.getPlot());
-        movie.setInWatchlist(false);
-        movie.setTotalGross(null);
-        movie.setPlotKeywords(mediaDetail.getPlotKeywords());
-        movie.setLanguageCodes(mediaDetail.getLanguages());
-
-        // 复制导演和演员信息
-        movie.setDirectors(mediaDetail.getDirectors());
-        movie.setActors(mediaDetail.getActors());
-
-        return movie;
-    }
-}
\ No newline at end of file
+}
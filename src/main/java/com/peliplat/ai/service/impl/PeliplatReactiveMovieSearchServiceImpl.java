@@ -0,0 +1,208 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.service.PeliplatApiException;
+import com.peliplat.ai.service.ReactiveMovieSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.peliplat.ai.service.impl.PeliplatApiSupport.PELIPLAT_LIBRARY_API_URL;
+
+/**
+ * PeliPlat电影搜索服务的响应式实现
+ * 基于WebClient，少量事件循环线程即可承载大量并发中的查询。
+ * fetch*方法在上游失败时以PeliplatApiException结束，供同步实现委托调用时区分错误和空结果；
+ * 接口方法在此基础上记录日志并返回空响应
+ */
+@Service("peliplatReactiveMovieSearchService")
+public class PeliplatReactiveMovieSearchServiceImpl implements ReactiveMovieSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeliplatReactiveMovieSearchServiceImpl.class);
+
+    private final WebClient webClient;
+    private final PeliplatProperties peliplatProperties;
+
+    public PeliplatReactiveMovieSearchServiceImpl(@Qualifier("peliplatWebClient") WebClient webClient,
+                                                  PeliplatProperties peliplatProperties) {
+        this.webClient = webClient;
+        this.peliplatProperties = peliplatProperties;
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> searchMoviesByQuery(String query, String language) {
+        return searchMoviesByQuery(query, language, PeliplatApiSupport.DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> searchMoviesByQuery(String query, String language, int pageSize) {
+        return fetchMoviesByQuery(query, language, pageSize)
+                .onErrorResume(e -> {
+                    logger.error("Error searching movies by query: {}", query, e);
+                    return Mono.just(PeliplatApiSupport.createEmptyResponse());
+                });
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language) {
+        return searchMoviesByYearAndGenre(year, genre, language, PeliplatApiSupport.DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language,
+                                                                int pageSize) {
+        return searchMoviesByYearAndGenre(year, genre, language, 1, pageSize);
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> searchMoviesByYearAndGenre(String year, String genre, String language,
+                                                                int pageId, int pageSize) {
+        if (PeliplatApiSupport.isUnfilterableGenre(genre)) {
+            // 上游会忽略类型返回不相关的结果，不发出请求
+            logger.warn("无法按类型筛选，直接返回空结果，类型：{}", genre);
+            return Mono.just(PeliplatApiSupport.createEmptyResponse());
+        }
+        return fetchMoviesByYearAndGenre(year, genre, language, pageId, pageSize)
+                .onErrorResume(e -> {
+                    logger.error("Error searching movies by year: {} and genre: {}", year, genre, e);
+                    return Mono.just(PeliplatApiSupport.createEmptyResponse());
+                });
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> getPopularMoviesThisWeek(String language) {
+        return getPopularMoviesThisWeek(language, PeliplatApiSupport.DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> getPopularMoviesThisWeek(String language, int pageSize) {
+        return fetchPopularMoviesThisWeek(language, pageSize)
+                .onErrorResume(e -> {
+                    logger.error("Error fetching popular movies this week", e);
+                    return Mono.just(PeliplatApiSupport.createEmptyResponse());
+                });
+    }
+
+    @Override
+    public Mono<MovieDetailVo> searchSingleMovie(String query, String language) {
+        // 查询时pageSize设为1，直接从源头减少传输量
+        String url = PeliplatApiSupport.buildSearchUrl(query, 1, language, 1);
+        logger.info("并发搜索单部电影，URL: {}", url);
+
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .<MovieListResponseVo>handle(PeliplatReactiveMovieSearchServiceImpl::decodeDetailSearch)
+                .mapNotNull(responseVo -> responseVo.getResult().isEmpty() ? null : responseVo.getResult().get(0))
+                .onErrorResume(e -> {
+                    logger.error("并发搜索电影出错，查询条件：{}, 语言：{}", query, language, e);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Flux<MovieDetailVo> concurrentSearchMovies(List<String> queries, String language) {
+        if (CollectionUtils.isEmpty(queries)) {
+            return Flux.empty();
+        }
+        int parallelism = Math.max(1, peliplatProperties.getSearch().getConcurrentSearchParallelism());
+        return Flux.fromIterable(queries)
+                .flatMapSequential(query -> searchSingleMovie(query, language), parallelism);
+    }
+
+    @Override
+    public Mono<MovieListResponseVo> concurrentSearchMoviesForVo(List<String> queries, String language) {
+        if (CollectionUtils.isEmpty(queries)) {
+            return Mono.just(PeliplatApiSupport.createEmptyResponse());
+        }
+
+        logger.info("并发搜索电影列表，查询条件：{}, 语言：{}", queries, language);
+
+        return concurrentSearchMovies(queries, language)
+                .collectList()
+                .map(PeliplatApiSupport::mergeConcurrentResults)
+                .doOnNext(merged -> logger.info("并发搜索电影完成，共获取到 {} 部电影", merged.getCount()))
+                .onErrorResume(e -> {
+                    logger.error("并发搜索电影出现异常，查询条件：{}, 语言：{}", queries, language, e);
+                    return Mono.just(PeliplatApiSupport.createEmptyResponse());
+                });
+    }
+
+    /**
+     * 调用搜索API，上游失败或响应体为空时以PeliplatApiException结束
+     */
+    Mono<MovieListResponseVo> fetchMoviesByQuery(String query, String language, int pageSize) {
+        String url = PeliplatApiSupport.buildSearchUrl(query, 1, language, pageSize);
+        logger.info("Searching movies with URL: {}", url);
+
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .<MovieListResponseVo>handle(PeliplatReactiveMovieSearchServiceImpl::decodeDetailSearch)
+                .switchIfEmpty(Mono.error(() ->
+                        new PeliplatApiException("Failed to search movies, empty response body")))
+                .onErrorMap(e -> !(e instanceof PeliplatApiException),
+                        e -> new PeliplatApiException("Failed to search movies: " + e.getMessage(), e));
+    }
+
+    /**
+     * 调用库列表API按年份和类型筛选，上游失败时以PeliplatApiException结束
+     */
+    Mono<MovieListResponseVo> fetchMoviesByYearAndGenre(String year, String genre, String language, int pageId,
+                                                        int pageSize) {
+        logger.info("Searching movies by year and genre with URL: {}, page: {}", PELIPLAT_LIBRARY_API_URL, pageId);
+        return postLibrary(PeliplatApiSupport.buildYearAndGenreForm(year, genre, language, pageId, pageSize));
+    }
+
+    /**
+     * 调用库列表API获取本周热门电影，上游失败时以PeliplatApiException结束
+     */
+    Mono<MovieListResponseVo> fetchPopularMoviesThisWeek(String language, int pageSize) {
+        logger.info("Fetching popular movies this week with URL: {}", PELIPLAT_LIBRARY_API_URL);
+        return postLibrary(PeliplatApiSupport.buildPopularMoviesForm(language, pageSize));
+    }
+
+    /**
+     * 流式解码detailSearch响应，响应体为空时不发出元素
+     */
+    private static void decodeDetailSearch(byte[] body, SynchronousSink<MovieListResponseVo> sink) {
+        try {
+            MovieListResponseVo responseVo = DetailSearchDecoder.decode(body);
+            if (responseVo != null) {
+                sink.next(responseVo);
+            }
+        } catch (IOException e) {
+            sink.error(e);
+        }
+    }
+
+    /**
+     * 以表单方式调用库列表API，上游失败或响应体为空时以PeliplatApiException结束
+     */
+    private Mono<MovieListResponseVo> postLibrary(byte[] form) {
+        return webClient.post()
+                .uri(PELIPLAT_LIBRARY_API_URL)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .bodyValue(form)
+                .retrieve()
+                .bodyToMono(MovieListResponseVo.class)
+                .switchIfEmpty(Mono.error(() ->
+                        new PeliplatApiException("Failed to list library, empty response body")))
+                .onErrorMap(e -> !(e instanceof PeliplatApiException),
+                        e -> new PeliplatApiException("Failed to list library: " + e.getMessage(), e));
+    }
+}
@@ -0,0 +1,99 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieListResponseVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本周热门电影后台刷新任务
+ * 启动后立即为所有配置的语言拉取热门列表，之后按固定间隔加随机抖动定期刷新，
+ * 避免多个节点在同一时刻同时请求PeliPlat
+ */
+@Component
+public class PopularMoviesRefresher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularMoviesRefresher.class);
+
+    private final PeliplatMovieSearchServiceImpl movieSearchService;
+    private final PopularMoviesSnapshot snapshot;
+    private final PeliplatProperties.Popular config;
+    private final ScheduledExecutorService scheduler;
+
+    public PopularMoviesRefresher(PeliplatMovieSearchServiceImpl movieSearchService,
+                                  PopularMoviesSnapshot snapshot,
+                                  PeliplatProperties peliplatProperties) {
+        this.movieSearchService = movieSearchService;
+        this.snapshot = snapshot;
+        this.config = peliplatProperties.getPopular();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("popular-refresher-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            logger.info("本周热门电影后台刷新已关闭");
+            return;
+        }
+        scheduler.execute(this::refreshAndReschedule);
+    }
+
+    /**
+     * 刷新所有语言的热门列表；单个语言失败时保留旧快照
+     */
+    public void refreshAll() {
+        List<String> languages = config.getLanguages();
+        for (String language : languages) {
+            try {
+                MovieListResponseVo movies = movieSearchService.fetchPopularMoviesThisWeek(language);
+                if (movies.getResult() != null && !movies.getResult().isEmpty()) {
+                    snapshot.put(language, movies);
+                    logger.info("本周热门电影快照已刷新，语言: {}, 数量: {}", language, movies.getResult().size());
+                } else {
+                    logger.warn("本周热门电影返回为空，保留旧快照，语言: {}", language);
+                }
+            } catch (Exception e) {
+                logger.error("刷新本周热门电影失败，保留旧快照，语言: {}", language, e);
+            }
+        }
+    }
+
+    private void refreshAndReschedule() {
+        try {
+            refreshAll();
+        } finally {
+            if (!scheduler.isShutdown()) {
+                long delay = nextDelaySeconds();
+                scheduler.schedule(this::refreshAndReschedule, delay, TimeUnit.SECONDS);
+                logger.debug("下次刷新本周热门电影将在 {} 秒后", delay);
+            }
+        }
+    }
+
+    /**
+     * 刷新间隔加上[-jitter, +jitter]范围内的随机抖动
+     */
+    private long nextDelaySeconds() {
+        long jitter = config.getJitterSeconds();
+        long offset = jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0;
+        return Math.max(1, config.getRefreshIntervalSeconds() + offset);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
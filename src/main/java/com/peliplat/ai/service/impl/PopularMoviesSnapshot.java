@@ -0,0 +1,59 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieListResponseVo;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本周热门电影快照
+ * 按语言（去除首尾空白并转小写）保存后台预先拉取的热门电影列表，请求直接从内存读取
+ */
+@Component
+public class PopularMoviesSnapshot {
+
+    private final Map<String, Entry> snapshots = new ConcurrentHashMap<>();
+    private final Duration maxStaleness;
+
+    public PopularMoviesSnapshot(PeliplatProperties peliplatProperties) {
+        this.maxStaleness = Duration.ofSeconds(peliplatProperties.getPopular().getMaxStalenessSeconds());
+    }
+
+    /**
+     * 获取指定语言的快照，不存在或超过最大陈旧时间时返回null
+     */
+    public MovieListResponseVo get(String language) {
+        Entry entry = snapshots.get(languageKey(language));
+        if (entry == null || entry.refreshedAt().plus(maxStaleness).isBefore(Instant.now())) {
+            return null;
+        }
+        return entry.movies();
+    }
+
+    /**
+     * 替换指定语言的快照
+     */
+    public void put(String language, MovieListResponseVo movies) {
+        snapshots.put(languageKey(language), new Entry(movies, Instant.now()));
+    }
+
+    /**
+     * 指定语言快照的刷新时间，没有快照时返回null
+     */
+    public Instant refreshedAt(String language) {
+        Entry entry = snapshots.get(languageKey(language));
+        return entry != null ? entry.refreshedAt() : null;
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(MovieListResponseVo movies, Instant refreshedAt) {
+    }
+}
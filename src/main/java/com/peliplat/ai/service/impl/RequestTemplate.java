@@ -0,0 +1,149 @@
+package com.peliplat.ai.service.impl;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预编译的请求模板
+ * 启动时把固定参数拼接成常量片段，每次请求只按顺序填入可变参数（关键词、语言、年份、类型、页码等），
+ * 不再为每次请求构建UriComponentsBuilder或LinkedMultiValueMap。实例不可变，可在线程间共享。
+ * <p>
+ * 值为null的参数只输出参数名，与UriComponentsBuilder和FormHttpMessageConverter的行为一致
+ */
+final class RequestTemplate {
+
+    /**
+     * literals[i]位于第i个可变参数之前（以参数名结尾），最后一个元素是末尾的常量片段
+     */
+    private final String[] literals;
+    private final boolean[] encoded;
+    private final int literalLength;
+
+    private RequestTemplate(List<String> literals, List<Boolean> encoded) {
+        this.literals = literals.toArray(new String[0]);
+        this.encoded = new boolean[encoded.size()];
+        for (int i = 0; i < this.encoded.length; i++) {
+            this.encoded[i] = encoded.get(i);
+        }
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * URL查询串模板：参数名和常量按原样输出（与UriComponentsBuilder.build().toUriString()一致）
+     */
+    static Builder query(String baseUrl) {
+        return new Builder(baseUrl + "?", false);
+    }
+
+    /**
+     * application/x-www-form-urlencoded表单模板：参数名和常量按表单规则编码
+     */
+    static Builder form() {
+        return new Builder("", true);
+    }
+
+    /**
+     * 可变参数个数
+     */
+    int variableCount() {
+        return encoded.length;
+    }
+
+    /**
+     * 按声明顺序填入可变参数
+     */
+    String expand(String... values) {
+        if (values.length != encoded.length) {
+            throw new IllegalArgumentException("Expected " + encoded.length + " values but got " + values.length);
+        }
+        StringBuilder builder = new StringBuilder(literalLength + 16 * values.length);
+        for (int i = 0; i < values.length; i++) {
+            builder.append(literals[i]);
+            String value = values[i];
+            if (value != null) {
+                builder.append('=').append(encoded[i] ? encode(value) : value);
+            }
+        }
+        return builder.append(literals[values.length]).toString();
+    }
+
+    /**
+     * 按声明顺序填入可变参数，返回UTF-8字节（用作表单请求体）
+     */
+    byte[] expandToBytes(String... values) {
+        return expand(values).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 模板构建器，参数按调用顺序输出
+     */
+    static final class Builder {
+        private final boolean encodeConstants;
+        private final StringBuilder pending;
+        private final List<String> literals = new ArrayList<>();
+        private final List<Boolean> encoded = new ArrayList<>();
+        private boolean first = true;
+
+        private Builder(String prefix, boolean encodeConstants) {
+            this.pending = new StringBuilder(prefix);
+            this.encodeConstants = encodeConstants;
+        }
+
+        /**
+         * 固定参数
+         */
+        Builder constant(String name, String value) {
+            appendName(name);
+            if (value != null) {
+                pending.append('=').append(encodeConstants ? encode(value) : value);
+            }
+            return this;
+        }
+
+        /**
+         * 可变参数，填入时做URL编码
+         */
+        Builder variable(String name) {
+            return variable(name, true);
+        }
+
+        /**
+         * 可变参数，填入时按原样输出（调用方保证内容合法）
+         */
+        Builder rawVariable(String name) {
+            return variable(name, false);
+        }
+
+        private Builder variable(String name, boolean encode) {
+            appendName(name);
+            literals.add(pending.toString());
+            encoded.add(encode);
+            pending.setLength(0);
+            return this;
+        }
+
+        private void appendName(String name) {
+            if (!first) {
+                pending.append('&');
+            }
+            first = false;
+            pending.append(encodeConstants ? encode(name) : name);
+        }
+
+        RequestTemplate build() {
+            List<String> allLiterals = new ArrayList<>(literals);
+            allLiterals.add(pending.toString());
+            return new RequestTemplate(allLiterals, encoded);
+        }
+    }
+}
@@ -6,7 +6,7 @@ import java.util.Map;
 
 /**
  * 电影类型常量类
- * 提供电影类型ID和名称的映射关系
+ * 提供电影类型ID和名称的映射关系，作为内置的默认类型分类表；运行时以GenreCatalog加载和刷新的分类表为准
  */
 public class MovieGenreConstants {
 
@@ -16,10 +16,25 @@ public class MovieGenreConstants {
     public static final Map<String, String> GENRE_ID_TO_NAME_MAP;
 
     /**
-     * 电影类型名称到ID的映射
+     * 电影类型ID到中文名称的映射
+     */
+    public static final Map<String, String> GENRE_ID_TO_LOCAL_NAME_MAP;
+
+    /**
+     * 电影类型名称（英文和中文）到ID的映射
      */
     public static final Map<String, String> GENRE_NAME_TO_ID_MAP;
 
+    /**
+     * 子类型ID到父类型ID的映射
+     */
+    public static final Map<String, String> GENRE_PARENT_ID_MAP;
+
+    /**
+     * 类型别名到类型名称的映射，一个别名可对应多个类型（逗号分隔）
+     */
+    public static final Map<String, String> GENRE_ALIAS_MAP;
+
     /**
      * 电影类型展示名称到ID的映射（基于JSON树形结构）
      */
@@ -27,7 +42,10 @@ public class MovieGenreConstants {
 
     static {
         Map<String, String> idToNameMap = new HashMap<>();
+        Map<String, String> idToLocalNameMap = new HashMap<>();
         Map<String, String> nameToIdMap = new HashMap<>();
+        Map<String, String> parentIdMap = new HashMap<>();
+        Map<String, String> aliasMap = new HashMap<>();
         Map<String, String> displayNameToIdMap = new HashMap<>();
 
         // 基本类型
@@ -124,35 +142,35 @@ public class MovieGenreConstants {
         idToNameMap.put("tg20012755", "Future");
         idToNameMap.put("tg20012585", "Space opera");
 
-        // 为了中文用户，添加中文名称映射
-        idToNameMap.put("1", "动作");
-        idToNameMap.put("2", "冒险");
-        idToNameMap.put("3", "动画");
-        idToNameMap.put("4", "喜剧");
-        idToNameMap.put("5", "犯罪");
-        idToNameMap.put("6", "纪录片");
-        idToNameMap.put("7", "剧情");
-        idToNameMap.put("8", "家庭");
-        idToNameMap.put("9", "奇幻");
-        idToNameMap.put("11", "历史");
-        idToNameMap.put("12", "恐怖");
-        idToNameMap.put("13", "音乐");
-        idToNameMap.put("14", "悬疑");
-        idToNameMap.put("15", "爱情");
-        idToNameMap.put("18", "惊悚");
-        idToNameMap.put("19", "战争");
-        idToNameMap.put("20", "西部");
-        idToNameMap.put("101", "科幻");
-        idToNameMap.put("102", "真人秀");
-        idToNameMap.put("103", "传记");
-        idToNameMap.put("104", "黑色电影");
-        idToNameMap.put("105", "音乐剧");
-        idToNameMap.put("106", "游戏节目");
-        idToNameMap.put("107", "脱口秀");
-        idToNameMap.put("108", "新闻");
-        idToNameMap.put("109", "成人");
-        idToNameMap.put("110", "体育");
-        idToNameMap.put("111", "短片");
+        // 中文名称（与英文名称分开保存，避免覆盖）
+        idToLocalNameMap.put("1", "动作");
+        idToLocalNameMap.put("2", "冒险");
+        idToLocalNameMap.put("3", "动画");
+        idToLocalNameMap.put("4", "喜剧");
+        idToLocalNameMap.put("5", "犯罪");
+        idToLocalNameMap.put("6", "纪录片");
+        idToLocalNameMap.put("7", "剧情");
+        idToLocalNameMap.put("8", "家庭");
+        idToLocalNameMap.put("9", "奇幻");
+        idToLocalNameMap.put("11", "历史");
+        idToLocalNameMap.put("12", "恐怖");
+        idToLocalNameMap.put("13", "音乐");
+        idToLocalNameMap.put("14", "悬疑");
+        idToLocalNameMap.put("15", "爱情");
+        idToLocalNameMap.put("18", "惊悚");
+        idToLocalNameMap.put("19", "战争");
+        idToLocalNameMap.put("20", "西部");
+        idToLocalNameMap.put("101", "科幻");
+        idToLocalNameMap.put("102", "真人秀");
+        idToLocalNameMap.put("103", "传记");
+        idToLocalNameMap.put("104", "黑色电影");
+        idToLocalNameMap.put("105", "音乐剧");
+        idToLocalNameMap.put("106", "游戏节目");
+        idToLocalNameMap.put("107", "脱口秀");
+        idToLocalNameMap.put("108", "新闻");
+        idToLocalNameMap.put("109", "成人");
+        idToLocalNameMap.put("110", "体育");
+        idToLocalNameMap.put("111", "短片");
 
         // 添加电影类型展示名称到ID的映射
         displayNameToIdMap.put("Comedy", "1901930552914399242");
@@ -202,13 +220,121 @@ public class MovieGenreConstants {
         displayNameToIdMap.put("Biography", "1901930552918593865");
         displayNameToIdMap.put("Musical", "1901930552918593861");
 
+        // 子类型的父类型（按上面的分组）
+        for (String id : new String[]{"tg20012692", "tg20012536", "tg20015561", "tg20015517", "tg20012643",
+                "tg20015334", "tg20014457", "tg20012943", "tg20014868", "tg20012892"}) {
+            parentIdMap.put(id, "4");
+        }
+        for (String id : new String[]{"tg20013116", "tg20014315", "tg20012947", "tg20014347", "tg20014241",
+                "tg20015321", "tg20012614", "tg20013895", "tg20014937"}) {
+            parentIdMap.put(id, "15");
+        }
+        for (String id : new String[]{"tg20014278", "tg20012624", "tg20012552", "tg20015747", "tg20013249",
+                "tg20013061", "tg20014289", "tg20013385", "tg20013005", "tg20013198"}) {
+            parentIdMap.put(id, "1");
+        }
+        for (String id : new String[]{"tg20012557", "tg20012558", "tg20014264", "tg20013007", "tg20012663",
+                "tg20015241", "tg20015494", "tg20012608", "tg20014451", "tg20014447", "tg20014832", "tg20014458",
+                "tg20013653"}) {
+            parentIdMap.put(id, "12");
+        }
+        for (String id : new String[]{"tg20013667", "tg20012583", "tg20012588", "tg20013253", "tg20012629",
+                "tg20012584", "tg20012587", "tg20012659", "tg20013288", "tg20013480", "tg20012755", "tg20012585"}) {
+            parentIdMap.put(id, "101");
+        }
+
+        // 常见别名（大小写、空格和连字符差异在解析时统一处理，这里只需列出不同的写法）
+        aliasMap.put("Science Fiction", "Sci-Fi");
+        aliasMap.put("SciFi", "Sci-Fi");
+        aliasMap.put("SF", "Sci-Fi");
+        aliasMap.put("Animated", "Animation");
+        aliasMap.put("Cartoon", "Animation");
+        aliasMap.put("Anime", "Animation");
+        aliasMap.put("卡通", "Animation");
+        aliasMap.put("动漫", "Animation");
+        aliasMap.put("Romantic", "Romance");
+        aliasMap.put("Love", "Romance");
+        aliasMap.put("浪漫", "Romance");
+        aliasMap.put("Romantic Comedy", "Rom-com");
+        aliasMap.put("RomCom", "Rom-com");
+        aliasMap.put("爱情喜剧", "Rom-com");
+        aliasMap.put("浪漫喜剧", "Rom-com");
+        aliasMap.put("动作喜剧", "Action Comedy");
+        aliasMap.put("Black Comedy", "Dark humor");
+        aliasMap.put("Dark Comedy", "Dark humor");
+        aliasMap.put("黑色幽默", "Dark humor");
+        aliasMap.put("Biopic", "Biography");
+        aliasMap.put("Biographical", "Biography");
+        aliasMap.put("Noir", "Film-Noir");
+        aliasMap.put("Sports", "Sport");
+        aliasMap.put("运动", "Sport");
+        aliasMap.put("Historical", "History");
+        aliasMap.put("Period", "History");
+        aliasMap.put("古装", "History");
+        aliasMap.put("Suspense", "Mystery");
+        aliasMap.put("推理", "Mystery");
+        aliasMap.put("Scary", "Horror");
+        aliasMap.put("惊悚恐怖", "Horror,Thriller");
+        aliasMap.put("Crime Thriller", "Crime,Thriller");
+        aliasMap.put("Docs", "Documentary");
+        aliasMap.put("纪录", "Documentary");
+        aliasMap.put("Musicals", "Musical");
+        aliasMap.put("歌舞", "Musical");
+        aliasMap.put("Cowboy", "Western");
+        aliasMap.put("Family Friendly", "Family");
+        aliasMap.put("合家欢", "Family");
+        aliasMap.put("儿童", "Kids");
+        aliasMap.put("青春", "Teen");
+        aliasMap.put("史诗", "Epic");
+        aliasMap.put("灾难", "Disaster");
+        aliasMap.put("革命", "History,War");
+        aliasMap.put("Spy", "Spy film");
+        aliasMap.put("Espionage", "Spy film");
+        aliasMap.put("间谍", "Spy film");
+        aliasMap.put("Kung Fu", "Martial Arts");
+        aliasMap.put("功夫", "Martial Arts");
+        aliasMap.put("武侠", "Martial Arts");
+        aliasMap.put("武术", "Martial Arts");
+        aliasMap.put("Revenge", "Revenge/Vengeance");
+        aliasMap.put("复仇", "Revenge/Vengeance");
+        aliasMap.put("Slasher", "Slasher Horror");
+        aliasMap.put("Zombie", "Zombie Apocalypse");
+        aliasMap.put("Zombies", "Zombie Apocalypse");
+        aliasMap.put("丧尸", "Zombie Apocalypse");
+        aliasMap.put("僵尸", "Zombie Apocalypse");
+        aliasMap.put("鬼屋", "Haunted house");
+        aliasMap.put("Vampires", "Vampire");
+        aliasMap.put("吸血鬼", "Vampire");
+        aliasMap.put("狼人", "Werewolf");
+        aliasMap.put("AI", "Artificial Intelligence");
+        aliasMap.put("人工智能", "Artificial Intelligence");
+        aliasMap.put("Dystopia", "Dystopian");
+        aliasMap.put("反乌托邦", "Dystopian");
+        aliasMap.put("时间旅行", "Time travel");
+        aliasMap.put("穿越", "Time travel");
+        aliasMap.put("Alien", "Alien invasion");
+        aliasMap.put("Aliens", "Alien invasion");
+        aliasMap.put("外星人", "Alien invasion");
+        aliasMap.put("平行宇宙", "Parallel Universes/Realities");
+        aliasMap.put("Space", "Space travel");
+        aliasMap.put("太空", "Space travel");
+        aliasMap.put("赛博朋克", "Cyberpunk");
+        aliasMap.put("科幻恐怖", "Sci-fi horror");
+        aliasMap.put("太空歌剧", "Space opera");
+
         // 创建映射关系
         for (Map.Entry<String, String> entry : idToNameMap.entrySet()) {
             nameToIdMap.put(entry.getValue(), entry.getKey());
         }
+        for (Map.Entry<String, String> entry : idToLocalNameMap.entrySet()) {
+            nameToIdMap.put(entry.getValue(), entry.getKey());
+        }
 
         GENRE_ID_TO_NAME_MAP = Collections.unmodifiableMap(idToNameMap);
+        GENRE_ID_TO_LOCAL_NAME_MAP = Collections.unmodifiableMap(idToLocalNameMap);
         GENRE_NAME_TO_ID_MAP = Collections.unmodifiableMap(nameToIdMap);
+        GENRE_PARENT_ID_MAP = Collections.unmodifiableMap(parentIdMap);
+        GENRE_ALIAS_MAP = Collections.unmodifiableMap(aliasMap);
         GENRE_DISPLAY_NAME_TO_ID_MAP = Collections.unmodifiableMap(displayNameToIdMap);
     }
 
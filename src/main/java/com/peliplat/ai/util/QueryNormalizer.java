@@ -0,0 +1,115 @@
+package com.peliplat.ai.util;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 查询条件归一化工具类
+ * 用于生成缓存键和请求合并键：同一部电影的不同写法（大小写、全角半角、多余空白、标点、繁简体）
+ * 归一化后得到相同的键，从而共享缓存和进行中的请求。只用于生成键，发给PeliPlat的仍是原始查询
+ */
+public final class QueryNormalizer {
+
+    private static final Pattern APOSTROPHE = Pattern.compile("['\u2019]");
+    private static final Pattern PUNCTUATION = Pattern.compile("\\p{P}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // 中日韩文字之间的空白没有分词意义，"哈利·波特"与"哈利波特"应得到相同的键
+    private static final Pattern CJK_GAP = Pattern.compile(
+            "(?<=[\\p{IsHan}\\p{IsHiragana}\\p{IsKatakana}\\p{IsHangul}]) (?=[\\p{IsHan}\\p{IsHiragana}\\p{IsKatakana}\\p{IsHangul}])");
+
+    /**
+     * 常用繁体字 -> 简体字（一一对应的部分，覆盖片名中的常见字）
+     */
+    private static final String TRADITIONAL =
+            "愛罷備貝筆畢邊變標別賓補財參蠶倉層產長場廠車徹塵陳稱誠遲齒衝蟲醜處傳創詞從聰錯達帶單擔膽當黨導燈敵遞" +
+            "點電釣調東動鬥獨讀斷隊對噸奪兒爾發髮罰範飛費豐風鳳婦復負該蓋幹趕剛鋼綱個給鞏貢溝構購穀顧關觀館廣歸龜" +
+            "櫃國過漢號轟後護華畫劃話懷壞歡環還換黃揮輝會匯夥貨獲機擊積極幾際紀記計濟繼價駕堅間監簡見劍艦將獎講醬" +
+            "膠腳餃覺較階節結潔屆緊盡進驚經鏡競舊舉劇據絕軍開凱殼課墾懇誇塊寬礦虧擴蘭藍欄爛勞樂淚類離禮裡裏歷曆麗" +
+            "厲勵連聯戀煉練糧兩輛諒遼獵臨鄰靈嶺領劉龍樓錄陸驢綠亂輪論羅邏馬碼買賣麥麵滿貓門們夢彌謎綿滅鳴謀畝納難" +
+            "腦鬧內擬鳥寧農濃諾歐盤賠噴鵬騙飄頻評蘋憑撲齊騎豈啟氣棄牽鉛錢淺槍牆搶橋僑親輕傾慶窮區軀權勸確讓饒熱認" +
+            "榮軟銳潤灑薩賽傘喪掃殺傷燒紹設攝紳審聖勝聲繩濕師詩時實識勢試視適釋壽書屬術數帥雙誰稅順說碩絲飼鬆頌訴" +
+            "肅雖隨歲孫損鎖臺颱態歎湯討騰題體條鐵聽廳頭圖團萬網為偉衛韋溫聞問穩烏無霧務誤犧習係繫細戲蝦嚇鮮閒險顯" +
+            "縣現獻線鄉響項蕭銷曉協寫謝興選學尋訓壓鴉亞煙嚴鹽顏驗陽揚養樣藥爺葉業頁醫遺儀億藝議異陰銀隱飲應營贏擁" +
+            "傭優憂郵遊魚與語預獄園員圓緣遠願約躍閱雲運雜災載讚髒棗責擇賊則贈紮齋戰張漲帳賬趙這針偵診陣鎮爭徵證織" +
+            "職執紙誌製質鐘鍾種眾週晝豬諸燭囑築專轉莊裝壯狀準資總縱鑽蹤組鄒劑俠寶龐濤獸獅終飆駭諜巔於鬱祕隻嗎麼來" +
+            "戶廟屍殭憶橫漁燦紅樹島灣誕韓義闖鋒鑰緝兇猶啓楊葦驅虛擠墮倫魯僅湧顆奮憤擾夠閃燁鍵徑輯搖滾滬漸臥";
+    private static final String SIMPLIFIED =
+            "爱罢备贝笔毕边变标别宾补财参蚕仓层产长场厂车彻尘陈称诚迟齿冲虫丑处传创词从聪错达带单担胆当党导灯敌递" +
+            "点电钓调东动斗独读断队对吨夺儿尔发发罚范飞费丰风凤妇复负该盖干赶刚钢纲个给巩贡沟构购谷顾关观馆广归龟" +
+            "柜国过汉号轰后护华画划话怀坏欢环还换黄挥辉会汇伙货获机击积极几际纪记计济继价驾坚间监简见剑舰将奖讲酱" +
+            "胶脚饺觉较阶节结洁届紧尽进惊经镜竞旧举剧据绝军开凯壳课垦恳夸块宽矿亏扩兰蓝栏烂劳乐泪类离礼里里历历丽" +
+            "厉励连联恋炼练粮两辆谅辽猎临邻灵岭领刘龙楼录陆驴绿乱轮论罗逻马码买卖麦面满猫门们梦弥谜绵灭鸣谋亩纳难" +
+            "脑闹内拟鸟宁农浓诺欧盘赔喷鹏骗飘频评苹凭扑齐骑岂启气弃牵铅钱浅枪墙抢桥侨亲轻倾庆穷区躯权劝确让饶热认" +
+            "荣软锐润洒萨赛伞丧扫杀伤烧绍设摄绅审圣胜声绳湿师诗时实识势试视适释寿书属术数帅双谁税顺说硕丝饲松颂诉" +
+            "肃虽随岁孙损锁台台态叹汤讨腾题体条铁听厅头图团万网为伟卫韦温闻问稳乌无雾务误牺习系系细戏虾吓鲜闲险显" +
+            "县现献线乡响项萧销晓协写谢兴选学寻训压鸦亚烟严盐颜验阳扬养样药爷叶业页医遗仪亿艺议异阴银隐饮应营赢拥" +
+            "佣优忧邮游鱼与语预狱园员圆缘远愿约跃阅云运杂灾载赞脏枣责择贼则赠扎斋战张涨帐账赵这针侦诊阵镇争征证织" +
+            "职执纸志制质钟钟种众周昼猪诸烛嘱筑专转庄装壮状准资总纵钻踪组邹剂侠宝庞涛兽狮终飙骇谍巅于郁秘只吗么来" +
+            "户庙尸僵忆横渔灿红树岛湾诞韩义闯锋钥缉凶犹启杨苇驱虚挤堕伦鲁仅涌颗奋愤扰够闪烨键径辑摇滚沪渐卧";
+
+    private static final Map<Character, Character> TRADITIONAL_TO_SIMPLIFIED = new HashMap<>();
+
+    static {
+        for (int i = 0; i < TRADITIONAL.length(); i++) {
+            TRADITIONAL_TO_SIMPLIFIED.put(TRADITIONAL.charAt(i), SIMPLIFIED.charAt(i));
+        }
+    }
+
+    private QueryNormalizer() {
+    }
+
+    /**
+     * 归一化查询条件：NFKC、大小写折叠、去除标点、合并空白
+     *
+     * @param query 原始查询条件
+     * @return 归一化后的查询条件，null返回空字符串
+     */
+    public static String normalize(String query) {
+        return normalize(query, false);
+    }
+
+    /**
+     * 归一化查询条件
+     *
+     * @param query           原始查询条件
+     * @param foldTraditional 是否将繁体字折叠为简体字
+     * @return 归一化后的查询条件，null返回空字符串
+     */
+    public static String normalize(String query, boolean foldTraditional) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        // NFKC：全角字母数字和标点转半角，兼容字符统一
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC);
+        // 先转大写再转小写，近似Unicode大小写折叠（如ß与SS）
+        normalized = normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        if (foldTraditional) {
+            normalized = foldTraditional(normalized);
+        }
+        // 撇号直接去掉而不是替换为空格："Schindler's"与"Schindlers"相同
+        normalized = APOSTROPHE.matcher(normalized).replaceAll("");
+        normalized = PUNCTUATION.matcher(normalized).replaceAll(" ");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return CJK_GAP.matcher(normalized).replaceAll("");
+    }
+
+    /**
+     * 将繁体字折叠为简体字，不在对照表中的字符保持不变
+     */
+    public static String foldTraditional(String value) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            Character simplified = TRADITIONAL_TO_SIMPLIFIED.get(value.charAt(i));
+            if (simplified != null) {
+                if (builder == null) {
+                    builder = new StringBuilder(value);
+                }
+                builder.setCharAt(i, simplified);
+            }
+        }
+        return builder != null ? builder.toString() : value;
+    }
+}
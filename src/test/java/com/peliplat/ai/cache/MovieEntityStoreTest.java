@@ -0,0 +1,66 @@
+package com.peliplat.ai.cache;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MovieEntityStore 测试用例
+ */
+class MovieEntityStoreTest {
+
+    private final MovieEntityStore store = new MovieEntityStore(new PeliplatProperties());
+
+    @Test
+    void testQueryFieldsStayWithEachList() {
+        // 准备测试数据 - 同一部电影先后出现在两个关键词搜索结果中，relateType不同
+        MovieEntityStore.MovieRefs first = store.dehydrate(list(movie("mv1", "title", 1)), CacheRegion.QUERY, "en");
+        MovieEntityStore.MovieRefs second = store.dehydrate(list(movie("mv1", "actor", 3)), CacheRegion.QUERY, "en");
+
+        // 执行测试
+        MovieDetailVo fromFirst = store.hydrate(first, CacheRegion.QUERY, "en").getResult().get(0);
+        MovieDetailVo fromSecond = store.hydrate(second, CacheRegion.QUERY, "en").getResult().get(0);
+
+        // 验证结果 - 后一次加载不影响前一个列表中的relateType和rank
+        assertEquals("title", fromFirst.getRelateType());
+        assertEquals(1, fromFirst.getRank());
+        assertEquals("actor", fromSecond.getRelateType());
+        assertEquals(3, fromSecond.getRank());
+        assertSame(fromSecond, store.get("mv1", CacheRegion.QUERY, "en"));
+    }
+
+    @Test
+    void testSourcesDoNotOverwriteEachOther() {
+        // 准备测试数据 - detailSearch结果带有剧情关键词，listMedias结果没有
+        MovieDetailVo detailed = movie("mv1", "title", 0);
+        detailed.setPlotKeywords(List.of("dream"));
+        MovieEntityStore.MovieRefs query = store.dehydrate(list(detailed), CacheRegion.QUERY, "en");
+        MovieEntityStore.MovieRefs popular = store.dehydrate(list(movie("mv1", null, 5)), CacheRegion.POPULAR, "en");
+
+        // 执行测试 & 验证结果 - 同为listMedias来源的分区共享实体
+        assertEquals(List.of("dream"), store.hydrate(query, CacheRegion.QUERY, "en").getResult().get(0).getPlotKeywords());
+        assertNull(store.hydrate(popular, CacheRegion.POPULAR, "en").getResult().get(0).getPlotKeywords());
+        assertSame(store.get("mv1", CacheRegion.POPULAR, "en"), store.get("mv1", CacheRegion.YEAR_GENRE, "en"));
+    }
+
+    private static MovieDetailVo movie(String ppId, String relateType, int rank) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle("Inception");
+        movie.setRelateType(relateType);
+        movie.setRank(rank);
+        return movie;
+    }
+
+    private static MovieListResponseVo list(MovieDetailVo movie) {
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setResult(List.of(movie));
+        responseVo.setCount(1);
+        return responseVo;
+    }
+}
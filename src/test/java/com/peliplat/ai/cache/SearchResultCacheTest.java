@@ -0,0 +1,65 @@
+package com.peliplat.ai.cache;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.service.MovieSearchExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SearchResultCache 测试用例
+ */
+class SearchResultCacheTest {
+
+    @Test
+    void testEmptyRefreshReplacesStaleResult() throws InterruptedException {
+        // 准备测试数据 - 条目写入后立即过期，读取时返回旧值并后台刷新
+        PeliplatProperties properties = new PeliplatProperties();
+        properties.getCache().setQueryTtlSeconds(0);
+        properties.getDiskCache().setEnabled(false);
+        MovieSearchExecutor executor = new MovieSearchExecutor(properties);
+        SearchResultCache cache = new SearchResultCache(properties, executor, new DiskSearchCache(properties),
+                new MovieEntityStore(properties));
+        SearchCacheKey key = SearchCacheKey.of("inception", "en", 1);
+        cache.get(CacheRegion.QUERY, key, () -> list("mv1"));
+        AtomicInteger emptyLoads = new AtomicInteger();
+
+        try {
+            // 执行测试 - 上游此后只返回空结果
+            MovieListResponseVo result = cache.get(CacheRegion.QUERY, key, () -> {
+                emptyLoads.incrementAndGet();
+                return list();
+            });
+            for (int i = 0; i < 100 && emptyLoads.get() == 0; i++) {
+                Thread.sleep(20);
+            }
+            Thread.sleep(50);
+
+            // 验证结果 - 刷新前返回旧值，刷新后旧值作废，由空结果缓存回答且不再调用上游
+            assertEquals("mv1", result.getResult().get(0).getPpId());
+            assertTrue(cache.get(CacheRegion.QUERY, key, () -> list("mv2")).getResult().isEmpty());
+            assertEquals(1, emptyLoads.get());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private static MovieListResponseVo list(String... ppIds) {
+        List<MovieDetailVo> movies = new ArrayList<>();
+        for (String ppId : ppIds) {
+            MovieDetailVo movie = new MovieDetailVo();
+            movie.setPpId(ppId);
+            movies.add(movie);
+        }
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setResult(movies);
+        responseVo.setCount(movies.size());
+        return responseVo;
+    }
+}
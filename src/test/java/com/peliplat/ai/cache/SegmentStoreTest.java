@@ -0,0 +1,92 @@
+package com.peliplat.ai.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SegmentStore 测试用例
+ */
+class SegmentStoreTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void testEntriesSurviveReopen() throws Exception {
+        // 准备测试数据
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, 1 << 20, clock::get)) {
+            store.put(digest("titanic"), bytes("Titanic (1997)"), clock.get() + 60_000);
+            store.put(digest("alien"), bytes("Alien (1979)"), clock.get() + 60_000);
+            store.remove(digest("alien"));
+        }
+
+        // 执行测试 - 重新打开同一目录
+        try (SegmentStore reopened = new SegmentStore(directory, SEGMENT_SIZE, 1 << 20, clock::get)) {
+            SegmentStore.Entry entry = reopened.get(digest("titanic"));
+
+            // 验证结果
+            assertNotNull(entry);
+            assertEquals("Titanic (1997)", new String(entry.value(), StandardCharsets.UTF_8));
+            assertNull(reopened.get(digest("alien")), "墓碑记录在重启后仍然生效");
+        }
+    }
+
+    @Test
+    void testExpiredEntriesAreNotReturned() throws Exception {
+        // 准备测试数据
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, 1 << 20, clock::get)) {
+            store.put(digest("titanic"), bytes("Titanic (1997)"), clock.get() + 1_000);
+
+            // 执行测试
+            clock.addAndGet(1_000);
+
+            // 验证结果
+            assertNull(store.get(digest("titanic")));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void testSizeCapAndCompaction() throws Exception {
+        // 准备测试数据 - 上限为4个段，反复覆盖同一批键
+        long maxSize = 4L * SEGMENT_SIZE;
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, maxSize, clock::get)) {
+            byte[] value = new byte[500];
+
+            // 执行测试
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < 5; i++) {
+                    store.put(digest("movie-" + i), value, clock.get() + 60_000);
+                }
+            }
+
+            // 验证结果 - 旧版本被压缩回收，最新版本全部保留
+            assertTrue(store.diskBytes() <= maxSize);
+            assertEquals(5, store.size());
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(store.get(digest("movie-" + i)));
+            }
+        }
+    }
+
+    private static byte[] digest(String key) {
+        byte[] digest = new byte[SegmentStore.DIGEST_LENGTH];
+        byte[] raw = bytes(key);
+        System.arraycopy(raw, 0, digest, 0, Math.min(raw.length, digest.length));
+        return digest;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
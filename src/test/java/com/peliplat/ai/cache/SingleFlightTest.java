@@ -0,0 +1,84 @@
+package com.peliplat.ai.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight 测试用例
+ */
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        // 准备测试数据
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        try {
+            // 执行测试 - 多个线程同时请求同一个键
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("titanic", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Titanic (1997)";
+                })));
+            }
+
+            // 等待所有调用方进入等待状态后再放行加载
+            long deadline = System.currentTimeMillis() + 5000;
+            while (singleFlight.coalescedCount() < callers - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // 验证结果
+            for (Future<String> result : results) {
+                assertEquals("Titanic (1997)", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(callers - 1, singleFlight.coalescedCount());
+            assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() {
+        // 准备测试数据
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // 执行测试 - 加载失败时异常原样抛出
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("spirited away", () -> {
+                    throw new IllegalStateException("upstream down");
+                }));
+        assertEquals("upstream down", exception.getMessage());
+
+        // 验证失败结果不会被保留，下次调用重新加载
+        assertEquals("ok", singleFlight.execute("spirited away", () -> "ok"));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
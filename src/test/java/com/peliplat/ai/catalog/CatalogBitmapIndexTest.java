@@ -0,0 +1,105 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.genre.GenreTaxonomy;
+import com.peliplat.ai.model.MovieDetailVo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CatalogBitmapIndex 测试用例
+ */
+class CatalogBitmapIndexTest {
+
+    private CatalogBitmapIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(movie("mv1", 1997, 90.0, "7.9", "Drama,Romance", "en"), 1);
+        writer.add(movie("mv2", 2001, 95.0, "8.6", "Animation,Drama", "ja"), 1);
+        writer.add(movie("mv3", 2010, 80.0, "8.8", "Action,Sci-Fi", "en,ja"), 1);
+        writer.add(movie("mv4", 2001, 70.0, null, "Romance", "ko"), 1);
+        writer.add(movie("tv1", 2001, 99.0, "9.0", "Drama", "en"), 2);
+        index = CatalogBitmapIndex.build(CatalogSnapshot.wrap(writer.toByteArray(0L)));
+    }
+
+    @Test
+    void testGenreAndOrWithYearRange() {
+        // 执行测试 & 验证结果 - 只包含电影，按热度降序
+        assertEquals(List.of("mv2", "mv1"), ppIds(query(0, 0, List.of("Drama"), true, null, CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv1"), ppIds(query(0, 0, List.of("drama", "romance"), true, null, CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv2", "mv1"), ppIds(query(0, 0, List.of("剧情"), true, null, CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv2", "mv1", "mv4"),
+                ppIds(query(0, 0, List.of("Drama", "Romance"), false, null, CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv2", "mv4"), ppIds(query(2000, 2005, null, true, null, CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv3"), ppIds(query(2005, 0, null, true, null, CatalogQuery.Sort.POPULARITY)));
+    }
+
+    @Test
+    void testLanguageFilterAndRatingSort() {
+        // 执行测试 & 验证结果 - 未知评分排在最后
+        assertEquals(List.of("mv2", "mv3"), ppIds(query(0, 0, null, true, List.of("JA"), CatalogQuery.Sort.POPULARITY)));
+        assertEquals(List.of("mv3", "mv2", "mv1", "mv4"), ppIds(query(0, 0, null, true, null, CatalogQuery.Sort.RATING)));
+        assertTrue(ppIds(query(0, 0, null, true, List.of("fr"), CatalogQuery.Sort.POPULARITY)).isEmpty());
+    }
+
+    @Test
+    void testPagingAndUnknownGenre() {
+        // 执行测试
+        CatalogBitmapIndex.Result page = index.query(new CatalogQuery(0, 0, null, true, null,
+                CatalogQuery.Sort.POPULARITY, 1, 2));
+
+        // 验证结果
+        assertEquals(4, page.totalCount());
+        assertEquals(List.of("mv1", "mv3"), ppIds(page));
+        assertNull(query(0, 0, List.of("Drama", "Western"), false, null, CatalogQuery.Sort.POPULARITY));
+    }
+
+    @Test
+    void testGenresResolvedThroughCapturedTaxonomy() {
+        // 准备测试数据 - 与当前分类表不同的一版分类表，只有它认识别名Tearjerker
+        GenreTaxonomy taxonomy = GenreTaxonomy.builder()
+                .genre("5", "Drama", "剧情", "225", null)
+                .alias("Tearjerker", "Drama")
+                .build();
+
+        // 执行测试
+        CatalogBitmapIndex captured = CatalogBitmapIndex.build(index.snapshot(), taxonomy);
+
+        // 验证结果 - 建索引和查询使用同一版分类表，与当前分类表无关
+        assertSame(taxonomy, captured.taxonomy());
+        assertEquals(2, captured.query(new CatalogQuery(0, 0, List.of("Tearjerker"), true, null,
+                CatalogQuery.Sort.POPULARITY, 0, 10)).totalCount());
+        assertNull(index.query(new CatalogQuery(0, 0, List.of("Tearjerker"), true, null,
+                CatalogQuery.Sort.POPULARITY, 0, 10)));
+    }
+
+    private CatalogBitmapIndex.Result query(int yearFrom, int yearTo, List<String> genres, boolean matchAll,
+                                            List<String> languages, CatalogQuery.Sort sort) {
+        return index.query(new CatalogQuery(yearFrom, yearTo, genres, matchAll, languages, sort, 0, 10));
+    }
+
+    private List<String> ppIds(CatalogBitmapIndex.Result result) {
+        return Arrays.stream(result.rows()).mapToObj(index.snapshot()::ppId).collect(Collectors.toList());
+    }
+
+    private static MovieDetailVo movie(String ppId, int year, double popularity, String rating, String genres,
+                                       String languageCodes) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(ppId);
+        movie.setPublicationYear(year);
+        movie.setPopularity(popularity);
+        movie.setRating(rating);
+        movie.setGenres(genres);
+        movie.setLanguageCodes(languageCodes);
+        return movie;
+    }
+}
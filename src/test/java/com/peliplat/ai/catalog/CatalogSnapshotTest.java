@@ -0,0 +1,152 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.PersonVo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CatalogSnapshot 测试用例
+ */
+class CatalogSnapshotTest {
+
+    @Test
+    void testRoundTripSortedByPopularity() throws IOException {
+        // 准备测试数据
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(movie("mv1", "Titanic", 1997, 194, 80.5, "7.9", "PG-13", "Drama,Romance"), 1);
+        writer.add(movie("mv2", "千与千寻", 2001, 125, 95.0, "8.6", null, "Animation,Drama"), 1);
+        writer.add(movie("mv3", "Unknown", null, null, null, null, null, null), 1);
+        assertFalse(writer.add(movie("mv1", "Titanic (dup)", 1997, 194, 1.0, null, null, null), 1));
+
+        // 执行测试
+        CatalogSnapshot snapshot = CatalogSnapshot.wrap(writer.toByteArray(42L));
+
+        // 验证结果 - 按热度降序，未知热度在最后
+        assertEquals(3, snapshot.size());
+        assertEquals(42L, snapshot.createdAtMillis());
+        assertEquals("mv2", snapshot.ppId(0));
+        assertEquals("mv1", snapshot.ppId(1));
+        assertEquals("mv3", snapshot.ppId(2));
+
+        MovieDetailVo titanic = snapshot.movie(1);
+        assertEquals("Titanic", titanic.getTitle());
+        assertEquals(1997, titanic.getPublicationYear());
+        assertEquals(194, titanic.getRunTime());
+        assertEquals("7.9", titanic.getRating());
+        assertEquals("PG-13", titanic.getCertificate());
+        assertEquals("Drama,Romance", titanic.getGenres());
+        assertEquals(80.5, titanic.getPopularity(), 0.001);
+
+        assertEquals("千与千寻", snapshot.movie(0).getTitle());
+        assertNull(snapshot.movie(0).getCertificate());
+
+        MovieDetailVo unknown = snapshot.movie(2);
+        assertNull(unknown.getPublicationYear());
+        assertNull(unknown.getPopularity());
+        assertNull(unknown.getGenres());
+        assertNull(unknown.getSummary());
+
+        int drama = snapshot.genreCode("drama");
+        assertTrue(snapshot.hasGenre(0, drama));
+        assertTrue(snapshot.hasGenre(1, drama));
+        assertFalse(snapshot.hasGenre(2, drama));
+        assertEquals(-1, snapshot.genreCode("Western"));
+    }
+
+    @Test
+    void testListFieldsAndCompleteness() throws IOException {
+        // 准备测试数据
+        MovieDetailVo inception = movie("mv1", "Inception", 2010, 148, 90.0, "8.8", null, "Sci-Fi");
+        inception.setMediaId(123L);
+        inception.setRank(3);
+        inception.setGenreIds(List.of(878, 28));
+        inception.setPlotKeywords(List.of("dream", "heist"));
+        PersonVo director = new PersonVo();
+        director.setPersonId(7L);
+        director.setPcId("pc7");
+        director.setName("Christopher Nolan");
+        inception.setDirectors(List.of(director));
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(inception, 1);
+        writer.add(movie("mv2", "Unknown", null, null, null, null, null, null), 1);
+
+        // 执行测试
+        CatalogSnapshot complete = CatalogSnapshot.wrap(writer.toByteArray(0L));
+        writer.markTruncated();
+        CatalogSnapshot truncated = CatalogSnapshot.wrap(writer.toByteArray(0L));
+
+        // 验证结果
+        MovieDetailVo restored = complete.movie(0);
+        assertEquals(123L, restored.getMediaId());
+        assertEquals(3, restored.getRank());
+        assertEquals(List.of(878, 28), restored.getGenreIds());
+        assertEquals(List.of("dream", "heist"), restored.getPlotKeywords());
+        assertEquals("Christopher Nolan", restored.getDirectors().get(0).getName());
+        assertEquals(7L, restored.getDirectors().get(0).getPersonId());
+        assertEquals("pc7", restored.getDirectors().get(0).getPcId());
+        assertNull(restored.getDirectors().get(0).getPhotoUrl());
+        assertNull(restored.getActors());
+
+        MovieDetailVo unknown = complete.movie(1);
+        assertNull(unknown.getMediaId());
+        assertNull(unknown.getRank());
+        assertTrue(unknown.getGenreIds().isEmpty());
+        assertNull(unknown.getPlotKeywords());
+
+        assertTrue(complete.isComplete());
+        assertFalse(truncated.isComplete());
+    }
+
+    @Test
+    void testWriteAndMapFile(@TempDir Path directory) throws IOException {
+        // 准备测试数据
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(movie("mv1", "Titanic", 1997, 194, 80.5, "7.9", "PG-13", "Drama,Romance"), 1);
+        Path file = directory.resolve("catalog-en.snap");
+
+        // 执行测试
+        writer.writeTo(file);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        // 验证结果 - 只留下快照文件，没有残留的临时文件
+        assertEquals("Titanic", snapshot.title(0));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testCorruptedSnapshotRejected() {
+        // 准备测试数据
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(movie("mv1", "Titanic", 1997, 194, 80.5, "7.9", "PG-13", "Drama"), 1);
+        byte[] data = writer.toByteArray(0L);
+        data[data.length - 1] ^= 1;
+
+        // 执行测试 & 验证结果
+        assertThrows(IOException.class, () -> CatalogSnapshot.wrap(data));
+        assertThrows(IOException.class, () -> CatalogSnapshot.wrap(new byte[16]));
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, Integer year, Integer runtime, Double popularity,
+                                       String rating, String certificate, String genres) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setPublicationYear(year);
+        movie.setRunTime(runtime);
+        movie.setPopularity(popularity);
+        movie.setRating(rating);
+        movie.setCertificate(certificate);
+        movie.setGenres(genres);
+        return movie;
+    }
+}
@@ -0,0 +1,53 @@
+package com.peliplat.ai.catalog;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CatalogStore 测试用例
+ */
+class CatalogStoreTest {
+
+    @Test
+    void testOnlyCompleteAndFreshSnapshotAnswers(@TempDir Path directory) throws IOException {
+        // 准备测试数据
+        PeliplatProperties properties = new PeliplatProperties();
+        properties.getCatalog().setDirectory(directory.toString());
+        CatalogStore store = new CatalogStore(properties);
+        properties.getCatalog().setMaxAgeSeconds(0);
+        CatalogStore expiring = new CatalogStore(properties);
+
+        // 执行测试
+        store.install("en", writer(false));
+        expiring.install("en", writer(false));
+        store.install("zh", writer(true));
+
+        // 验证结果 - 截断或过期的快照交给上游，分面筛选仍可使用
+        assertEquals("mv1", store.searchYearAndGenre("2010", "Sci-Fi", "en", 1, 10).getResult().get(0).getPpId());
+        assertNull(store.searchYearAndGenre("2010", "Sci-Fi", "zh", 1, 10));
+        assertNotNull(store.filter(new CatalogQuery(2010, 2010, null, true, null, CatalogQuery.Sort.POPULARITY, 0, 10),
+                "zh"));
+        assertNull(expiring.searchYearAndGenre("2010", "Sci-Fi", "en", 1, 10));
+    }
+
+    private static CatalogSnapshotWriter writer(boolean truncated) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId("mv1");
+        movie.setTitle("Inception");
+        movie.setPublicationYear(2010);
+        movie.setGenres("Sci-Fi");
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(movie, 1);
+        if (truncated) {
+            writer.markTruncated();
+        }
+        return writer;
+    }
+}
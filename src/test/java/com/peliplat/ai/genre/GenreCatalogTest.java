@@ -0,0 +1,74 @@
+package com.peliplat.ai.genre;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peliplat.ai.config.PeliplatProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GenreCatalog 测试用例
+ */
+class GenreCatalogTest {
+
+    @Test
+    void testMergesFilterMetadata() throws Exception {
+        // 准备测试数据 - 国家筛选项中没有已知类型，不会作为类型加入
+        String metadata = """
+                {"data": {"filters": [
+                  {"name": "Genre", "items": [
+                    {"name": "Action", "id": "111"}, {"name": "剧情", "id": "222"},
+                    {"name": "Mockumentary", "id": "333"}, {"name": "Science Fiction", "id": "444"}]},
+                  {"name": "Country", "items": [{"name": "France", "id": "555"}]}]}}
+                """;
+        GenreTaxonomy defaults = GenreTaxonomy.defaults();
+
+        // 执行测试
+        GenreTaxonomy merged = GenreCatalog.merge(defaults, new ObjectMapper().readTree(metadata));
+
+        // 验证结果 - 只通过别名匹配的名称不更新筛选ID，子类型跟随父类型的新筛选ID
+        assertEquals("111", merged.find("Action").filterId());
+        assertEquals("222", merged.find("Drama").filterId());
+        assertEquals("333", merged.find("mockumentary").filterId());
+        assertEquals(defaults.find("Sci-Fi").filterId(), merged.find("Sci-Fi").filterId());
+        assertEquals(List.of("111"), merged.resolve("间谍").filterIds());
+        assertNull(merged.find("France"));
+        assertEquals(defaults.genres().size() + 1, merged.genres().size());
+        assertNull(GenreCatalog.merge(defaults, new ObjectMapper().readTree(
+                "[{\"name\": \"France\", \"id\": \"555\"}]")));
+    }
+
+    @Test
+    void testLoadsSnapshotAndReplacesCurrent(@TempDir Path directory) throws Exception {
+        // 准备测试数据
+        Path file = directory.resolve("genres.json");
+        PeliplatProperties properties = new PeliplatProperties();
+        properties.getGenres().setSnapshotFile(file.toString());
+        GenreTaxonomy taxonomy = GenreTaxonomy.builder()
+                .genre("1", "Action", "动作", "111", null)
+                .genre("tg1", "Spy film", "间谍", null, "1")
+                .alias("Espionage", "Spy film")
+                .build();
+        Files.write(file, new GenreCatalog(null, properties).toJson(taxonomy));
+
+        try {
+            // 执行测试
+            new GenreCatalog(null, properties);
+
+            // 验证结果
+            GenreTaxonomy current = GenreTaxonomy.current();
+            assertEquals(taxonomy.genres(), current.genres());
+            assertEquals(taxonomy.aliases(), current.aliases());
+            assertEquals(List.of("111"), current.resolve("espionage").filterIds());
+            assertNull(current.find("Drama"));
+        } finally {
+            GenreTaxonomy.install(null);
+        }
+        assertSame(GenreTaxonomy.defaults(), GenreTaxonomy.current());
+    }
+}
@@ -0,0 +1,63 @@
+package com.peliplat.ai.genre;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GenreTaxonomy 测试用例
+ */
+class GenreTaxonomyTest {
+
+    private final GenreTaxonomy taxonomy = GenreTaxonomy.defaults();
+
+    @Test
+    void testResolvesAliasesAndLocalNames() {
+        // 执行测试
+        GenreResolution resolution = taxonomy.resolve("Sci-fi, 爱情, romantic comedy");
+
+        // 验证结果
+        assertEquals("Sci-Fi,Romance,Rom-com", resolution.names());
+        assertEquals(List.of("1901930552918593859", "1901930552918593847", "1901930552918593605"),
+                resolution.filterIds());
+        assertTrue(resolution.unresolved().isEmpty());
+        assertEquals(3, resolution.bits().cardinality());
+    }
+
+    @Test
+    void testLongestMatchInOnePass() {
+        // 执行测试 & 验证结果 - 没有分隔符时按最长匹配切分，"片"等后缀不算作无法识别
+        assertEquals("Sci-Fi horror", taxonomy.resolve("科幻恐怖片").names());
+        assertEquals("Action Comedy,Thriller", taxonomy.resolve("action comedy thriller movies").names());
+        assertEquals("Musical,War", taxonomy.resolve("音乐剧和战争").names());
+        assertEquals("History,War", taxonomy.resolve("革命").names());
+        assertEquals("Sci-Fi", taxonomy.resolve("SCIENCE  FICTION").names());
+    }
+
+    @Test
+    void testSubGenreUsesParentFilterId() {
+        // 执行测试
+        Genre spy = taxonomy.find("间谍");
+
+        // 验证结果 - 没有自己的筛选ID时使用父类型Action的
+        assertEquals("tg20012624", spy.id());
+        assertEquals("1", taxonomy.parent(spy).id());
+        assertEquals("1901930552914399244", taxonomy.filterId(spy));
+        assertEquals(List.of("1901930552914399244"), taxonomy.resolve("Spy film, Action").filterIds());
+    }
+
+    @Test
+    void testUnresolvedWords() {
+        // 执行测试
+        GenreResolution resolution = taxonomy.resolve("Drama, Telenovela, 武打");
+
+        // 验证结果
+        assertEquals("Drama", resolution.names());
+        assertEquals(List.of("telenovela", "武打"), resolution.unresolved());
+        assertFalse(taxonomy.resolve("Telenovela").hasGenres());
+        assertNull(taxonomy.find("Actionable"));
+        assertEquals("7", taxonomy.find("剧情").key());
+    }
+}
@@ -0,0 +1,88 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FuzzyTitleMatcher 测试用例
+ */
+class FuzzyTitleMatcherTest {
+
+    private final FuzzyTitleMatcher matcher = new FuzzyTitleMatcher(new PeliplatProperties());
+
+    @Test
+    void testResolvesNearMissTitles() {
+        // 准备测试数据
+        matcher.onMovies(List.of(
+                movie("mv1", "千与千寻", "Spirited Away"),
+                movie("mv2", "建国大业", "The Founding of a Republic"),
+                movie("mv3", "Aliens", null)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果
+        assertEquals("mv1", matcher.match("Spirted Away", "en", true).getPpId());
+        assertEquals("mv2", matcher.match("The Founding of Republic", "en", true).getPpId());
+        assertNull(matcher.match("Spirted Away", "zh", true));
+        assertNull(matcher.match("Completely Different", "en", false));
+    }
+
+    @Test
+    void testShortQueriesOnlyAsFallback() {
+        // 准备测试数据
+        matcher.onMovies(List.of(movie("mv3", "Aliens", null)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果 - 短片名不代替上游搜索，只在上游没有结果时兜底
+        assertNull(matcher.match("Alien", "en", true));
+        assertEquals("mv3", matcher.match("Alien", "en", false).getPpId());
+    }
+
+    @Test
+    void testPrefersBetterRankedMovieOnTie() {
+        // 准备测试数据 - 名次越靠前越优先
+        matcher.onMovies(List.of(movie("mv10", "The Batman", null), movie("mv11", "The Catman", null)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果
+        assertEquals("mv10", matcher.match("The Hatman", "en", true).getPpId());
+    }
+
+    @Test
+    void testKeepsOnlyMoviesWithIndexedTitles() {
+        // 准备测试数据 - 最多收录两个片名
+        PeliplatProperties properties = new PeliplatProperties();
+        properties.getIndex().setMaxDocuments(2);
+        FuzzyTitleMatcher limited = new FuzzyTitleMatcher(properties);
+        limited.onMovies(List.of(
+                movie("mv1", "Spirited Away", null),
+                movie("mv2", "The Batman", null),
+                movie("mv3", "Aliens Returned", null),
+                movie("mv4", "Up", null)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 - 同一片名改指向另一部电影
+        limited.onMovies(List.of(movie("mv5", "The Batman", null)), "en", MovieSource.LIBRARY);
+
+        // 验证结果 - 超出上限和片名过短的电影不保留，失去全部片名的电影被移除
+        assertEquals(2, limited.size());
+        assertEquals("mv5", limited.match("The Batmen", "en", true).getPpId());
+        assertNull(limited.match("Aliens Returns", "en", true));
+    }
+
+    @Test
+    void testBoundedEditDistance() {
+        // 执行测试 & 验证结果
+        assertEquals(0, FuzzyTitleMatcher.editDistance("matrix", "matrix", 2));
+        assertEquals(1, FuzzyTitleMatcher.editDistance("spirted away", "spirited away", 2));
+        assertEquals(3, FuzzyTitleMatcher.editDistance("abcdef", "uvwxyz", 2));
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, String originalTitle) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setOriginalTitle(originalTitle);
+        return movie;
+    }
+}
@@ -0,0 +1,99 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.PersonVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MovieSearchIndex 测试用例
+ */
+class MovieSearchIndexTest {
+
+    private final MovieSearchIndex index = new MovieSearchIndex(new PeliplatProperties());
+
+    @Test
+    void testExactTitleHit() {
+        // 准备测试数据
+        index.onMovies(List.of(
+                movie("mv1", "Titanic", null, "James Cameron"),
+                movie("mv2", "Titanic II", null, "Shane Van Dyke"),
+                movie("mv3", "Avatar", null, "James Cameron")), "en", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试
+        MovieListResponseVo result = index.search("  TITANIC ", "EN", 2);
+
+        // 验证结果 - 片名完全一致的排在最前，其后是包含全部查询词的电影
+        assertNotNull(result);
+        assertEquals(List.of("mv1", "mv2"), result.getResult().stream().map(MovieDetailVo::getPpId).toList());
+        assertEquals(2, result.getCount());
+        assertEquals(1, index.search("titanic", "en", 1).getCount());
+    }
+
+    @Test
+    void testMissWhenLocalHitsDoNotFillLimit() {
+        // 准备测试数据 - 库列表返回的电影不参与关键词搜索
+        index.onMovies(List.of(movie("mv1", "Titanic", null, "James Cameron")), "en", MovieSource.DETAIL_SEARCH);
+        index.onMovies(List.of(movie("mv2", "Titanic II", null, null)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果 - 本地只有一部时，只能回答单部电影查询
+        assertNull(index.search("Titanic", "en", 2));
+        assertNull(index.search("Titanic II", "en", 1));
+        assertEquals("mv1", index.search("Titanic", "en", 1).getResult().get(0).getPpId());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testOriginalTitleHit() {
+        // 准备测试数据
+        index.onMovies(List.of(movie("mv10", "千与千寻", "Spirited Away", "宫崎骏")), "zh", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试 & 验证结果
+        assertEquals("mv10", index.search("Spirited Away", "zh", 1).getResult().get(0).getPpId());
+        assertEquals("mv10", index.search("《千与千寻》", "zh", 1).getResult().get(0).getPpId());
+        assertNull(index.search("Spirited Away", "en", 1));
+    }
+
+    @Test
+    void testMissWithoutExactTitle() {
+        // 准备测试数据
+        index.onMovies(List.of(movie("mv1", "Titanic", null, "James Cameron")), "en", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试 & 验证结果 - 只命中部分词或导演名时交给上游
+        assertNull(index.search("James Cameron", "en", 1));
+        assertNull(index.search("Inception", "en", 1));
+        assertNull(index.search("", "en", 1));
+    }
+
+    @Test
+    void testReindexRemovesOldTitle() {
+        // 准备测试数据
+        index.onMovies(List.of(movie("mv1", "Working Title", null, null)), "en", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试
+        index.onMovies(List.of(movie("mv1", "Final Title", null, null)), "en", MovieSource.DETAIL_SEARCH);
+
+        // 验证结果
+        assertNull(index.search("Working Title", "en", 1));
+        assertEquals("Final Title", index.search("Final Title", "en", 1).getResult().get(0).getTitle());
+        assertEquals(1, index.size());
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, String originalTitle, String director) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setOriginalTitle(originalTitle);
+        if (director != null) {
+            PersonVo person = new PersonVo();
+            person.setName(director);
+            movie.setDirectors(List.of(person));
+        }
+        return movie;
+    }
+}
@@ -0,0 +1,89 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.PersonVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PersonIndex 测试用例
+ */
+class PersonIndexTest {
+
+    private final PersonIndex index = new PersonIndex(new PeliplatProperties());
+
+    @Test
+    void testFilmographyByNameAndRole() {
+        // 准备测试数据
+        index.onMovies(List.of(
+                movie("mv1", "Inception", 60.0, List.of(person("pc1", "Christopher Nolan")),
+                        List.of(person("pc2", "Leonardo DiCaprio"))),
+                movie("mv2", "Oppenheimer", 90.0, List.of(person("pc1", "Christopher Nolan")), List.of()),
+                movie("mv3", "Titanic", 70.0, List.of(person("pc3", "James Cameron")),
+                        List.of(person("pc2", "Leonardo DiCaprio")))), "en", MovieSource.LIBRARY);
+
+        // 执行测试
+        MovieListResponseVo nolan = index.filmography("christopher  nolan", null, "en", 10);
+        MovieListResponseVo leo = index.filmography("pc2", PersonIndex.Role.ACTOR, "en", 1);
+
+        // 验证结果 - 按热度降序
+        assertEquals(List.of("mv2", "mv1"), nolan.getResult().stream().map(MovieDetailVo::getPpId).toList());
+        assertEquals("mv3", leo.getResult().get(0).getPpId());
+        assertEquals(2, leo.getTotalCount());
+        assertTrue(index.filmography("Leonardo DiCaprio", PersonIndex.Role.DIRECTOR, "en", 10).getResult().isEmpty());
+        assertNull(index.filmography("Steven Spielberg", null, "en", 10));
+    }
+
+    @Test
+    void testNamesResolveAcrossLanguages() {
+        // 准备测试数据 - 同一pcId在不同语言下的姓名不同
+        index.onMovies(List.of(movie("mv1", "Inception", 60.0, List.of(person("pc1", "Christopher Nolan")), null)), "en", MovieSource.LIBRARY);
+        index.onMovies(List.of(movie("mv1", "盗梦空间", 60.0, List.of(person("pc1", "克里斯托弗·诺兰")), null)), "zh", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果 - 用英文名查询时返回中文信息
+        assertEquals("盗梦空间", index.filmography("Christopher Nolan", null, "zh", 10).getResult().get(0).getTitle());
+        assertEquals("Inception", index.filmography("克里斯托弗·诺兰", null, "ja", 10).getResult().get(0).getTitle());
+        assertEquals(1, index.find("Christopher Nolan").get(0).directed());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testDetailSearchPopularityDoesNotAffectOrder() {
+        // 准备测试数据 - 详情搜索结果带占位热度，并覆盖同一电影的库列表信息
+        index.onMovies(List.of(
+                movie("mv1", "Inception", 60.0, List.of(person("pc1", "Christopher Nolan")), null),
+                movie("mv2", "Oppenheimer", 90.0, List.of(person("pc1", "Christopher Nolan")), null)), "en", MovieSource.LIBRARY);
+        index.onMovies(List.of(
+                movie("mv1", "Inception", 9999900.0, List.of(person("pc1", "Christopher Nolan")), null),
+                movie("mv3", "Tenet", 9999900.0, List.of(person("pc1", "Christopher Nolan")), null)), "en", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试
+        MovieListResponseVo nolan = index.filmography("Christopher Nolan", PersonIndex.Role.DIRECTOR, "en", 10);
+
+        // 验证结果 - 沿用库列表热度，没有库列表热度的排在最后
+        assertEquals(List.of("mv2", "mv1", "mv3"), nolan.getResult().stream().map(MovieDetailVo::getPpId).toList());
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, double popularity,
+                                       List<PersonVo> directors, List<PersonVo> actors) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setPopularity(popularity);
+        movie.setDirectors(directors);
+        movie.setActors(actors);
+        return movie;
+    }
+
+    private static PersonVo person(String pcId, String name) {
+        PersonVo person = new PersonVo();
+        person.setPcId(pcId);
+        person.setName(name);
+        return person;
+    }
+}
@@ -0,0 +1,62 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SimilarMovieIndex 测试用例
+ */
+class SimilarMovieIndexTest {
+
+    private final SimilarMovieIndex index = new SimilarMovieIndex(new PeliplatProperties());
+
+    @Test
+    void testRanksByKeywordAndGenreOverlap() {
+        // 准备测试数据
+        index.onMovies(List.of(
+                movie("mv1", "Inception", "Sci-Fi, Thriller", List.of("dream", "heist", "subconscious"),
+                        "A thief enters dreams to plant an idea."),
+                movie("mv2", "Paprika", "Animation, Sci-Fi", List.of("dream", "subconscious"),
+                        "A device lets therapists enter patients' dreams."),
+                movie("mv3", "Heat", "Crime, Thriller", List.of("heist", "bank robbery"),
+                        "A detective hunts a crew of bank robbers."),
+                movie("mv4", "Notting Hill", "Comedy, Romance", List.of("bookshop", "movie star"),
+                        "A bookshop owner falls for a movie star.")), "en", MovieSource.LIBRARY);
+
+        // 执行测试
+        MovieListResponseVo result = index.similar("mv1", "en", 10);
+
+        // 验证结果 - 不含目标电影本身，只在简介中共有常见词的电影排在最后
+        assertEquals(List.of("mv2", "mv3", "mv4"), result.getResult().stream().map(MovieDetailVo::getPpId).toList());
+        assertEquals(1, index.similar("inception", "en", 1).getCount());
+        assertNull(index.similar("mv404", "en", 10));
+    }
+
+    @Test
+    void testFallsBackToOtherLanguage() {
+        // 准备测试数据
+        index.onMovies(List.of(
+                movie("mv1", "千与千寻", "动画, 奇幻", List.of("神灵", "浴场"), "少女误入神灵世界。"),
+                movie("mv2", "龙猫", "动画, 奇幻", List.of("神灵", "乡村"), "姐妹在乡村遇到森林里的神灵。")), "zh", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果
+        assertEquals("mv2", index.similar("mv1", "en", 10).getResult().get(0).getPpId());
+        assertEquals(2, index.size());
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, String genres, List<String> keywords, String summary) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setGenres(genres);
+        movie.setPlotKeywords(keywords);
+        movie.setSummary(summary);
+        return movie;
+    }
+}
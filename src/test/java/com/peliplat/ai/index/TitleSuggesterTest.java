@@ -0,0 +1,118 @@
+package com.peliplat.ai.index;
+
+import com.peliplat.ai.config.PeliplatProperties;
+import com.peliplat.ai.model.MovieDetailVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TitleSuggester 测试用例
+ */
+class TitleSuggesterTest {
+
+    private final TitleSuggester suggester = new TitleSuggester(new PeliplatProperties());
+
+    @Test
+    void testPrefixRankedByPopularity() {
+        // 准备测试数据 - 插入顺序会触发边的拆分
+        suggester.onMovies(List.of(
+                movie("mv1", "Star Wars", null, 50.0),
+                movie("mv2", "Stardust", null, 10.0),
+                movie("mv3", "Star Trek", null, 80.0),
+                movie("mv4", "Starship Troopers", null, 30.0)), "en", MovieSource.LIBRARY);
+
+        // 执行测试 & 验证结果
+        assertEquals(List.of("mv3", "mv1", "mv4", "mv2"), ppIds(suggester.suggest("star", "en", 10)));
+        assertEquals(List.of("mv3", "mv1"), ppIds(suggester.suggest("Star ", "en", 10)));
+        assertEquals(List.of("mv4"), ppIds(suggester.suggest("starsh", "en", 10)));
+        assertEquals(List.of("mv2"), ppIds(suggester.suggest("stard", "en", 10)));
+        assertEquals(List.of("mv3"), ppIds(suggester.suggest("star", "en", 1)));
+        assertTrue(suggester.suggest("starz", "en", 10).isEmpty());
+        assertEquals(4, suggester.size());
+    }
+
+    @Test
+    void testOriginalTitleAndUpdate() {
+        // 准备测试数据
+        suggester.onMovies(List.of(movie("mv10", "千与千寻", "Spirited Away", 20.0)), "zh", MovieSource.LIBRARY);
+        suggester.onMovies(List.of(movie("mv11", "Spider-Man", null, 40.0)), "zh", MovieSource.LIBRARY);
+
+        // 执行测试 - 再次获取时热度更新
+        suggester.onMovies(List.of(movie("mv10", "千与千寻", "Spirited Away", 90.0)), "zh", MovieSource.LIBRARY);
+
+        // 验证结果 - 同一电影只出现一次，每种语言一棵前缀树
+        assertEquals(List.of("mv10", "mv11"), ppIds(suggester.suggest("spi", "zh", 10)));
+        assertEquals("千与千寻", suggester.suggest("千与", "ZH", 10).get(0).title());
+        assertTrue(suggester.suggest("spi", "en", 10).isEmpty());
+    }
+
+    @Test
+    void testPlaceholderPopularityTreatedAsUnknown() {
+        // 准备测试数据 - 关键词搜索结果的热度是占位值
+        suggester.onMovies(List.of(movie("mv1", "Alien", null, 60.0)), "en", MovieSource.LIBRARY);
+        suggester.onMovies(List.of(
+                movie("mv1", "Alien", null, 9999900.0),
+                movie("mv2", "Aliens", null, 9999900.0)), "en", MovieSource.DETAIL_SEARCH);
+
+        // 执行测试
+        List<TitleSuggestion> suggestions = suggester.suggest("alien", "en", 10);
+
+        // 验证结果 - 已知热度沿用库列表的值，只出现在关键词搜索中的电影热度未知
+        assertEquals(List.of("mv1", "mv2"), ppIds(suggestions));
+        assertEquals(60.0, suggestions.get(0).popularity());
+        assertEquals(0.0, suggestions.get(1).popularity());
+    }
+
+    @Test
+    void testTitleLimitLeavesTreeUntouched() {
+        // 准备测试数据
+        PeliplatProperties properties = new PeliplatProperties();
+        properties.getIndex().setMaxDocuments(1);
+        TitleSuggester limited = new TitleSuggester(properties);
+        limited.onMovies(List.of(movie("mv1", "Star Wars", null, 10.0)), "en", MovieSource.LIBRARY);
+
+        // 执行测试
+        limited.onMovies(List.of(
+                movie("mv2", "Star Trek", null, 80.0),
+                movie("mv3", "Star Wars", null, 50.0)), "en", MovieSource.LIBRARY);
+
+        // 验证结果 - 超出上限的新片名不会出现在前缀提示中，已有片名仍可加入新电影
+        assertEquals(List.of("mv3", "mv1"), ppIds(limited.suggest("star", "en", 10)));
+        assertEquals(1, limited.size());
+    }
+
+    @Test
+    void testKeepsTopSuggestionsPerNode() {
+        // 准备测试数据
+        List<MovieDetailVo> movies = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            movies.add(movie("mv" + i, "The Movie " + i, null, i));
+        }
+        suggester.onMovies(movies, "en", MovieSource.LIBRARY);
+
+        // 执行测试
+        List<TitleSuggestion> suggestions = suggester.suggest("the movie", "en", 20);
+
+        // 验证结果
+        assertEquals(TitleSuggester.MAX_SUGGESTIONS, suggestions.size());
+        assertEquals("mv29", suggestions.get(0).ppId());
+        assertEquals("mv20", suggestions.get(9).ppId());
+    }
+
+    private static List<String> ppIds(List<TitleSuggestion> suggestions) {
+        return suggestions.stream().map(TitleSuggestion::ppId).toList();
+    }
+
+    private static MovieDetailVo movie(String ppId, String title, String originalTitle, double popularity) {
+        MovieDetailVo movie = new MovieDetailVo();
+        movie.setPpId(ppId);
+        movie.setTitle(title);
+        movie.setOriginalTitle(originalTitle);
+        movie.setPopularity(popularity);
+        return movie;
+    }
+}
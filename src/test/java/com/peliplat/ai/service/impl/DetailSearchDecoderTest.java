@@ -0,0 +1,61 @@
+package com.peliplat.ai.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import com.peliplat.ai.model.SearchResultVo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DetailSearchDecoder 测试用例
+ */
+class DetailSearchDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void testDecodeMatchesDatabindConversion() throws IOException {
+        // 准备测试数据
+        byte[] body = loadFixture();
+        MovieListResponseVo expected = PeliplatApiSupport.convertSearchResultToMovieList(
+                objectMapper.readValue(body, SearchResultVo.class));
+
+        // 执行测试
+        MovieListResponseVo actual = DetailSearchDecoder.decode(body);
+
+        // 验证结果 - 与原先先反序列化再复制的结果完全一致
+        assertNotNull(actual);
+        assertEquals(2, actual.getResult().size());
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(actual));
+
+        MovieDetailVo titanic = actual.getResult().get(0);
+        assertEquals("mv1057", titanic.getPpId());
+        assertEquals("Titanic", titanic.getOriginalTitle());
+        assertEquals("media", titanic.getRelateType());
+        assertEquals(10L, titanic.getActors().get(0).getPersonId());
+        assertEquals(2010, actual.getResult().get(1).getPublicationYear());
+    }
+
+    @Test
+    void testEmptyBodyReturnsNull() throws IOException {
+        // 执行测试 & 验证结果
+        assertNull(DetailSearchDecoder.decode(new byte[0]));
+        assertNull(DetailSearchDecoder.decode("null".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(DetailSearchDecoder.decode("{}".getBytes(StandardCharsets.UTF_8)).getResult().isEmpty());
+    }
+
+    private static byte[] loadFixture() throws IOException {
+        try (InputStream in = DetailSearchDecoderTest.class.getResourceAsStream("/peliplat/detail-search.json")) {
+            assertNotNull(in);
+            return in.readAllBytes();
+        }
+    }
+}
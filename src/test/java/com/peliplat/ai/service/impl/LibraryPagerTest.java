@@ -0,0 +1,89 @@
+package com.peliplat.ai.service.impl;
+
+import com.peliplat.ai.model.MovieDetailVo;
+import com.peliplat.ai.model.MovieListResponseVo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LibraryPager 测试用例
+ */
+class LibraryPagerTest {
+
+    @Test
+    void testStopsAtShortPage() {
+        // 准备测试数据 - 第3页不满一页，之后的页不应再输出
+        AtomicInteger calls = new AtomicInteger();
+
+        // 执行测试
+        List<MovieDetailVo> movies = LibraryPager.stream(pageId -> {
+            calls.incrementAndGet();
+            return Mono.just(page(pageId, pageId == 3 ? 1 : 2, null));
+        }, 2, 2, 100).collectList().block();
+
+        // 验证结果
+        assertNotNull(movies);
+        assertEquals(List.of("mv1-0", "mv1-1", "mv2-0", "mv2-1", "mv3-0"),
+                movies.stream().map(MovieDetailVo::getPpId).toList());
+        assertTrue(calls.get() <= 3 + 2);
+    }
+
+    @Test
+    void testRespectsTotalPage() {
+        // 准备测试数据
+        AtomicInteger calls = new AtomicInteger();
+
+        // 执行测试
+        List<MovieDetailVo> movies = LibraryPager.stream(pageId -> {
+            calls.incrementAndGet();
+            return Mono.just(page(pageId, 2, 2));
+        }, 2, 2, 100).collectList().block();
+
+        // 验证结果
+        assertEquals(4, movies.size());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testLazyWithBoundedReadAhead() {
+        // 准备测试数据 - 结果无穷多，只取前5部
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        // 执行测试
+        List<MovieDetailVo> movies = LibraryPager.stream(pageId -> Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return page(pageId, 2, null);
+        }).subscribeOn(Schedulers.boundedElastic()), 2, 2, 1000).take(5).collectList().block();
+
+        // 验证结果 - 只多请求预读范围内的页
+        assertEquals(5, movies.size());
+        assertTrue(calls.get() <= 3 + 2, "calls: " + calls.get());
+        assertTrue(maxInFlight.get() <= 2, "maxInFlight: " + maxInFlight.get());
+    }
+
+    private static MovieListResponseVo page(int pageId, int count, Integer totalPage) {
+        List<MovieDetailVo> movies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MovieDetailVo movie = new MovieDetailVo();
+            movie.setPpId("mv" + pageId + "-" + i);
+            movies.add(movie);
+        }
+        MovieListResponseVo responseVo = new MovieListResponseVo();
+        responseVo.setResult(movies);
+        responseVo.setCount(count);
+        responseVo.setTotalPage(totalPage);
+        return responseVo;
+    }
+}
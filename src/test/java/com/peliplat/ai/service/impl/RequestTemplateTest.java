@@ -0,0 +1,106 @@
+package com.peliplat.ai.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RequestTemplate 测试用例
+ * 预编译模板的输出必须与原先UriComponentsBuilder/FormHttpMessageConverter生成的请求逐字节一致
+ */
+class RequestTemplateTest {
+
+    @Test
+    void testSearchUrlMatchesUriComponentsBuilder() {
+        // 准备测试数据
+        String query = "千与千寻 Spirited Away & more";
+        String expected = UriComponentsBuilder.fromUriString(PeliplatApiSupport.PELIPLAT_API_BASE_URL)
+                .queryParam("languageCode", "zh")
+                .queryParam("pageSize", 20)
+                .queryParam("client", "web")
+                .queryParam("keyword", URLEncoder.encode(query, StandardCharsets.UTF_8))
+                .queryParam("pageId", 1)
+                .queryParam("mark", "movies,series")
+                .build()
+                .toUriString();
+
+        // 执行测试
+        String actual = PeliplatApiSupport.buildSearchUrl(query, 1, "zh", 20);
+
+        // 验证结果
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testYearAndGenreFormMatchesFormConverter() throws IOException {
+        // 准备测试数据 - 原先逐个字段构建的表单
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("filterIds", "1901930552914399244,1901930552914399242");
+        params.add("language", "en");
+        params.add("client", "web");
+        params.add("watched", "false");
+        params.add("whereToWatch", "false");
+        params.add("targetUid", "");
+        params.add("filterMediaType", "1");
+        params.add("sort", "3");
+        params.add("sortMode", "1");
+        params.add("queryMode", "2");
+        params.add("pageId", "1");
+        params.add("pageSize", "20");
+        params.add("filterYear", "[2024:2024]");
+        params.add("filterRegion", "");
+        params.add("filterRuntime", "");
+
+        // 执行测试
+        byte[] actual = PeliplatApiSupport.buildYearAndGenreForm("2024", "Action,Comedy", "en");
+
+        // 验证结果
+        assertEquals(writeForm(params), new String(actual, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFormUsesRequestedPageAndPageSize() {
+        // 执行测试
+        String popular = new String(PeliplatApiSupport.buildPopularMoviesForm("zh", 1), StandardCharsets.UTF_8);
+        String yearAndGenre = new String(PeliplatApiSupport.buildYearAndGenreForm("2024", null, "zh", 5),
+                StandardCharsets.UTF_8);
+        String nextPage = new String(PeliplatApiSupport.buildYearAndGenreForm("2024", null, "zh", 3, 5),
+                StandardCharsets.UTF_8);
+
+        // 验证结果
+        assertTrue(popular.endsWith("&pageId=1&pageSize=1"));
+        assertTrue(yearAndGenre.contains("&pageId=1&pageSize=5&filterYear="));
+        assertTrue(nextPage.contains("&pageId=3&pageSize=5&filterYear="));
+    }
+
+    @Test
+    void testNullValueWritesNameOnly() {
+        // 准备测试数据
+        RequestTemplate template = RequestTemplate.form()
+                .variable("language")
+                .constant("client", "web")
+                .build();
+
+        // 执行测试 & 验证结果
+        assertEquals(1, template.variableCount());
+        assertEquals("language&client=web", template.expand((String) null));
+        assertEquals("language=zh&client=web", template.expand("zh"));
+        assertThrows(IllegalArgumentException.class, () -> template.expand("zh", "en"));
+    }
+
+    private static String writeForm(MultiValueMap<String, String> params) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        new FormHttpMessageConverter().write(params, MediaType.APPLICATION_FORM_URLENCODED, message);
+        return message.getBodyAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.peliplat.ai.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QueryNormalizer 测试用例
+ */
+class QueryNormalizerTest {
+
+    @Test
+    void testNormalizeVariants() {
+        // 执行测试 & 验证结果
+        assertEquals("the godfather", QueryNormalizer.normalize("  Ｔｈｅ　GODFATHER "));
+        assertEquals("spider man", QueryNormalizer.normalize("Spider-Man"));
+        assertEquals("schindlers list", QueryNormalizer.normalize("Schindler’s List"));
+        assertEquals("star wars episode iv", QueryNormalizer.normalize("Star Wars: Episode IV"));
+        assertEquals("哈利波特", QueryNormalizer.normalize("哈利·波特"));
+        assertEquals("千与千寻", QueryNormalizer.normalize("《千与千寻》"));
+        assertEquals("", QueryNormalizer.normalize(null));
+    }
+
+    @Test
+    void testFoldTraditionalChinese() {
+        // 执行测试 & 验证结果
+        assertEquals("千与千寻", QueryNormalizer.normalize("千與千尋", true));
+        assertEquals("卧虎藏龙", QueryNormalizer.normalize("臥虎藏龍", true));
+        assertEquals("千與千尋", QueryNormalizer.normalize("千與千尋", false));
+    }
+
+    @Test
+    void testHitRateOnRecordedQueries() throws IOException {
+        // 准备测试数据 - 记录的真实查询序列，以及归一化前使用的键（trim + 合并空白 + 小写）
+        List<String> queries = loadRecordedQueries();
+        UnaryOperator<String> previousKey = query -> query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+
+        // 执行测试 - 模拟无限容量缓存，键出现过即视为命中
+        double before = hitRate(queries, previousKey);
+        double after = hitRate(queries, QueryNormalizer::normalize);
+        double folded = hitRate(queries, query -> QueryNormalizer.normalize(query, true));
+
+        // 验证结果 - 记录的查询上分别约为26%、53%、58%
+        assertTrue(before < 0.3, "归一化前命中率: " + before);
+        assertTrue(after >= 0.5, "归一化后命中率: " + after);
+        assertTrue(folded >= 0.55, "繁简折叠后命中率: " + folded);
+        assertTrue(after > before, "归一化后命中率应高于归一化前");
+        assertTrue(folded > after, "繁简折叠后命中率应进一步提高");
+    }
+
+    private static double hitRate(List<String> queries, UnaryOperator<String> keyFunction) {
+        Set<String> seen = new HashSet<>();
+        int hits = 0;
+        for (String query : queries) {
+            if (!seen.add(keyFunction.apply(query))) {
+                hits++;
+            }
+        }
+        return (double) hits / queries.size();
+    }
+
+    private static List<String> loadRecordedQueries() throws IOException {
+        try (InputStream in = QueryNormalizerTest.class.getResourceAsStream("/query-normalization/recorded-queries.txt")) {
+            assertNotNull(in);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .toList();
+        }
+    }
+}